@@ -1,7 +1,10 @@
 package com.dsousa.minhasfinancas.api;
 
 import com.dsousa.minhasfinancas.service.JwtService;
+import com.dsousa.minhasfinancas.service.RevogacaoTokenService;
+import com.dsousa.minhasfinancas.service.RevogacaoUsuarioService;
 import com.dsousa.minhasfinancas.service.impl.SecurityUserDetailsService;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +16,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 
 public class JwtTokenFilter extends OncePerRequestFilter {
 
@@ -20,9 +24,20 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 
 	private final SecurityUserDetailsService userDetailsService;
 
-	public JwtTokenFilter(JwtService jwtService, SecurityUserDetailsService userDetailsService) {
+	private final RevogacaoUsuarioService revogacaoUsuarioService;
+
+	private final RevogacaoTokenService revogacaoTokenService;
+
+	private final boolean autenticacaoPorClaims;
+
+	public JwtTokenFilter(JwtService jwtService, SecurityUserDetailsService userDetailsService,
+			RevogacaoUsuarioService revogacaoUsuarioService, RevogacaoTokenService revogacaoTokenService,
+			boolean autenticacaoPorClaims) {
 		this.jwtService = jwtService;
 		this.userDetailsService = userDetailsService;
+		this.revogacaoUsuarioService = revogacaoUsuarioService;
+		this.revogacaoTokenService = revogacaoTokenService;
+		this.autenticacaoPorClaims = autenticacaoPorClaims;
 	}
 
 	@Override
@@ -30,11 +45,10 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 		String authorization = request.getHeader("Authorization");
 		if (authorization != null && authorization.startsWith("Bearer")) {
-			String token = authorization.split(" ")[1];
-			boolean isTokenValid = jwtService.isTokenValido(token);
-			if (isTokenValid) {
-				String login = jwtService.obterLoginUsuario(token);
-				UserDetails usuarioAutenticado = userDetailsService.loadUserByUsername(login);
+			String token = authorization.substring("Bearer".length()).trim();
+			Optional<Claims> claims = jwtService.obterClaimsValidas(token);
+			if (claims.isPresent() && !isRevogado(claims.get())) {
+				UserDetails usuarioAutenticado = obterUsuarioAutenticado(claims.get());
 				UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(usuarioAutenticado,
 						null, usuarioAutenticado.getAuthorities());
 				user.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -44,4 +58,17 @@ public class JwtTokenFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	private boolean isRevogado(Claims claims) {
+		return revogacaoUsuarioService.isRevogado(claims.get("userid", Long.class), claims.getIssuedAt())
+				|| revogacaoTokenService.isRevogado(claims.getId());
+	}
+
+	private UserDetails obterUsuarioAutenticado(Claims claims) {
+		if (autenticacaoPorClaims) {
+			return new UsuarioAutenticado(claims.get("userid", Long.class), claims.getSubject(),
+					claims.get("nome", String.class), null);
+		}
+		return userDetailsService.loadUserByUsername(claims.getSubject());
+	}
+
 }
@@ -0,0 +1,70 @@
+package com.dsousa.minhasfinancas.api;
+
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UsuarioAutenticado implements UserDetails {
+
+	private static final List<GrantedAuthority> PERFIS = AuthorityUtils.createAuthorityList("ROLE_USER");
+
+	private final Long id;
+
+	private final String email;
+
+	private final String nome;
+
+	private final String senha;
+
+	public Usuario comoUsuario() {
+		return Usuario.builder().id(id).email(email).nome(nome).build();
+	}
+
+	public boolean isDono(Long idUsuario) {
+		return id != null && id.equals(idUsuario);
+	}
+
+	@Override
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return PERFIS;
+	}
+
+	@Override
+	public String getPassword() {
+		return senha;
+	}
+
+	@Override
+	public String getUsername() {
+		return email;
+	}
+
+	@Override
+	public boolean isAccountNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isAccountNonLocked() {
+		return true;
+	}
+
+	@Override
+	public boolean isCredentialsNonExpired() {
+		return true;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+}
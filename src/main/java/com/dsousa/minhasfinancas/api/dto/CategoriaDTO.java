@@ -0,0 +1,20 @@
+package com.dsousa.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoriaDTO {
+
+	private Long id;
+
+	private String descricao;
+
+	private Boolean ativa;
+
+}
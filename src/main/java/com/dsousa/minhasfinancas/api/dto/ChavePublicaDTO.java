@@ -0,0 +1,14 @@
+package com.dsousa.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ChavePublicaDTO {
+
+	private String algoritmo;
+
+	private String chave;
+
+}
@@ -0,0 +1,42 @@
+package com.dsousa.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroLancamentoDTO {
+
+	private Long usuario;
+
+	private String descricao;
+
+	private Integer ano;
+
+	private Integer mes;
+
+	private Integer anoInicial;
+
+	private Integer mesInicial;
+
+	private Integer anoFinal;
+
+	private Integer mesFinal;
+
+	private BigDecimal valorMinimo;
+
+	private BigDecimal valorMaximo;
+
+	private String tipo;
+
+	private String status;
+
+	private String ordenacao;
+
+}
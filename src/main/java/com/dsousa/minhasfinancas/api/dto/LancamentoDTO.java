@@ -1,11 +1,14 @@
 package com.dsousa.minhasfinancas.api.dto;
 
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 @Data
 @Builder
@@ -29,4 +32,14 @@ public class LancamentoDTO {
 
 	private String status;
 
+	private Long versao;
+
+	private Set<Long> categorias;
+
+	public LancamentoDTO(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor, Long usuario,
+			TipoLancamento tipo, StatusLancamento status, Long versao) {
+		this(id, descricao, mes, ano, valor, usuario, tipo == null ? null : tipo.name(),
+				status == null ? null : status.name(), versao, null);
+	}
+
 }
@@ -0,0 +1,36 @@
+package com.dsousa.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LancamentoRecorrenteDTO {
+
+	private Long id;
+
+	private String descricao;
+
+	private BigDecimal valor;
+
+	private String tipo;
+
+	private String periodicidade;
+
+	private Integer anoInicial;
+
+	private Integer mesInicial;
+
+	private Integer anoFinal;
+
+	private Integer mesFinal;
+
+	private Long usuario;
+
+}
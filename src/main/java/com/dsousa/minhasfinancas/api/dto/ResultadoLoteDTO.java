@@ -0,0 +1,12 @@
+package com.dsousa.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ResultadoLoteDTO {
+
+	private int afetados;
+
+}
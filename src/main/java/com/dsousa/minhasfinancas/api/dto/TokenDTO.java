@@ -11,4 +11,6 @@ public class TokenDTO {
 
 	private String token;
 
+	private String refreshToken;
+
 }
@@ -0,0 +1,62 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.dto.CategoriaDTO;
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.entity.Categoria;
+import com.dsousa.minhasfinancas.service.CategoriaService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/categorias")
+@RequiredArgsConstructor
+public class CategoriaResource {
+
+	private final CategoriaService service;
+
+	@GetMapping
+	public ResponseEntity<?> buscarAtivas() {
+		return ResponseEntity.status(HttpStatus.OK)
+			.body(service.obterAtivas().stream().map(this::converter).collect(Collectors.toList()));
+	}
+
+	@PostMapping
+	public ResponseEntity<?> salvar(@RequestBody CategoriaDTO dto) {
+		try {
+			Categoria categoria = service.salvar(converter(dto));
+			return ResponseEntity.status(HttpStatus.CREATED).body(converter(categoria));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@PutMapping("/{id}")
+	public ResponseEntity<?> atualizar(@PathVariable("id") Long id, @RequestBody CategoriaDTO dto) {
+		try {
+			Categoria categoria = converter(dto);
+			categoria.setId(id);
+			return ResponseEntity.status(HttpStatus.OK).body(converter(service.atualizar(categoria)));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	private CategoriaDTO converter(Categoria categoria) {
+		return CategoriaDTO.builder()
+			.id(categoria.getId())
+			.descricao(categoria.getDescricao())
+			.ativa(categoria.getAtiva())
+			.build();
+	}
+
+	private Categoria converter(CategoriaDTO dto) {
+		return Categoria.builder().descricao(dto.getDescricao()).ativa(dto.getAtiva()).build();
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.dto.ChavePublicaDTO;
+import com.dsousa.minhasfinancas.service.impl.AssinadorJwt;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/jwt")
+@RequiredArgsConstructor
+public class JwtResource {
+
+	private final AssinadorJwt assinador;
+
+	@GetMapping("/chave-publica")
+	public ResponseEntity<?> obterChavePublica() {
+		return assinador.obterChavePublica()
+			.map(chave -> ResponseEntity.status(HttpStatus.OK)
+				.body(new ChavePublicaDTO(assinador.getAlgoritmo().getValue(), chave)))
+			.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
+import com.dsousa.minhasfinancas.api.dto.LancamentoRecorrenteDTO;
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.Periodicidade;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.service.LancamentoRecorrenteService;
+import com.dsousa.minhasfinancas.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/recorrencias")
+@RequiredArgsConstructor
+public class LancamentoRecorrenteResource {
+
+	private final LancamentoRecorrenteService service;
+
+	private final UsuarioService usuarioService;
+
+	@GetMapping
+	public ResponseEntity<?> buscar(@RequestParam("usuario") Long idUsuario,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (!obterUsuario(autenticado, idUsuario).isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado.");
+		}
+		return ResponseEntity.status(HttpStatus.OK)
+			.body(service.buscar(idUsuario).stream().map(this::converter).collect(Collectors.toList()));
+	}
+
+	@PostMapping
+	public ResponseEntity<?> salvar(@RequestBody LancamentoRecorrenteDTO dto,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		Optional<Usuario> usuario = dto.getUsuario() == null ? Optional.empty()
+				: obterUsuario(autenticado, dto.getUsuario());
+		if (!usuario.isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Usuário não encontrado para o Id informado.");
+		}
+		try {
+			LancamentoRecorrente recorrente = converter(dto, usuario.get());
+			return ResponseEntity.status(HttpStatus.CREATED).body(converter(service.salvar(recorrente)));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<?> deletar(@PathVariable("id") Long id) {
+		return service.obterPorId(id).map(entidade -> {
+			service.deletar(entidade);
+			return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+		})
+			.orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Lançamento recorrente não encontrado na base de Dados."));
+	}
+
+	private LancamentoRecorrenteDTO converter(LancamentoRecorrente recorrente) {
+		return LancamentoRecorrenteDTO.builder()
+			.id(recorrente.getId())
+			.descricao(recorrente.getDescricao())
+			.valor(recorrente.getValor())
+			.tipo(recorrente.getTipo().name())
+			.periodicidade(recorrente.getPeriodicidade().name())
+			.anoInicial(recorrente.getAnoInicial())
+			.mesInicial(recorrente.getMesInicial())
+			.anoFinal(recorrente.getAnoFinal())
+			.mesFinal(recorrente.getMesFinal())
+			.usuario(recorrente.getUsuario().getId())
+			.build();
+	}
+
+	private LancamentoRecorrente converter(LancamentoRecorrenteDTO dto, Usuario usuario) {
+		LancamentoRecorrente recorrente = new LancamentoRecorrente();
+		recorrente.setDescricao(dto.getDescricao());
+		recorrente.setValor(dto.getValor());
+		recorrente.setAnoInicial(dto.getAnoInicial());
+		recorrente.setMesInicial(dto.getMesInicial());
+		recorrente.setAnoFinal(dto.getAnoFinal());
+		recorrente.setMesFinal(dto.getMesFinal());
+		recorrente.setUsuario(usuario);
+		if (dto.getTipo() != null) {
+			try {
+				recorrente.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+			}
+			catch (IllegalArgumentException e) {
+				throw new RegraNegocioException("Informe um tipo de Lançamento.");
+			}
+		}
+		if (dto.getPeriodicidade() != null) {
+			try {
+				recorrente.setPeriodicidade(Periodicidade.valueOf(dto.getPeriodicidade()));
+			}
+			catch (IllegalArgumentException e) {
+				throw new RegraNegocioException("Informe uma periodicidade válida.");
+			}
+		}
+		return recorrente;
+	}
+
+	private Optional<Usuario> obterUsuario(UsuarioAutenticado autenticado, Long idUsuario) {
+		if (autenticado != null && autenticado.isDono(idUsuario)) {
+			return Optional.of(autenticado.comoUsuario());
+		}
+		return usuarioService.obterPorId(idUsuario);
+	}
+
+}
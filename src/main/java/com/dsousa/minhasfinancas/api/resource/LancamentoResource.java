@@ -1,98 +1,383 @@
 package com.dsousa.minhasfinancas.api.resource;
 
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
 import com.dsousa.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.dsousa.minhasfinancas.api.dto.FiltroLancamentoDTO;
 import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.api.dto.ResultadoLoteDTO;
+import com.dsousa.minhasfinancas.exception.ChaveIdempotenciaReutilizadaException;
 import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.exception.VersaoDesatualizadaException;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.RespostaIdempotente;
+import com.dsousa.minhasfinancas.model.entity.Categoria;
 import com.dsousa.minhasfinancas.model.entity.Lancamento;
 import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.FormatoExtrato;
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
 import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
 import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.importacao.LeitorExtrato;
+import com.dsousa.minhasfinancas.service.IdempotenciaService;
 import com.dsousa.minhasfinancas.service.LancamentoService;
 import com.dsousa.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/lancamentos")
 @RequiredArgsConstructor
 public class LancamentoResource {
 
+	static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+	static final String TEXT_CSV = "text/csv";
+
+	private static final int TAMANHO_BUFFER = 64 * 1024;
+
+	static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+	static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+	private static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+	private static final String USUARIO_NAO_ENCONTRADO = "Usuário não encontrado para o Id informado.";
+
+	private static final String OUTRO_USUARIO = "Não é permitido alterar lançamentos de outro usuário.";
+
 	private final LancamentoService service;
 
 	private final UsuarioService usuarioService;
 
+	private final IdempotenciaService idempotenciaService;
+
+	private final ObjectMapper objectMapper;
+
+	@Value("${lancamento.exportacao.tamanho-lote:500}")
+	private int tamanhoLote;
+
 	@GetMapping
-	public ResponseEntity<?> buscar(@RequestParam(value = "descricao", required = false) String descricao,
-			@RequestParam(value = "mes", required = false) Integer mes,
-			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam("usuario") Long idUsuario) {
-		Lancamento lancamentoFiltro = new Lancamento();
-		lancamentoFiltro.setDescricao(descricao);
-		lancamentoFiltro.setMes(mes);
-		lancamentoFiltro.setAno(ano);
-		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-		if (!usuario.isPresent()) {
+	public ResponseEntity<?> buscar(FiltroLancamentoDTO dto,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "tamanho", required = false) Integer tamanho,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (dto.getUsuario() == null || !obterUsuario(autenticado, dto.getUsuario()).isPresent()) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
 				.body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado.");
 		}
-		lancamentoFiltro.setUsuario(usuario.get());
-		return ResponseEntity.status(HttpStatus.OK).body(service.buscar(lancamentoFiltro));
+		try {
+			FiltroLancamento filtro = converter(dto);
+			if (cursor != null || tamanho != null) {
+				return ResponseEntity.status(HttpStatus.OK).body(service.buscarPagina(filtro, cursor, tamanho));
+			}
+			return ResponseEntity.status(HttpStatus.OK).body(service.buscar(filtro));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@GetMapping(produces = APPLICATION_NDJSON)
+	public ResponseEntity<?> exportar(FiltroLancamentoDTO dto, @AuthenticationPrincipal UsuarioAutenticado autenticado,
+			HttpServletResponse response) throws IOException {
+		if (dto.getUsuario() == null || !obterUsuario(autenticado, dto.getUsuario()).isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado.");
+		}
+		FiltroLancamento filtro;
+		try {
+			filtro = converter(dto);
+			service.validarFiltro(filtro);
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(APPLICATION_NDJSON);
+		response.setCharacterEncoding("UTF-8");
+		ObjectWriter escritor = objectMapper.writerFor(LancamentoDTO.class)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+			gerador.setRootValueSeparator(null);
+			int[] escritos = { 0 };
+			service.exportar(filtro, lancamento -> {
+				try {
+					escritor.writeValue(gerador, lancamento);
+					gerador.writeRaw('\n');
+					if (++escritos[0] % tamanhoLote == 0) {
+						gerador.flush();
+					}
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+		return null;
+	}
+
+	/**
+	 * Exportação em CSV lida de um cursor JDBC e escrita por um buffer de tamanho fixo,
+	 * compactada em gzip quando o cliente aceita, de modo que o consumo de memória não
+	 * depende da quantidade de lançamentos.
+	 */
+	@GetMapping(produces = TEXT_CSV)
+	public ResponseEntity<?> exportarCsv(FiltroLancamentoDTO dto,
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String codificacoes,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado, HttpServletResponse response) throws IOException {
+		if (dto.getUsuario() == null || !obterUsuario(autenticado, dto.getUsuario()).isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado.");
+		}
+		FiltroLancamento filtro;
+		try {
+			filtro = converter(dto);
+			service.validarFiltro(filtro);
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+		boolean gzip = aceitaGzip(codificacoes);
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(TEXT_CSV);
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"lancamentos.csv\"");
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		OutputStream saida = gzip ? new GZIPOutputStream(response.getOutputStream(), TAMANHO_BUFFER)
+				: response.getOutputStream();
+		try (Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8),
+				TAMANHO_BUFFER)) {
+			service.exportarCsv(filtro, escritor);
+		}
+		return null;
+	}
+
+	@GetMapping("/pesquisa")
+	public ResponseEntity<?> pesquisar(@RequestParam("usuario") Long idUsuario, @RequestParam("termo") String termo,
+			@RequestParam(value = "limite", required = false) Integer limite,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (!obterUsuario(autenticado, idUsuario).isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado.");
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.OK).body(service.pesquisar(idUsuario, termo, limite));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@PostMapping(value = "/importacao", consumes = { "text/csv", "application/x-ofx", "application/ofx" })
+	public ResponseEntity<?> importar(@RequestParam("usuario") Long idUsuario,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado, HttpServletRequest request) throws IOException {
+		Optional<Usuario> usuario = obterUsuario(autenticado, idUsuario);
+		if (!usuario.isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Não foi possível realizar a importação. Usuário não encontrado para o Id informado.");
+		}
+		if (request.getCharacterEncoding() == null) {
+			request.setCharacterEncoding("UTF-8");
+		}
+		try {
+			LeitorExtrato leitor = LeitorExtrato.abrir(FormatoExtrato.de(request.getContentType()),
+					request.getReader());
+			return ResponseEntity.status(HttpStatus.OK).body(service.importar(usuario.get(), leitor));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
 	}
 
 	@GetMapping("/{id}")
 	public ResponseEntity<?> obterLancamento(@PathVariable("id") Long id) {
 		return service.obterPorId(id)
-			.map(lancamento -> ResponseEntity.status(HttpStatus.OK).body(converter(lancamento)))
+			.map(lancamento -> ResponseEntity.status(HttpStatus.OK)
+				.eTag(String.valueOf(lancamento.getVersao()))
+				.body(converter(lancamento)))
 			.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
 	}
 
 	@PostMapping
-	public ResponseEntity<?> salvar(@RequestBody LancamentoDTO dto) {
+	public ResponseEntity<?> salvar(@RequestBody LancamentoDTO dto,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chave,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) throws JsonProcessingException {
+		if (!isDoAutenticado(dto, autenticado)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(OUTRO_USUARIO);
+		}
+		if (chave == null) {
+			return criar(dto, autenticado);
+		}
+		if (chave.isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Informe uma chave de idempotência de até " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+		}
+		try {
+			RespostaIdempotente resposta = idempotenciaService.executar(autenticado.getId(), chave,
+					objectMapper.writeValueAsString(dto), () -> armazenar(criar(dto, autenticado)));
+			ResponseEntity.BodyBuilder corpo = ResponseEntity.status(resposta.getStatus())
+				.contentType(resposta.isSucesso() ? MediaType.APPLICATION_JSON : MediaType.TEXT_PLAIN)
+				.header(IDEMPOTENT_REPLAYED, String.valueOf(resposta.isReproduzida()));
+			if (resposta.getEtag() != null) {
+				corpo.eTag(resposta.getEtag());
+			}
+			return corpo.body(resposta.getCorpo());
+		}
+		catch (ChaveIdempotenciaReutilizadaException e) {
+			return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(e.getMessage());
+		}
+	}
+
+	private RespostaIdempotente armazenar(ResponseEntity<?> resposta) {
+		try {
+			Object corpo = resposta.getBody();
+			return new RespostaIdempotente(resposta.getStatusCodeValue(),
+					corpo instanceof String ? (String) corpo : objectMapper.writeValueAsString(corpo),
+					resposta.getHeaders().getETag(), false);
+		}
+		catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private ResponseEntity<?> criar(LancamentoDTO dto, UsuarioAutenticado autenticado) {
 		try {
-			Lancamento entidade = converter(dto);
+			Lancamento entidade = converter(dto, autenticado);
 			entidade = service.salvar(entidade);
-			return ResponseEntity.status(HttpStatus.CREATED).body(entidade);
+			return ResponseEntity.status(HttpStatus.CREATED)
+				.eTag(String.valueOf(entidade.getVersao()))
+				.body(converter(entidade));
 		}
 		catch (RegraNegocioException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 		}
+		catch (DataIntegrityViolationException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(USUARIO_NAO_ENCONTRADO);
+		}
 	}
 
 	@PutMapping("/{id}")
-	public ResponseEntity<?> atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
-		return service.obterPorId(id).map(entity -> {
-			try {
-				Lancamento lancamento = converter(dto);
-				lancamento.setId(entity.getId());
-				service.atualizar(lancamento);
-				return ResponseEntity.status(HttpStatus.OK).body(lancamento);
-			}
-			catch (RegraNegocioException e) {
-				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+	public ResponseEntity<?> atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String versaoEsperada,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (!isDoAutenticado(dto, autenticado)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(OUTRO_USUARIO);
+		}
+		if (versaoEsperada == null && dto.getVersao() == null) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+				.body("Informe a versão do lançamento no If-Match ou no campo versao.");
+		}
+		try {
+			Lancamento lancamento = converter(dto, autenticado);
+			lancamento.setId(id);
+			lancamento.setVersao(versaoEsperada == null ? dto.getVersao() : converterVersao(versaoEsperada));
+			service.atualizar(lancamento);
+			ResponseEntity.BodyBuilder resposta = ResponseEntity.status(HttpStatus.OK);
+			if (lancamento.getVersao() != null) {
+				resposta.eTag(String.valueOf(lancamento.getVersao()));
 			}
-		})
-			.orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
-				.body("Lancamento não encontrado na base de Dados."));
+			return resposta.body(converter(lancamento));
+		}
+		catch (VersaoDesatualizadaException e) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+		catch (DataIntegrityViolationException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(USUARIO_NAO_ENCONTRADO);
+		}
 	}
 
 	@PutMapping("/{id}/atualiza-status")
-	public ResponseEntity<?> atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto) {
-		return service.obterPorId(id).map(entity -> {
-			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
-			try {
-				entity.setStatus(statusSelecionado);
-				service.atualizar(entity);
-				return ResponseEntity.status(HttpStatus.OK).body(entity);
-			}
-			catch (RegraNegocioException e) {
-				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
-			}
-		})
-			.orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
-				.body("Lancamento não encontrado na base de Dados."));
+	public ResponseEntity<?> atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String versaoEsperada,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (autenticado == null) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		try {
+			Lancamento lancamento = Lancamento.builder()
+				.id(id)
+				.usuario(autenticado.comoUsuario())
+				.versao(versaoEsperada == null ? null : converterVersao(versaoEsperada))
+				.build();
+			service.atualizarStatus(lancamento, converterStatus(dto.getStatus()));
+			return service.obterPorId(id)
+				.<ResponseEntity<?>>map(atualizado -> ResponseEntity.status(HttpStatus.OK)
+					.eTag(String.valueOf(atualizado.getVersao()))
+					.body(converter(atualizado)))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.BAD_REQUEST)
+					.body("Lancamento não encontrado na base de Dados."));
+		}
+		catch (VersaoDesatualizadaException e) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@PutMapping("/atualiza-status")
+	public ResponseEntity<?> atualizarStatusEmLote(FiltroLancamentoDTO filtro,
+			@RequestParam(value = "ids", required = false) Set<Long> ids, @RequestBody AtualizaStatusDTO dto,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (!restringirAoAutenticado(filtro, autenticado)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(OUTRO_USUARIO);
+		}
+		try {
+			StatusLancamento status = converterStatus(dto.getStatus());
+			int alterados = service.atualizarStatusEmLote(converter(filtro, ids), status);
+			return ResponseEntity.status(HttpStatus.OK).body(new ResultadoLoteDTO(alterados));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@DeleteMapping
+	public ResponseEntity<?> deletarEmLote(FiltroLancamentoDTO filtro,
+			@RequestParam(value = "ids", required = false) Set<Long> ids,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (!restringirAoAutenticado(filtro, autenticado)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).body(OUTRO_USUARIO);
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.OK)
+				.body(new ResultadoLoteDTO(service.deletarEmLote(converter(filtro, ids))));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
 	}
 
 	@DeleteMapping("/{id}")
@@ -112,29 +397,139 @@ public class LancamentoResource {
 			.valor(lancamento.getValor())
 			.mes(lancamento.getMes())
 			.ano(lancamento.getAno())
-			.status(lancamento.getStatus().name())
-			.tipo(lancamento.getTipo().name())
+			.status(lancamento.getStatus() == null ? null : lancamento.getStatus().name())
+			.tipo(lancamento.getTipo() == null ? null : lancamento.getTipo().name())
 			.usuario(lancamento.getUsuario().getId())
+			.versao(lancamento.getVersao())
+			.categorias(lancamento.getCategorias() == null ? null
+					: lancamento.getCategorias().stream().map(Categoria::getId).collect(Collectors.toSet()))
+			.build();
+	}
+
+	private FiltroLancamento converter(FiltroLancamentoDTO dto) {
+		FiltroLancamento filtro = FiltroLancamento.builder()
+			.idUsuario(dto.getUsuario())
+			.descricao(dto.getDescricao())
+			.ano(dto.getAno())
+			.mes(dto.getMes())
+			.anoInicial(dto.getAnoInicial())
+			.mesInicial(dto.getMesInicial())
+			.anoFinal(dto.getAnoFinal())
+			.mesFinal(dto.getMesFinal())
+			.valorMinimo(dto.getValorMinimo())
+			.valorMaximo(dto.getValorMaximo())
+			.ordenacao(OrdenacaoLancamento.de(dto.getOrdenacao()))
 			.build();
+		try {
+			if (dto.getTipo() != null) {
+				filtro.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+			}
+			if (dto.getStatus() != null) {
+				filtro.setStatus(StatusLancamento.valueOf(dto.getStatus()));
+			}
+		}
+		catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Informe um tipo e status de Lançamento válidos.");
+		}
+		return filtro;
+	}
+
+	private FiltroLancamento converter(FiltroLancamentoDTO dto, Set<Long> ids) {
+		FiltroLancamento filtro = converter(dto);
+		filtro.setIds(ids);
+		return filtro;
+	}
+
+	/**
+	 * Lê a versão de um If-Match com a ETag devolvida pela API; {@code *} aceita qualquer
+	 * versão. Uma ETag que não é nossa nunca corresponde ao registro.
+	 */
+	private static Long converterVersao(String versaoEsperada) {
+		String etag = versaoEsperada.trim();
+		if ("*".equals(etag)) {
+			return null;
+		}
+		try {
+			return Long.valueOf(etag.replace("\"", ""));
+		}
+		catch (NumberFormatException e) {
+			throw new VersaoDesatualizadaException("A versão informada no If-Match não corresponde ao lançamento.");
+		}
 	}
 
-	private Lancamento converter(LancamentoDTO dto) {
+	private StatusLancamento converterStatus(String status) {
+		try {
+			return StatusLancamento.valueOf(status);
+		}
+		catch (IllegalArgumentException | NullPointerException e) {
+			throw new RegraNegocioException("Informe um status de Lançamento válido.");
+		}
+	}
+
+	/**
+	 * Monta o lançamento do usuário autenticado, sem consultá-lo: um usuário inexistente
+	 * é barrado pela chave estrangeira na própria escrita.
+	 */
+	private Lancamento converter(LancamentoDTO dto, UsuarioAutenticado autenticado) {
 		Lancamento lancamento = new Lancamento();
-		lancamento.setId(dto.getId());
 		lancamento.setDescricao(dto.getDescricao());
 		lancamento.setAno(dto.getAno());
 		lancamento.setMes(dto.getMes());
 		lancamento.setValor(dto.getValor());
-		Usuario usuario = usuarioService.obterPorId(dto.getUsuario())
-			.orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o Id informado."));
-		lancamento.setUsuario(usuario);
+		lancamento.setUsuario(autenticado.comoUsuario());
 		if (dto.getTipo() != null) {
 			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
 		}
 		if (dto.getStatus() != null) {
 			lancamento.setStatus(StatusLancamento.valueOf(dto.getStatus()));
 		}
+		if (dto.getCategorias() != null) {
+			lancamento.setCategorias(dto.getCategorias()
+				.stream()
+				.map(id -> Categoria.builder().id(id).build())
+				.collect(Collectors.toSet()));
+		}
 		return lancamento;
 	}
 
+	private static boolean aceitaGzip(String codificacoes) {
+		if (codificacoes == null) {
+			return false;
+		}
+		for (String codificacao : codificacoes.split(",")) {
+			String[] partes = codificacao.trim().split(";");
+			if ("gzip".equalsIgnoreCase(partes[0].trim())) {
+				return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * As operações em lote agem apenas sobre os lançamentos do usuário autenticado; um
+	 * filtro com o id de outro usuário é recusado em vez de atendido.
+	 */
+	/**
+	 * Lançamentos são sempre gravados para o usuário autenticado; um corpo com o id de
+	 * outro usuário é recusado em vez de reatribuído.
+	 */
+	private static boolean isDoAutenticado(LancamentoDTO dto, UsuarioAutenticado autenticado) {
+		return autenticado != null && (dto.getUsuario() == null || autenticado.isDono(dto.getUsuario()));
+	}
+
+	private static boolean restringirAoAutenticado(FiltroLancamentoDTO filtro, UsuarioAutenticado autenticado) {
+		if (autenticado == null || (filtro.getUsuario() != null && !autenticado.isDono(filtro.getUsuario()))) {
+			return false;
+		}
+		filtro.setUsuario(autenticado.getId());
+		return true;
+	}
+
+	private Optional<Usuario> obterUsuario(UsuarioAutenticado autenticado, Long idUsuario) {
+		if (autenticado != null && autenticado.isDono(idUsuario)) {
+			return Optional.of(autenticado.comoUsuario());
+		}
+		return usuarioService.obterPorId(idUsuario);
+	}
+
 }
@@ -0,0 +1,65 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.service.CategoriaService;
+import com.dsousa.minhasfinancas.service.ResumoMensalService;
+import com.dsousa.minhasfinancas.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/relatorios")
+@RequiredArgsConstructor
+public class RelatorioResource {
+
+	private final ResumoMensalService service;
+
+	private final UsuarioService usuarioService;
+
+	private final CategoriaService categoriaService;
+
+	@GetMapping("/mensal")
+	public ResponseEntity<?> obterRelatorioMensal(@RequestParam("usuario") Long idUsuario,
+			@RequestParam("ano") Integer ano, @AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		return gerar(autenticado, idUsuario, () -> service.obterRelatorioMensal(idUsuario, ano));
+	}
+
+	@GetMapping("/anual")
+	public ResponseEntity<?> obterRelatorioAnual(@RequestParam("usuario") Long idUsuario,
+			@RequestParam("anoInicial") Integer anoInicial, @RequestParam("anoFinal") Integer anoFinal,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		return gerar(autenticado, idUsuario, () -> service.obterRelatorioAnual(idUsuario, anoInicial, anoFinal));
+	}
+
+	@GetMapping("/categorias")
+	public ResponseEntity<?> obterRelatorioPorCategoria(@RequestParam("usuario") Long idUsuario,
+			@RequestParam("ano") Integer ano, @RequestParam("mes") Integer mes,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		return gerar(autenticado, idUsuario, () -> categoriaService.obterRelatorioPorCategoria(idUsuario, ano, mes));
+	}
+
+	private ResponseEntity<?> gerar(UsuarioAutenticado autenticado, Long idUsuario, Supplier<List<?>> relatorio) {
+		if ((autenticado == null || !autenticado.isDono(idUsuario))
+				&& !usuarioService.obterPorId(idUsuario).isPresent()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body("Não foi possível gerar o relatório. Usuário não encontrado para o Id informado.");
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.OK).body(relatorio.get());
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+}
@@ -1,18 +1,33 @@
 package com.dsousa.minhasfinancas.api.resource;
 
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
+import com.dsousa.minhasfinancas.api.dto.RenovacaoTokenDTO;
 import com.dsousa.minhasfinancas.api.dto.TokenDTO;
 import com.dsousa.minhasfinancas.api.dto.UsuarioDTO;
 import com.dsousa.minhasfinancas.exception.ErroAutenticacao;
 import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.exception.ServicoSobrecarregadoException;
+import com.dsousa.minhasfinancas.exception.TentativasExcedidasException;
 import com.dsousa.minhasfinancas.model.entity.Usuario;
 import com.dsousa.minhasfinancas.service.JwtService;
 import com.dsousa.minhasfinancas.service.LancamentoService;
+import com.dsousa.minhasfinancas.service.LimiteLoginService;
+import com.dsousa.minhasfinancas.service.ResumoMensalService;
+import com.dsousa.minhasfinancas.service.RevogacaoTokenService;
+import com.dsousa.minhasfinancas.service.RevogacaoUsuarioService;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
 import com.dsousa.minhasfinancas.service.UsuarioService;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletRequest;
 import java.math.BigDecimal;
 import java.util.Optional;
 
@@ -27,16 +42,70 @@ public class UsuarioResource {
 
 	private final JwtService jwtService;
 
+	private final LimiteLoginService limiteLoginService;
+
+	private final RevogacaoTokenService revogacaoTokenService;
+
+	private final RevogacaoUsuarioService revogacaoUsuarioService;
+
+	private final SaldoUsuarioService saldoUsuarioService;
+
+	private final ResumoMensalService resumoMensalService;
+
 	@PostMapping("/autenticar")
-	public ResponseEntity<?> autenticar(@RequestBody UsuarioDTO dto) {
+	public ResponseEntity<?> autenticar(@RequestBody UsuarioDTO dto, HttpServletRequest request) {
 		try {
+			limiteLoginService.registrarTentativa(dto.getEmail(), request.getRemoteAddr());
 			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			String token = jwtService.gerarToken(usuarioAutenticado);
-			return ResponseEntity.status(HttpStatus.OK).body(new TokenDTO(usuarioAutenticado.getNome(), token));
+			return ResponseEntity.status(HttpStatus.OK).body(gerarTokens(usuarioAutenticado));
 		}
 		catch (ErroAutenticacao e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 		}
+		catch (ServicoSobrecarregadoException e) {
+			return servicoSobrecarregado(e);
+		}
+		catch (TentativasExcedidasException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosParaNovaTentativa()))
+				.body(e.getMessage());
+		}
+	}
+
+	@PostMapping("/renovar-token")
+	public ResponseEntity<?> renovarToken(@RequestBody RenovacaoTokenDTO dto) {
+		Optional<Claims> claims = jwtService.obterClaimsRefreshValidas(dto.getRefreshToken());
+		if (!claims.isPresent() || revogacaoUsuarioService.isRevogado(claims.get().get("userid", Long.class),
+				claims.get().getIssuedAt())) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token inválido ou expirado.");
+		}
+		Claims refresh = claims.get();
+		if (!revogacaoTokenService.revogar(refresh.getId(), refresh.getExpiration())) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token já utilizado ou revogado.");
+		}
+		Usuario usuario = Usuario.builder()
+			.id(refresh.get("userid", Long.class))
+			.email(refresh.getSubject())
+			.nome(refresh.get("nome", String.class))
+			.build();
+		return ResponseEntity.status(HttpStatus.OK).body(gerarTokens(usuario));
+	}
+
+	@PostMapping("/sair")
+	public ResponseEntity<?> sair(@RequestBody(required = false) RenovacaoTokenDTO dto,
+			@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+		Optional<Claims> acesso = Optional.empty();
+		if (authorization != null && authorization.startsWith("Bearer")) {
+			acesso = jwtService.obterClaimsValidas(authorization.substring("Bearer".length()).trim());
+			acesso.ifPresent(claims -> revogacaoTokenService.revogar(claims.getId(), claims.getExpiration()));
+		}
+		if (dto != null && dto.getRefreshToken() != null) {
+			Long idUsuario = acesso.map(claims -> claims.get("userid", Long.class)).orElse(null);
+			jwtService.obterClaimsRefreshValidas(dto.getRefreshToken())
+				.filter(refresh -> idUsuario == null || idUsuario.equals(refresh.get("userid", Long.class)))
+				.ifPresent(refresh -> revogacaoTokenService.revogar(refresh.getId(), refresh.getExpiration()));
+		}
+		return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
 	}
 
 	@PostMapping
@@ -49,16 +118,77 @@ public class UsuarioResource {
 		catch (RegraNegocioException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
 		}
+		catch (ServicoSobrecarregadoException e) {
+			return servicoSobrecarregado(e);
+		}
 	}
 
 	@GetMapping("/{id}/saldo")
-	public ResponseEntity<?> obterSaldo(@PathVariable("id") Long id) {
-		Optional<Usuario> usuario = service.obterPorId(id);
-		if (!usuario.isPresent()) {
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+	public ResponseEntity<?> obterSaldo(@PathVariable("id") Long id,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (autenticado == null || !autenticado.isDono(id)) {
+			Optional<Usuario> usuario = service.obterPorId(id);
+			if (!usuario.isPresent()) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+			}
 		}
 		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
 		return ResponseEntity.status(HttpStatus.OK).body(saldo);
 	}
 
+	@GetMapping("/{id}/saldo/detalhado")
+	public ResponseEntity<?> obterResumoSaldo(@PathVariable("id") Long id,
+			@RequestParam(value = "ano", required = false) Integer ano,
+			@RequestParam(value = "mes", required = false) Integer mes,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado) {
+		if (autenticado == null || !autenticado.isDono(id)) {
+			Optional<Usuario> usuario = service.obterPorId(id);
+			if (!usuario.isPresent()) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+			}
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.OK).body(lancamentoService.obterResumoSaldo(id, ano, mes));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	@GetMapping("/{id}/saldo/historico")
+	public ResponseEntity<?> obterHistoricoSaldo(@PathVariable("id") Long id,
+			@RequestParam("anoInicial") Integer anoInicial, @RequestParam("mesInicial") Integer mesInicial,
+			@RequestParam("anoFinal") Integer anoFinal, @RequestParam("mesFinal") Integer mesFinal,
+			@AuthenticationPrincipal UsuarioAutenticado autenticado, WebRequest request) {
+		if (autenticado == null || !autenticado.isDono(id)) {
+			Optional<Usuario> usuario = service.obterPorId(id);
+			if (!usuario.isPresent()) {
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+			}
+		}
+		String etag = "W/\"" + saldoUsuarioService.obterVersao(id) + "\"";
+		if (request.checkNotModified(etag)) {
+			return null;
+		}
+		try {
+			return ResponseEntity.status(HttpStatus.OK)
+				.eTag(etag)
+				.cacheControl(CacheControl.noCache().cachePrivate())
+				.body(resumoMensalService.obterHistoricoSaldo(id, anoInicial, mesInicial, anoFinal, mesFinal));
+		}
+		catch (RegraNegocioException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+		}
+	}
+
+	private TokenDTO gerarTokens(Usuario usuario) {
+		return new TokenDTO(usuario.getNome(), jwtService.gerarToken(usuario), jwtService.gerarRefreshToken(usuario));
+	}
+
+	private ResponseEntity<?> servicoSobrecarregado(ServicoSobrecarregadoException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+			.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosParaNovaTentativa()))
+			.body(e.getMessage());
+	}
+
 }
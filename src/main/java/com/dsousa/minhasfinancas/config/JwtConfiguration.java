@@ -0,0 +1,55 @@
+package com.dsousa.minhasfinancas.config;
+
+import com.dsousa.minhasfinancas.service.impl.AssinadorJwt;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+@Configuration
+public class JwtConfiguration {
+
+	@Value("${jwt.algoritmo:HS512}")
+	private SignatureAlgorithm algoritmo;
+
+	@Value("${jwt.chave-assinatura::test}")
+	private String chaveAssinatura;
+
+	@Value("${jwt.chave-privada:}")
+	private String chavePrivada;
+
+	@Value("${jwt.chave-publica:}")
+	private String chavePublica;
+
+	@Bean
+	public AssinadorJwt assinadorJwt() throws GeneralSecurityException {
+		if (algoritmo.isHmac()) {
+			SecretKeySpec chave = new SecretKeySpec(Base64.getDecoder().decode(chaveAssinatura),
+					algoritmo.getJcaName());
+			return new AssinadorJwt(algoritmo, chave, chave);
+		}
+		if (chavePrivada.isEmpty() || chavePublica.isEmpty()) {
+			throw new IllegalStateException(
+					"O algoritmo " + algoritmo + " exige as propriedades jwt.chave-privada e jwt.chave-publica.");
+		}
+		KeyFactory fabrica = KeyFactory.getInstance(algoritmo.isEllipticCurve() ? "EC" : "RSA");
+		PrivateKey privada = fabrica.generatePrivate(new PKCS8EncodedKeySpec(decodificarPem(chavePrivada)));
+		PublicKey publica = fabrica.generatePublic(new X509EncodedKeySpec(decodificarPem(chavePublica)));
+		return new AssinadorJwt(algoritmo, privada, publica);
+	}
+
+	private byte[] decodificarPem(String chave) {
+		String base64 = chave.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+		return Base64.getDecoder().decode(base64);
+	}
+
+}
@@ -2,8 +2,12 @@ package com.dsousa.minhasfinancas.config;
 
 import com.dsousa.minhasfinancas.api.JwtTokenFilter;
 import com.dsousa.minhasfinancas.service.JwtService;
+import com.dsousa.minhasfinancas.service.RevogacaoTokenService;
+import com.dsousa.minhasfinancas.service.RevogacaoUsuarioService;
 import com.dsousa.minhasfinancas.service.impl.SecurityUserDetailsService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.Ordered;
@@ -13,7 +17,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -33,19 +36,27 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 	@Autowired
 	private JwtService jwtService;
 
-	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
-	}
+	@Autowired
+	private RevogacaoUsuarioService revogacaoUsuarioService;
+
+	@Autowired
+	private RevogacaoTokenService revogacaoTokenService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Value("${jwt.autenticacao-por-claims:true}")
+	private boolean autenticacaoPorClaims;
 
 	@Bean
 	public JwtTokenFilter jwtTokenFilter() {
-		return new JwtTokenFilter(jwtService, userDetailsService);
+		return new JwtTokenFilter(jwtService, userDetailsService, revogacaoUsuarioService, revogacaoTokenService,
+				autenticacaoPorClaims);
 	}
 
 	@Override
 	protected void configure(AuthenticationManagerBuilder auth) throws Exception {
-		auth.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder());
+		auth.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder);
 	}
 
 	@Override
@@ -57,8 +68,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 			.permitAll()
 			.antMatchers(HttpMethod.GET, "/actuator/**")
 			.permitAll()
+			.antMatchers(HttpMethod.GET, "/api/jwt/chave-publica")
+			.permitAll()
 			.antMatchers(HttpMethod.POST, "/api/usuarios/autenticar")
 			.permitAll()
+			.antMatchers(HttpMethod.POST, "/api/usuarios/renovar-token")
+			.permitAll()
 			.antMatchers(HttpMethod.POST, "/api/usuarios")
 			.permitAll()
 			.anyRequest()
@@ -77,6 +92,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 		config.setAllowedMethods(all);
 		config.setAllowedOrigins(all);
 		config.setAllowedHeaders(all);
+		config.setExposedHeaders(Collections.singletonList(HttpHeaders.ETAG));
 		config.setAllowCredentials(true);
 		UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
 		source.registerCorsConfiguration("/**", config);
@@ -0,0 +1,78 @@
+package com.dsousa.minhasfinancas.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Configuration
+public class SenhaConfiguration {
+
+	private static final int CUSTO_MINIMO_BCRYPT = 4;
+
+	private static final int CUSTO_MAXIMO_BCRYPT = 31;
+
+	@Value("${senha.bcrypt.custo:0}")
+	private int custoFixo;
+
+	@Value("${senha.bcrypt.latencia-alvo-ms:250}")
+	private long latenciaAlvoMillis;
+
+	@Value("${senha.bcrypt.custo-minimo:10}")
+	private int custoMinimo;
+
+	@Value("${senha.bcrypt.custo-maximo:14}")
+	private int custoMaximo;
+
+	@Value("${senha.executor.threads:0}")
+	private int threads;
+
+	@Value("${senha.executor.capacidade-fila:64}")
+	private int capacidadeFila;
+
+	@Bean
+	public PasswordEncoder passwordEncoder() {
+		return new BCryptPasswordEncoder(custoFixo > 0 ? custoFixo : calibrarCusto());
+	}
+
+	@Bean
+	public ThreadPoolExecutor executorSenhas(MeterRegistry meterRegistry) {
+		int quantidade = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(quantidade, quantidade, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacidadeFila), new CustomizableThreadFactory("senha-hash-"),
+				new ThreadPoolExecutor.AbortPolicy());
+		ExecutorServiceMetrics.monitor(meterRegistry, executor, "senha.hash", Collections.emptyList());
+		return executor;
+	}
+
+	private int calibrarCusto() {
+		int minimo = Math.max(CUSTO_MINIMO_BCRYPT, custoMinimo);
+		int maximo = Math.min(CUSTO_MAXIMO_BCRYPT, Math.max(minimo, custoMaximo));
+		BCryptPasswordEncoder referencia = new BCryptPasswordEncoder(minimo);
+		referencia.encode("aquecimento");
+		long inicio = System.nanoTime();
+		referencia.encode("calibragem");
+		long latenciaMinimo = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+		int custo = minimo;
+		long latenciaEstimada = latenciaMinimo;
+		while (custo < maximo && latenciaEstimada * 2 <= latenciaAlvoMillis) {
+			custo++;
+			latenciaEstimada *= 2;
+		}
+		log.info("Custo do BCrypt calibrado em {} (~{} ms por hash, alvo de {} ms).", custo, latenciaEstimada,
+				latenciaAlvoMillis);
+		return custo;
+	}
+
+}
@@ -0,0 +1,9 @@
+package com.dsousa.minhasfinancas.exception;
+
+public class ChaveIdempotenciaReutilizadaException extends RuntimeException {
+
+	public ChaveIdempotenciaReutilizadaException(String mensagem) {
+		super(mensagem);
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.dsousa.minhasfinancas.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServicoSobrecarregadoException extends RuntimeException {
+
+	private final long segundosParaNovaTentativa;
+
+	public ServicoSobrecarregadoException(String mensagem, long segundosParaNovaTentativa) {
+		super(mensagem);
+		this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.dsousa.minhasfinancas.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TentativasExcedidasException extends RuntimeException {
+
+	private final long segundosParaNovaTentativa;
+
+	public TentativasExcedidasException(String mensagem, long segundosParaNovaTentativa) {
+		super(mensagem);
+		this.segundosParaNovaTentativa = segundosParaNovaTentativa;
+	}
+
+}
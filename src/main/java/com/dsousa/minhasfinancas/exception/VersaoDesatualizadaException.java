@@ -0,0 +1,9 @@
+package com.dsousa.minhasfinancas.exception;
+
+public class VersaoDesatualizadaException extends RuntimeException {
+
+	public VersaoDesatualizadaException(String mensagem) {
+		super(mensagem);
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição do último lançamento de uma página na ordenação (chave, id), serializada de
+ * forma opaca para o cliente. A chave é a competência (aaaamm) ou o valor, conforme a
+ * ordenação com que o cursor foi gerado.
+ */
+@Data
+@AllArgsConstructor
+public class CursorLancamento {
+
+	private OrdenacaoLancamento ordenacao;
+
+	private BigDecimal chave;
+
+	private long id;
+
+	public static CursorLancamento de(LancamentoDTO lancamento, OrdenacaoLancamento ordenacao) {
+		BigDecimal chave = "valor".equals(ordenacao.getAtributo()) ? lancamento.getValor()
+				: BigDecimal.valueOf(lancamento.getAno() * 100 + lancamento.getMes());
+		return new CursorLancamento(ordenacao, chave, lancamento.getId());
+	}
+
+	public static CursorLancamento decodificar(String cursor, OrdenacaoLancamento ordenacao) {
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(":");
+			if (partes.length != 3 || !ordenacao.name().equals(partes[0])) {
+				throw new IllegalArgumentException(cursor);
+			}
+			BigDecimal chave = new BigDecimal(partes[1]);
+			validarChave(chave, ordenacao);
+			return new CursorLancamento(ordenacao, chave, Long.parseLong(partes[2]));
+		}
+		catch (IllegalArgumentException | ArithmeticException e) {
+			throw new RegraNegocioException("Cursor de paginação inválido.");
+		}
+	}
+
+	/**
+	 * A competência precisa caber num inteiro e o valor na coluna numeric(16, 2); do
+	 * contrário a consulta falharia ao comparar a chave.
+	 */
+	private static void validarChave(BigDecimal chave, OrdenacaoLancamento ordenacao) {
+		if ("valor".equals(ordenacao.getAtributo())) {
+			if (chave.scale() > 2 || chave.precision() - chave.scale() > 14) {
+				throw new IllegalArgumentException(chave.toString());
+			}
+		}
+		else {
+			chave.intValueExact();
+		}
+	}
+
+	public String codificar() {
+		String valor = ordenacao.name() + ":" + chave.toPlainString() + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.US_ASCII));
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class DivergenciaSaldo {
+
+	private Long idUsuario;
+
+	private BigDecimal saldoArmazenado;
+
+	private BigDecimal saldoCalculado;
+
+	private long versao;
+
+	private boolean corrigido;
+
+}
@@ -0,0 +1,14 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ErroImportacao {
+
+	private int linha;
+
+	private String mensagem;
+
+}
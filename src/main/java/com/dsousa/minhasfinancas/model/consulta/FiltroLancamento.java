@@ -0,0 +1,88 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroLancamento {
+
+	private Long idUsuario;
+
+	private String descricao;
+
+	private Integer ano;
+
+	private Integer mes;
+
+	private Integer anoInicial;
+
+	private Integer mesInicial;
+
+	private Integer anoFinal;
+
+	private Integer mesFinal;
+
+	private BigDecimal valorMinimo;
+
+	private BigDecimal valorMaximo;
+
+	private TipoLancamento tipo;
+
+	private StatusLancamento status;
+
+	private OrdenacaoLancamento ordenacao;
+
+	private Set<Long> ids;
+
+	public OrdenacaoLancamento getOrdenacao() {
+		return ordenacao == null ? OrdenacaoLancamento.COMPETENCIA : ordenacao;
+	}
+
+	/**
+	 * Primeira competência (aaaamm) do filtro, combinando o ano/mês exatos com o início
+	 * do período, ou nulo quando não há limite inferior.
+	 */
+	public Integer getCompetenciaInicial() {
+		Integer exata = ano == null ? null : ano * 100 + (mes == null ? 1 : mes);
+		Integer inicial = anoInicial == null ? null : anoInicial * 100 + (mesInicial == null ? 1 : mesInicial);
+		return maior(exata, inicial);
+	}
+
+	/**
+	 * Indica se o filtro restringe os lançamentos além do usuário.
+	 */
+	public boolean isRestrito() {
+		return (descricao != null && !descricao.isEmpty()) || ano != null || mes != null || anoInicial != null
+				|| anoFinal != null || valorMinimo != null || valorMaximo != null || tipo != null || status != null
+				|| ids != null;
+	}
+
+	/**
+	 * Última competência (aaaamm) do filtro, ou nulo quando não há limite superior.
+	 */
+	public Integer getCompetenciaFinal() {
+		Integer exata = ano == null ? null : ano * 100 + (mes == null ? 12 : mes);
+		Integer fim = anoFinal == null ? null : anoFinal * 100 + (mesFinal == null ? 12 : mesFinal);
+		return menor(exata, fim);
+	}
+
+	private static Integer maior(Integer a, Integer b) {
+		return a == null ? b : b == null ? a : Integer.valueOf(Math.max(a, b));
+	}
+
+	private static Integer menor(Integer a, Integer b) {
+		return a == null ? b : b == null ? a : Integer.valueOf(Math.min(a, b));
+	}
+
+}
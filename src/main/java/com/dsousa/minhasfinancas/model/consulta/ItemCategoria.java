@@ -0,0 +1,50 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ItemCategoria {
+
+	private final Long idCategoria;
+
+	private final String descricao;
+
+	private BigDecimal receitas = BigDecimal.ZERO;
+
+	private BigDecimal despesas = BigDecimal.ZERO;
+
+	private BigDecimal receitasPendentes = BigDecimal.ZERO;
+
+	private BigDecimal despesasPendentes = BigDecimal.ZERO;
+
+	private long quantidade;
+
+	public BigDecimal getSaldo() {
+		return receitas.subtract(despesas);
+	}
+
+	public void somar(TotalCategoria total) {
+		quantidade += total.getQuantidade();
+		if (total.getStatus() == StatusLancamento.EFETIVADO) {
+			if (total.getTipo() == TipoLancamento.RECEITA) {
+				receitas = receitas.add(total.getTotal());
+			}
+			else {
+				despesas = despesas.add(total.getTotal());
+			}
+		}
+		else if (total.getStatus() == StatusLancamento.PENDENTE) {
+			if (total.getTipo() == TipoLancamento.RECEITA) {
+				receitasPendentes = receitasPendentes.add(total.getTotal());
+			}
+			else {
+				despesasPendentes = despesasPendentes.add(total.getTotal());
+			}
+		}
+	}
+
+}
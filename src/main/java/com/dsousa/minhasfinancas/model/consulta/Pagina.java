@@ -0,0 +1,16 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class Pagina<T> {
+
+	private List<T> itens;
+
+	private String proximoCursor;
+
+}
@@ -0,0 +1,20 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class PontoSaldo {
+
+	private Integer ano;
+
+	private Integer mes;
+
+	private BigDecimal movimento;
+
+	private BigDecimal saldo;
+
+}
@@ -0,0 +1,19 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RelatorioImportacao {
+
+	private int importados;
+
+	private int duplicados;
+
+	private int rejeitados;
+
+	private List<ErroImportacao> erros = new ArrayList<>();
+
+}
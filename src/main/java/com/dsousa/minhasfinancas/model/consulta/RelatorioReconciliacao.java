@@ -0,0 +1,20 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RelatorioReconciliacao {
+
+	private int saldosCriados;
+
+	private int saldosVerificados;
+
+	private List<DivergenciaSaldo> divergencias;
+
+	private long duracaoMillis;
+
+}
@@ -0,0 +1,20 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RelatorioRecorrencia {
+
+	private int modelosProcessados;
+
+	private int lancamentosCriados;
+
+	private long duracaoMillis;
+
+	public double getLancamentosPorSegundo() {
+		return duracaoMillis == 0 ? lancamentosCriados : lancamentosCriados * 1000.0 / duracaoMillis;
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Status, corpo já serializado e ETag de uma resposta, como foi ou será devolvida ao
+ * cliente.
+ */
+@Data
+@AllArgsConstructor
+public class RespostaIdempotente {
+
+	private int status;
+
+	private String corpo;
+
+	private String etag;
+
+	/**
+	 * Indica que a resposta veio de uma execução anterior com a mesma chave.
+	 */
+	private boolean reproduzida;
+
+	public boolean isSucesso() {
+		return status >= 200 && status < 300;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ResumoSaldo {
+
+	private Integer ano;
+
+	private Integer mes;
+
+	private BigDecimal saldo;
+
+	private List<TotalLancamentos> totais;
+
+	/**
+	 * Completa as combinações de tipo e status ausentes com zero e projeta o saldo
+	 * (receitas menos despesas efetivadas) a partir dos mesmos totais.
+	 */
+	public static ResumoSaldo de(Integer ano, Integer mes, List<TotalLancamentos> totaisAgrupados) {
+		List<TotalLancamentos> totais = new ArrayList<>();
+		BigDecimal saldo = BigDecimal.ZERO;
+		for (TipoLancamento tipo : TipoLancamento.values()) {
+			for (StatusLancamento status : StatusLancamento.values()) {
+				TotalLancamentos total = totaisAgrupados.stream()
+					.filter(t -> t.getTipo() == tipo && t.getStatus() == status)
+					.findFirst()
+					.orElseGet(() -> new TotalLancamentos(tipo, status, BigDecimal.ZERO, 0L));
+				totais.add(total);
+				if (status == StatusLancamento.EFETIVADO) {
+					saldo = tipo == TipoLancamento.RECEITA ? saldo.add(total.getTotal())
+							: saldo.subtract(total.getTotal());
+				}
+			}
+		}
+		return new ResumoSaldo(ano, mes, saldo, totais);
+	}
+
+}
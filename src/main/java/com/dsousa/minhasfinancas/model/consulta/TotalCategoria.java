@@ -0,0 +1,26 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class TotalCategoria {
+
+	private Long idCategoria;
+
+	private String descricao;
+
+	private TipoLancamento tipo;
+
+	private StatusLancamento status;
+
+	private BigDecimal total;
+
+	private Long quantidade;
+
+}
@@ -0,0 +1,30 @@
+package com.dsousa.minhasfinancas.model.consulta;
+
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+public class TotalPeriodo {
+
+	private Integer ano;
+
+	private Integer mes;
+
+	private TipoLancamento tipo;
+
+	private StatusLancamento status;
+
+	private BigDecimal total;
+
+	private Long quantidade;
+
+	public TotalPeriodo(Integer ano, TipoLancamento tipo, StatusLancamento status, BigDecimal total, Long quantidade) {
+		this(ano, null, tipo, status, total, quantidade);
+	}
+
+}
@@ -5,12 +5,15 @@ import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Set;
 
 @Data
 @Builder
@@ -21,7 +24,9 @@ import java.time.LocalDate;
 public class Lancamento {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+	@SequenceGenerator(name = "lancamento_seq", sequenceName = "lancamento_seq", schema = "financas",
+			allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 
@@ -34,13 +39,32 @@ public class Lancamento {
 	@Column(name = "ano")
 	private Integer ano;
 
-	@ManyToOne
+	/**
+	 * Ano e mês no formato aaaamm, calculado pelo banco a partir de {@code ano} e
+	 * {@code mes}.
+	 */
+	@Column(name = "competencia", insertable = false, updatable = false)
+	private Integer competencia;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@ToString.Exclude
 	@JoinColumn(name = "id_usuario")
 	private Usuario usuario;
 
 	@Column(name = "valor")
 	private BigDecimal valor;
 
+	/**
+	 * Categorias do lançamento, gravadas em {@code categorias_lancamentos}. No
+	 * {@code UPDATE} direto do repositório são substituídas à parte.
+	 */
+	@ManyToMany(fetch = FetchType.LAZY)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	@JoinTable(name = "categorias_lancamentos", schema = "financas", joinColumns = @JoinColumn(name = "id_lancamento"),
+			inverseJoinColumns = @JoinColumn(name = "id_categoria"))
+	private Set<Categoria> categorias;
+
 	@Column(name = "data_cadastro")
 	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
 	private LocalDate dataCadastro;
@@ -53,4 +77,27 @@ public class Lancamento {
 	@Enumerated(value = EnumType.STRING)
 	private StatusLancamento status;
 
+	/**
+	 * Identifica a linha de extrato que originou o lançamento, evitando que a mesma
+	 * transação seja importada duas vezes.
+	 */
+	@Column(name = "hash_conteudo", updatable = false)
+	@ToString.Exclude
+	private String hashConteudo;
+
+	/**
+	 * Modelo recorrente que gerou o lançamento; cada modelo gera no máximo um lançamento
+	 * por período.
+	 */
+	@Column(name = "id_recorrente", updatable = false)
+	private Long idRecorrente;
+
+	/**
+	 * Incrementada a cada alteração; os clientes a devolvem no If-Match para que a
+	 * atualização só ocorra sobre a versão que leram.
+	 */
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+
 }
@@ -0,0 +1,86 @@
+package com.dsousa.minhasfinancas.model.entity;
+
+import com.dsousa.minhasfinancas.model.enums.Periodicidade;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Modelo de um lançamento que se repete todo mês ou todo ano, do período inicial até o
+ * final (ou indefinidamente), materializado pelo agendamento de recorrências.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "lancamento_recorrente", schema = "financas")
+public class LancamentoRecorrente {
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "descricao")
+	private String descricao;
+
+	@Column(name = "valor")
+	private BigDecimal valor;
+
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+
+	@Column(name = "periodicidade")
+	@Enumerated(value = EnumType.STRING)
+	private Periodicidade periodicidade;
+
+	@Column(name = "ano_inicial")
+	private Integer anoInicial;
+
+	@Column(name = "mes_inicial")
+	private Integer mesInicial;
+
+	@Column(name = "ano_final")
+	private Integer anoFinal;
+
+	@Column(name = "mes_final")
+	private Integer mesFinal;
+
+	/**
+	 * Próximo período (aaaamm) ainda não materializado. Avança na mesma transação que
+	 * grava os lançamentos, o que torna a execução repetível.
+	 */
+	@Column(name = "proxima_competencia")
+	private Integer proximaCompetencia;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@ToString.Exclude
+	@JoinColumn(name = "id_usuario")
+	private Usuario usuario;
+
+	@Column(name = "data_cadastro", insertable = false, updatable = false)
+	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
+	private LocalDate dataCadastro;
+
+	public int getCompetenciaInicial() {
+		return anoInicial * 100 + mesInicial;
+	}
+
+	/**
+	 * Último período (aaaamm) a materializar, ou {@code null} se não tiver fim.
+	 */
+	public Integer getCompetenciaFinal() {
+		return anoFinal == null ? null : anoFinal * 100 + mesFinal;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.dsousa.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Resposta de uma requisição enviada com {@code Idempotency-Key}, guardada para ser
+ * devolvida às repetições da mesma chave.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "requisicao_idempotente", schema = "financas")
+public class RequisicaoIdempotente implements Persistable<RequisicaoIdempotenteId> {
+
+	@EmbeddedId
+	private RequisicaoIdempotenteId id;
+
+	/**
+	 * SHA-256 do corpo da requisição original, para recusar a mesma chave com outro
+	 * conteúdo.
+	 */
+	@Column(name = "hash_requisicao")
+	private String hashRequisicao;
+
+	@Column(name = "status")
+	private Integer status;
+
+	@Column(name = "corpo")
+	private String corpo;
+
+	@Column(name = "etag")
+	private String etag;
+
+	@Column(name = "data_criacao")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime dataCriacao;
+
+	/**
+	 * Só é gravada uma vez: o {@code save} faz um INSERT direto, e uma chave repetida
+	 * falha na chave primária em vez de ser consultada antes.
+	 */
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.dsousa.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class RequisicaoIdempotenteId implements Serializable {
+
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+
+	@Column(name = "chave")
+	private String chave;
+
+}
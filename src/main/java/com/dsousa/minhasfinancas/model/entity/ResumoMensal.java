@@ -0,0 +1,31 @@
+package com.dsousa.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "resumo_mensal", schema = "financas")
+public class ResumoMensal {
+
+	@EmbeddedId
+	private ResumoMensalId id;
+
+	@Column(name = "total", precision = 16, scale = 2)
+	private BigDecimal total;
+
+	@Column(name = "quantidade")
+	private Long quantidade;
+
+}
@@ -5,7 +5,6 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import javax.persistence.*;
 
@@ -32,8 +31,4 @@ public class Usuario {
 	@JsonIgnore
 	private String senha;
 
-	public void criptografarSenha() {
-		this.senha = new BCryptPasswordEncoder().encode(this.senha);
-	}
-
 }
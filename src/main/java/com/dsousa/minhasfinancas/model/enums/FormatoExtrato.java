@@ -0,0 +1,33 @@
+package com.dsousa.minhasfinancas.model.enums;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+@Getter
+public enum FormatoExtrato {
+
+	CSV("text/csv"), OFX("application/x-ofx", "application/ofx");
+
+	private final List<String> tiposConteudo;
+
+	FormatoExtrato(String... tiposConteudo) {
+		this.tiposConteudo = Arrays.asList(tiposConteudo);
+	}
+
+	public static FormatoExtrato de(String tipoConteudo) {
+		if (tipoConteudo != null) {
+			String tipo = tipoConteudo.split(";")[0].trim().toLowerCase(Locale.ROOT);
+			for (FormatoExtrato formato : values()) {
+				if (formato.tiposConteudo.contains(tipo)) {
+					return formato;
+				}
+			}
+		}
+		throw new RegraNegocioException("Informe um extrato nos formatos CSV ou OFX.");
+	}
+
+}
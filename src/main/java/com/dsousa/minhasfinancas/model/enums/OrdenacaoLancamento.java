@@ -0,0 +1,39 @@
+package com.dsousa.minhasfinancas.model.enums;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import lombok.Getter;
+
+@Getter
+public enum OrdenacaoLancamento {
+
+	COMPETENCIA("competencia", true), COMPETENCIA_DECRESCENTE("competencia", false), VALOR("valor", true),
+	VALOR_DECRESCENTE("valor", false);
+
+	private final String atributo;
+
+	private final boolean crescente;
+
+	OrdenacaoLancamento(String atributo, boolean crescente) {
+		this.atributo = atributo;
+		this.crescente = crescente;
+	}
+
+	/**
+	 * Converte o parâmetro da API ({@code competencia}, {@code -competencia},
+	 * {@code valor}, {@code -valor}); vazio ordena por competência crescente.
+	 */
+	public static OrdenacaoLancamento de(String ordenacao) {
+		if (ordenacao == null || ordenacao.isEmpty()) {
+			return COMPETENCIA;
+		}
+		boolean crescente = !ordenacao.startsWith("-");
+		String atributo = crescente ? ordenacao : ordenacao.substring(1);
+		for (OrdenacaoLancamento valor : values()) {
+			if (valor.atributo.equals(atributo) && valor.crescente == crescente) {
+				return valor;
+			}
+		}
+		throw new RegraNegocioException("Informe uma ordenação válida.");
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.dsousa.minhasfinancas.model.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum Periodicidade {
+
+	MENSAL(1), ANUAL(12);
+
+	private final int meses;
+
+	Periodicidade(int meses) {
+		this.meses = meses;
+	}
+
+	/**
+	 * Competência (aaaamm) seguinte a {@code competencia} nesta periodicidade.
+	 */
+	public int proxima(int competencia) {
+		int indice = (competencia / 100) * 12 + competencia % 100 - 1 + meses;
+		return (indice / 12) * 100 + indice % 12 + 1;
+	}
+
+}
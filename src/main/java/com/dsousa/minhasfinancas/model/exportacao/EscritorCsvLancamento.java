@@ -0,0 +1,136 @@
+package com.dsousa.minhasfinancas.model.exportacao;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Escreve cada linha do cursor de lançamentos como uma linha CSV separada por ponto e
+ * vírgula, com vírgula decimal e textos entre aspas quando necessário. Não é o formato do
+ * extrato lido pela importação, que exige uma coluna de data e não aceita quebras de
+ * linha dentro das aspas. Os números são formatados em um buffer reutilizado e os textos
+ * escritos caractere a caractere, sem criar objetos intermediários por linha.
+ */
+public class EscritorCsvLancamento implements RowCallbackHandler {
+
+	public static final String CABECALHO = "id;descricao;ano;mes;valor;tipo;status\r\n";
+
+	private static final char SEPARADOR = ';';
+
+	private final Writer escritor;
+
+	private final char[] digitos = new char[20];
+
+	private long linhas;
+
+	public EscritorCsvLancamento(Writer escritor) {
+		this.escritor = escritor;
+	}
+
+	public void escreverCabecalho() throws IOException {
+		escritor.write(CABECALHO);
+	}
+
+	@Override
+	public void processRow(ResultSet rs) throws SQLException {
+		try {
+			escreverNumero(rs.getLong(1));
+			escritor.write(SEPARADOR);
+			escreverTexto(rs.getString(2));
+			escritor.write(SEPARADOR);
+			escreverNumero(rs.getInt(3));
+			escritor.write(SEPARADOR);
+			escreverNumero(rs.getInt(4));
+			escritor.write(SEPARADOR);
+			escreverValor(rs.getBigDecimal(5));
+			escritor.write(SEPARADOR);
+			escreverTexto(rs.getString(6));
+			escritor.write(SEPARADOR);
+			escreverTexto(rs.getString(7));
+			escritor.write('\r');
+			escritor.write('\n');
+			linhas++;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public long getLinhas() {
+		return linhas;
+	}
+
+	private void escreverNumero(long numero) throws IOException {
+		if (numero < 0) {
+			escritor.write('-');
+			numero = -numero;
+		}
+		int inicio = digitos.length;
+		do {
+			digitos[--inicio] = (char) ('0' + numero % 10);
+			numero /= 10;
+		}
+		while (numero > 0);
+		escritor.write(digitos, inicio, digitos.length - inicio);
+	}
+
+	/**
+	 * Valor com a escala da coluna e vírgula decimal. Valores cujo número sem escala cabe
+	 * em um {@code long} (todos os da coluna {@code numeric(16,2)}) não passam por
+	 * {@link String}.
+	 */
+	private void escreverValor(BigDecimal valor) throws IOException {
+		if (valor == null) {
+			return;
+		}
+		int escala = valor.scale();
+		if (valor.precision() > 18 || escala < 0) {
+			escritor.write(valor.toPlainString().replace('.', ','));
+			return;
+		}
+		long semEscala = valor.unscaledValue().longValue();
+		if (semEscala < 0) {
+			escritor.write('-');
+			semEscala = -semEscala;
+		}
+		int inicio = digitos.length;
+		for (int casa = 0; casa < escala || semEscala > 0 || casa == escala; casa++) {
+			if (casa == escala && escala > 0) {
+				digitos[--inicio] = ',';
+			}
+			digitos[--inicio] = (char) ('0' + semEscala % 10);
+			semEscala /= 10;
+		}
+		escritor.write(digitos, inicio, digitos.length - inicio);
+	}
+
+	private void escreverTexto(String texto) throws IOException {
+		if (texto == null) {
+			return;
+		}
+		boolean aspas = false;
+		for (int i = 0; i < texto.length() && !aspas; i++) {
+			char c = texto.charAt(i);
+			aspas = c == SEPARADOR || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!aspas) {
+			escritor.write(texto);
+			return;
+		}
+		escritor.write('"');
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (c == '"') {
+				escritor.write('"');
+			}
+			escritor.write(c);
+		}
+		escritor.write('"');
+	}
+
+}
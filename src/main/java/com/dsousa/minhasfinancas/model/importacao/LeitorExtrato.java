@@ -0,0 +1,23 @@
+package com.dsousa.minhasfinancas.model.importacao;
+
+import com.dsousa.minhasfinancas.model.enums.FormatoExtrato;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lê um extrato bancário uma transação por vez, sem carregar o arquivo inteiro em
+ * memória.
+ */
+public interface LeitorExtrato {
+
+	/**
+	 * Próxima transação do extrato, ou {@code null} ao fim do arquivo.
+	 */
+	LinhaExtrato proxima() throws IOException;
+
+	static LeitorExtrato abrir(FormatoExtrato formato, Reader leitor) throws IOException {
+		return formato == FormatoExtrato.OFX ? new LeitorExtratoOfx(leitor) : new LeitorExtratoCsv(leitor);
+	}
+
+}
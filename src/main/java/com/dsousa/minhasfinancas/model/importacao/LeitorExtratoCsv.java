@@ -0,0 +1,152 @@
+package com.dsousa.minhasfinancas.model.importacao;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Extrato em CSV com cabeçalho contendo as colunas {@code data}, {@code descricao},
+ * {@code valor} e, opcionalmente, {@code tipo}. Aceita vírgula ou ponto e vírgula como
+ * separador, datas em dd/mm/aaaa ou aaaa-mm-dd e valores com vírgula decimal.
+ */
+public class LeitorExtratoCsv implements LeitorExtrato {
+
+	private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+		.withResolverStyle(ResolverStyle.STRICT);
+
+	private final BufferedReader leitor;
+
+	private final char separador;
+
+	private final int colunaData;
+
+	private final int colunaDescricao;
+
+	private final int colunaValor;
+
+	private final int colunaTipo;
+
+	private int numero;
+
+	public LeitorExtratoCsv(Reader leitor) throws IOException {
+		this.leitor = leitor instanceof BufferedReader ? (BufferedReader) leitor : new BufferedReader(leitor);
+		String cabecalho = this.leitor.readLine();
+		if (cabecalho == null) {
+			throw new RegraNegocioException("O extrato informado está vazio.");
+		}
+		numero = 1;
+		if (cabecalho.startsWith("\uFEFF")) {
+			cabecalho = cabecalho.substring(1);
+		}
+		separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+		List<String> colunas = new ArrayList<>();
+		for (String coluna : dividir(cabecalho)) {
+			colunas.add(Normalizer.normalize(coluna.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+				.replaceAll("\\p{M}", ""));
+		}
+		colunaData = colunas.indexOf("data");
+		colunaDescricao = colunas.indexOf("descricao");
+		colunaValor = colunas.indexOf("valor");
+		colunaTipo = colunas.indexOf("tipo");
+		if (colunaData < 0 || colunaDescricao < 0 || colunaValor < 0) {
+			throw new RegraNegocioException("O extrato CSV deve conter as colunas data, descricao e valor.");
+		}
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		String linha;
+		do {
+			linha = leitor.readLine();
+			if (linha == null) {
+				return null;
+			}
+			numero++;
+		}
+		while (linha.trim().isEmpty());
+		List<String> campos = dividir(linha);
+		if (campos.size() <= Math.max(colunaData, Math.max(colunaDescricao, colunaValor))) {
+			return LinhaExtrato.invalida(numero, "A linha não contém todas as colunas do cabeçalho.");
+		}
+		LocalDate data = lerData(campos.get(colunaData).trim());
+		if (data == null) {
+			return LinhaExtrato.invalida(numero, "Informe uma Data válida.");
+		}
+		BigDecimal valor = lerValor(campos.get(colunaValor).trim());
+		if (valor == null) {
+			return LinhaExtrato.invalida(numero, "Informe um Valor válido.");
+		}
+		TipoLancamento tipo = null;
+		if (colunaTipo >= 0 && colunaTipo < campos.size() && !campos.get(colunaTipo).trim().isEmpty()) {
+			try {
+				tipo = TipoLancamento.valueOf(campos.get(colunaTipo).trim().toUpperCase(Locale.ROOT));
+			}
+			catch (IllegalArgumentException e) {
+				return LinhaExtrato.invalida(numero, "Informe um tipo de Lançamento válido.");
+			}
+		}
+		return LinhaExtrato.valida(numero, campos.get(colunaDescricao), data, valor, tipo, null);
+	}
+
+	private List<String> dividir(String linha) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		for (int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if (c == '"') {
+				if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+					campo.append('"');
+					i++;
+				}
+				else {
+					entreAspas = !entreAspas;
+				}
+			}
+			else if (c == separador && !entreAspas) {
+				campos.add(campo.toString());
+				campo.setLength(0);
+			}
+			else {
+				campo.append(c);
+			}
+		}
+		campos.add(campo.toString());
+		return campos;
+	}
+
+	private static LocalDate lerData(String texto) {
+		try {
+			return texto.indexOf('/') >= 0 ? LocalDate.parse(texto, DATA_BRASILEIRA) : LocalDate.parse(texto);
+		}
+		catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static BigDecimal lerValor(String texto) {
+		String valor = texto.replace("R$", "").replace(" ", "");
+		if (valor.indexOf(',') >= 0) {
+			valor = valor.replace(".", "").replace(',', '.');
+		}
+		try {
+			return new BigDecimal(valor);
+		}
+		catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.dsousa.minhasfinancas.model.importacao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extrato em OFX, tanto no formato SGML (marcadores sem fechamento) quanto em XML. Cada
+ * bloco {@code STMTTRN} vira uma linha, identificada pelo {@code FITID} do banco.
+ */
+public class LeitorExtratoOfx implements LeitorExtrato {
+
+	private final PushbackReader leitor;
+
+	private int numero = 1;
+
+	public LeitorExtratoOfx(Reader leitor) {
+		this.leitor = new PushbackReader(leitor instanceof BufferedReader ? leitor : new BufferedReader(leitor));
+	}
+
+	@Override
+	public LinhaExtrato proxima() throws IOException {
+		Map<String, String> campos = null;
+		int inicio = 0;
+		String marcador;
+		while ((marcador = lerMarcador()) != null) {
+			if ("STMTTRN".equals(marcador)) {
+				campos = new HashMap<>();
+				inicio = numero;
+			}
+			else if ("/STMTTRN".equals(marcador) && campos != null) {
+				return converter(inicio, campos);
+			}
+			else if (campos != null && !marcador.startsWith("/")) {
+				campos.put(marcador, lerTexto());
+			}
+		}
+		return null;
+	}
+
+	private LinhaExtrato converter(int numeroLinha, Map<String, String> campos) {
+		LocalDate data = lerData(campos.get("DTPOSTED"));
+		if (data == null) {
+			return LinhaExtrato.invalida(numeroLinha, "Informe uma Data válida.");
+		}
+		BigDecimal valor;
+		try {
+			valor = new BigDecimal(campos.getOrDefault("TRNAMT", "").replace(',', '.'));
+		}
+		catch (NumberFormatException e) {
+			return LinhaExtrato.invalida(numeroLinha, "Informe um Valor válido.");
+		}
+		String memo = campos.get("MEMO");
+		String descricao = memo == null || memo.isEmpty() ? campos.get("NAME") : memo;
+		String identificador = campos.get("FITID");
+		return LinhaExtrato.valida(numeroLinha, descricao, data, valor, null,
+				identificador == null || identificador.isEmpty() ? null : identificador);
+	}
+
+	private String lerMarcador() throws IOException {
+		int c;
+		while ((c = ler()) != -1 && c != '<') {
+		}
+		if (c == -1) {
+			return null;
+		}
+		StringBuilder marcador = new StringBuilder();
+		while ((c = ler()) != -1 && c != '>') {
+			marcador.append((char) c);
+		}
+		return marcador.toString().trim().toUpperCase(Locale.ROOT);
+	}
+
+	private String lerTexto() throws IOException {
+		StringBuilder texto = new StringBuilder();
+		int c;
+		while ((c = ler()) != -1 && c != '<') {
+			texto.append((char) c);
+		}
+		if (c == '<') {
+			leitor.unread(c);
+		}
+		return texto.toString().trim();
+	}
+
+	private int ler() throws IOException {
+		int c = leitor.read();
+		if (c == '\n') {
+			numero++;
+		}
+		return c;
+	}
+
+	private static LocalDate lerData(String texto) {
+		if (texto == null || texto.length() < 8) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(texto.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+		}
+		catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+}
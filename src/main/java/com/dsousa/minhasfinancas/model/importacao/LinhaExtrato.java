@@ -0,0 +1,67 @@
+package com.dsousa.minhasfinancas.model.importacao;
+
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class LinhaExtrato {
+
+	private static final int TAMANHO_MAXIMO_DESCRICAO = 100;
+
+	private static final int PRECISAO_MAXIMA_VALOR = 16;
+
+	private final int numero;
+
+	private final String descricao;
+
+	private final Integer ano;
+
+	private final Integer mes;
+
+	private final BigDecimal valor;
+
+	private final TipoLancamento tipo;
+
+	/**
+	 * Identificador da transação atribuído pelo banco (FITID do OFX), quando o formato o
+	 * fornece.
+	 */
+	private final String identificador;
+
+	private final String erro;
+
+	/**
+	 * Sem tipo informado, valores negativos viram despesas e positivos, receitas.
+	 */
+	public static LinhaExtrato valida(int numero, String descricao, LocalDate data, BigDecimal valor,
+			TipoLancamento tipo, String identificador) {
+		BigDecimal valorAbsoluto = valor.abs().setScale(2, RoundingMode.HALF_EVEN);
+		if (valorAbsoluto.precision() > PRECISAO_MAXIMA_VALOR) {
+			return invalida(numero, "Informe um Valor válido.");
+		}
+		TipoLancamento tipoLancamento = tipo != null ? tipo
+				: valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA;
+		String descricaoLimitada = descricao == null ? null : descricao.trim();
+		if (descricaoLimitada != null && descricaoLimitada.length() > TAMANHO_MAXIMO_DESCRICAO) {
+			descricaoLimitada = descricaoLimitada.substring(0, TAMANHO_MAXIMO_DESCRICAO);
+		}
+		return new LinhaExtrato(numero, descricaoLimitada, data.getYear(), data.getMonthValue(), valorAbsoluto,
+				tipoLancamento, identificador, null);
+	}
+
+	public static LinhaExtrato invalida(int numero, String erro) {
+		return new LinhaExtrato(numero, null, null, null, null, null, null, erro);
+	}
+
+	public boolean isValida() {
+		return erro == null;
+	}
+
+}
@@ -0,0 +1,12 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.Categoria;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
+
+	List<Categoria> findByAtivaTrueOrderByDescricao();
+
+}
@@ -0,0 +1,28 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.LancamentoRecorrente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface LancamentoRecorrenteRepository extends JpaRepository<LancamentoRecorrente, Long> {
+
+	/**
+	 * Próximo bloco, em ordem de id, de modelos com ocorrências até {@code competencia}.
+	 * As linhas ficam bloqueadas até o fim da transação, de modo que outra instância
+	 * executando o agendamento espera e não as encontra mais pendentes.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT r FROM LancamentoRecorrente r WHERE r.id > :idApos AND r.proximaCompetencia <= :competencia "
+			+ "AND (r.anoFinal IS NULL OR r.proximaCompetencia <= r.anoFinal * 100 + r.mesFinal) ORDER BY r.id")
+	List<LancamentoRecorrente> obterPendentes(@Param("competencia") Integer competencia, @Param("idApos") Long idApos,
+			Pageable pagina);
+
+	List<LancamentoRecorrente> findByUsuarioIdOrderById(Long idUsuario);
+
+}
@@ -1,19 +1,37 @@
 package com.dsousa.minhasfinancas.model.repository;
 
+import com.dsousa.minhasfinancas.model.consulta.TotalCategoria;
+import com.dsousa.minhasfinancas.model.consulta.TotalLancamentos;
 import com.dsousa.minhasfinancas.model.entity.Lancamento;
-import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
-import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
 
-	@Query(value = "SELECT SUM(l.valor) FROM Lancamento l JOIN l.usuario u "
-			+ "WHERE u.id = :idUsuario AND l.tipo =:tipo AND l.status = :status GROUP BY u")
-	BigDecimal obterSaldoPorTipoLancamentoEUsuarioEStatus(@Param("idUsuario") Long idUsuario,
-			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+	@Query("SELECT new com.dsousa.minhasfinancas.model.consulta.TotalLancamentos(l.tipo, l.status, SUM(l.valor), COUNT(l)) "
+			+ "FROM Lancamento l WHERE l.usuario.id = :idUsuario AND (:ano IS NULL OR l.ano = :ano) "
+			+ "AND (:mes IS NULL OR l.mes = :mes) GROUP BY l.tipo, l.status")
+	List<TotalLancamentos> obterTotaisPorTipoEStatus(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano,
+			@Param("mes") Integer mes);
+
+	/**
+	 * Soma e quantidade dos lançamentos do período por categoria, tipo e status, em uma
+	 * única consulta agrupada.
+	 */
+	@Query("SELECT new com.dsousa.minhasfinancas.model.consulta.TotalCategoria(c.id, c.descricao, l.tipo, l.status, "
+			+ "SUM(l.valor), COUNT(l)) FROM Lancamento l JOIN l.categorias c WHERE l.usuario.id = :idUsuario "
+			+ "AND l.competencia = :competencia GROUP BY c.id, c.descricao, l.tipo, l.status ORDER BY c.descricao, c.id")
+	List<TotalCategoria> obterTotaisPorCategoria(@Param("idUsuario") Long idUsuario,
+			@Param("competencia") Integer competencia);
+
+	boolean existsByIdAndUsuarioId(Long id, Long idUsuario);
+
+	@Query("SELECT l.hashConteudo FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.hashConteudo IN :hashes")
+	Set<String> obterHashesExistentes(@Param("idUsuario") Long idUsuario, @Param("hashes") Collection<String> hashes);
 
 }
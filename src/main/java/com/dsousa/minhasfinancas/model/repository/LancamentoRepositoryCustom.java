@@ -0,0 +1,75 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.CursorLancamento;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface LancamentoRepositoryCustom {
+
+	/**
+	 * Busca até {@code limite} lançamentos na ordenação do filtro, desempatada pelo id,
+	 * posicionados depois do cursor informado, sem OFFSET, projetados direto em
+	 * {@link LancamentoDTO}.
+	 */
+	List<LancamentoDTO> buscarApos(FiltroLancamento filtro, CursorLancamento cursor, int limite);
+
+	/**
+	 * Entrega cada lançamento do filtro, na ordenação do filtro, lido de um cursor
+	 * somente-avanço sem materializar entidades. Deve ser chamado dentro de uma
+	 * transação.
+	 */
+	void percorrer(FiltroLancamento filtro, int tamanhoLote, Consumer<LancamentoDTO> consumidor);
+
+	/**
+	 * Como {@link #percorrer}, mas entrega direto o {@link java.sql.ResultSet} do cursor
+	 * JDBC, com as colunas id, descricao, ano, mes, valor, tipo e status, sem criar
+	 * objetos por linha.
+	 */
+	void percorrerColunas(FiltroLancamento filtro, int tamanhoLote, RowCallbackHandler linha);
+
+	/**
+	 * Soma e quantidade dos lançamentos do filtro por ano, mês, tipo e status, em uma
+	 * única consulta agrupada.
+	 */
+	List<TotalPeriodo> obterTotaisPorPeriodo(FiltroLancamento filtro);
+
+	List<Long> obterIds(FiltroLancamento filtro);
+
+	/**
+	 * Altera o status de todos os lançamentos do filtro em um único UPDATE, ignorando os
+	 * que já estão no status informado.
+	 */
+	int atualizarStatus(FiltroLancamento filtro, StatusLancamento status);
+
+	/**
+	 * Grava os campos editáveis do lançamento em um único UPDATE pelo id e pelo usuário,
+	 * incrementando a versão. Com a versão informada, só altera a linha se ela ainda
+	 * estiver nessa versão. Retorna quantas linhas mudaram.
+	 */
+	int atualizar(Lancamento lancamento);
+
+	/**
+	 * Como {@link #atualizar(Lancamento)}, alterando apenas o status.
+	 */
+	int atualizarStatus(Lancamento lancamento, StatusLancamento status);
+
+	/**
+	 * Troca as categorias do lançamento por {@code idsCategorias}: um DELETE e um lote de
+	 * INSERTs em {@code categorias_lancamentos}.
+	 */
+	void substituirCategorias(Long idLancamento, Collection<Long> idsCategorias);
+
+	/**
+	 * Remove todos os lançamentos do filtro em um único DELETE.
+	 */
+	int deletar(FiltroLancamento filtro);
+
+}
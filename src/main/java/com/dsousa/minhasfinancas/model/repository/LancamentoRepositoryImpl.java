@@ -0,0 +1,352 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.CursorLancamento;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.query.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+	private static final String COLUNAS = "SELECT l.id, l.descricao, l.ano, l.mes, l.valor, l.tipo, l.status "
+			+ "FROM financas.lancamento l WHERE l.id_usuario = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public List<LancamentoDTO> buscarApos(FiltroLancamento filtro, CursorLancamento cursor, int limite) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoDTO> query = cb.createQuery(LancamentoDTO.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		List<Predicate> predicados = predicados(cb, lancamento, filtro);
+		if (cursor != null) {
+			OrdenacaoLancamento ordenacao = cursor.getOrdenacao();
+			Expression chave = lancamento.get(ordenacao.getAtributo());
+			Comparable valor = "valor".equals(ordenacao.getAtributo()) ? cursor.getChave()
+					: Integer.valueOf(cursor.getChave().intValueExact());
+			Expression<Long> id = lancamento.get("id");
+			predicados.add(ordenacao.isCrescente()
+					? cb.or(cb.greaterThan(chave, valor),
+							cb.and(cb.equal(chave, valor), cb.greaterThan(id, cursor.getId())))
+					: cb.or(cb.lessThan(chave, valor),
+							cb.and(cb.equal(chave, valor), cb.lessThan(id, cursor.getId()))));
+		}
+		projetar(cb, query, lancamento, predicados, filtro.getOrdenacao());
+		return entityManager.createQuery(query).setMaxResults(limite).getResultList();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void percorrer(FiltroLancamento filtro, int tamanhoLote, Consumer<LancamentoDTO> consumidor) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoDTO> query = cb.createQuery(LancamentoDTO.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		projetar(cb, query, lancamento, predicados(cb, lancamento, filtro), filtro.getOrdenacao());
+		Query<LancamentoDTO> consulta = entityManager.createQuery(query).unwrap(Query.class);
+		consulta.setFetchSize(tamanhoLote).setReadOnly(true).setCacheMode(CacheMode.IGNORE);
+		try (Stream<LancamentoDTO> linhas = consulta.stream()) {
+			linhas.forEach(consumidor);
+		}
+	}
+
+	@Override
+	public void percorrerColunas(FiltroLancamento filtro, int tamanhoLote, RowCallbackHandler linha) {
+		List<Object> parametros = new ArrayList<>();
+		String sql = COLUNAS + condicoes(filtro, parametros) + ordenacao(filtro.getOrdenacao());
+		jdbcTemplate.query(conexao -> {
+			PreparedStatement consulta = conexao.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			consulta.setFetchSize(tamanhoLote);
+			for (int i = 0; i < parametros.size(); i++) {
+				consulta.setObject(i + 1, parametros.get(i));
+			}
+			return consulta;
+		}, linha);
+	}
+
+	@Override
+	public List<TotalPeriodo> obterTotaisPorPeriodo(FiltroLancamento filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<TotalPeriodo> query = cb.createQuery(TotalPeriodo.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		query
+			.select(cb.construct(TotalPeriodo.class, lancamento.get("ano"), lancamento.get("mes"),
+					lancamento.get("tipo"), lancamento.get("status"), cb.sum(lancamento.<BigDecimal>get("valor")),
+					cb.count(lancamento)))
+			.where(predicados(cb, lancamento, filtro).toArray(new Predicate[0]))
+			.groupBy(lancamento.get("ano"), lancamento.get("mes"), lancamento.get("tipo"), lancamento.get("status"));
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	@Override
+	public List<Long> obterIds(FiltroLancamento filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Lancamento> lancamento = query.from(Lancamento.class);
+		query.select(lancamento.get("id")).where(predicados(cb, lancamento, filtro).toArray(new Predicate[0]));
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	@Override
+	public int atualizarStatus(FiltroLancamento filtro, StatusLancamento status) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> lancamento = update.from(Lancamento.class);
+		List<Predicate> predicados = predicados(cb, lancamento, filtro);
+		predicados.add(cb.or(cb.isNull(lancamento.get("status")), cb.notEqual(lancamento.get("status"), status)));
+		update.set(lancamento.get("status"), status).where(predicados.toArray(new Predicate[0]));
+		incrementarVersao(cb, update, lancamento);
+		return entityManager.createQuery(update).executeUpdate();
+	}
+
+	@Override
+	public int atualizar(Lancamento alterado) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> lancamento = update.from(Lancamento.class);
+		Map<String, Object> parametros = new HashMap<>();
+		definir(cb, update, lancamento, parametros, "descricao", alterado.getDescricao(), String.class);
+		definir(cb, update, lancamento, parametros, "mes", alterado.getMes(), Integer.class);
+		definir(cb, update, lancamento, parametros, "ano", alterado.getAno(), Integer.class);
+		definir(cb, update, lancamento, parametros, "valor", alterado.getValor(), BigDecimal.class);
+		definir(cb, update, lancamento, parametros, "tipo", alterado.getTipo(), TipoLancamento.class);
+		definir(cb, update, lancamento, parametros, "status", alterado.getStatus(), StatusLancamento.class);
+		return executarNaVersao(cb, update, lancamento, alterado, parametros);
+	}
+
+	@Override
+	public int atualizarStatus(Lancamento alterado, StatusLancamento status) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> lancamento = update.from(Lancamento.class);
+		Map<String, Object> parametros = new HashMap<>();
+		definir(cb, update, lancamento, parametros, "status", status, StatusLancamento.class);
+		return executarNaVersao(cb, update, lancamento, alterado, parametros);
+	}
+
+	@Override
+	public void substituirCategorias(Long idLancamento, Collection<Long> idsCategorias) {
+		jdbcTemplate.update("DELETE FROM financas.categorias_lancamentos WHERE id_lancamento = ?", idLancamento);
+		if (idsCategorias.isEmpty()) {
+			return;
+		}
+		List<Object[]> linhas = new ArrayList<>(idsCategorias.size());
+		for (Long idCategoria : idsCategorias) {
+			linhas.add(new Object[] { idCategoria, idLancamento });
+		}
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO financas.categorias_lancamentos (id_categoria, id_lancamento) VALUES (?, ?)", linhas);
+	}
+
+	@Override
+	public int deletar(FiltroLancamento filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaDelete<Lancamento> delete = cb.createCriteriaDelete(Lancamento.class);
+		Root<Lancamento> lancamento = delete.from(Lancamento.class);
+		delete.where(predicados(cb, lancamento, filtro).toArray(new Predicate[0]));
+		return entityManager.createQuery(delete).executeUpdate();
+	}
+
+	/**
+	 * Os valores entram como parâmetros nomeados, para que o SQL gerado seja o mesmo a
+	 * cada atualização e reaproveite o plano em cache.
+	 */
+	private int executarNaVersao(CriteriaBuilder cb, CriteriaUpdate<Lancamento> update, Root<Lancamento> lancamento,
+			Lancamento alterado, Map<String, Object> parametros) {
+		List<Predicate> predicados = new ArrayList<>();
+		predicados.add(cb.equal(lancamento.get("id"), cb.parameter(Long.class, "id")));
+		parametros.put("id", alterado.getId());
+		predicados.add(cb.equal(lancamento.get("usuario").get("id"), cb.parameter(Long.class, "idUsuario")));
+		parametros.put("idUsuario", alterado.getUsuario().getId());
+		if (alterado.getVersao() != null) {
+			predicados.add(cb.equal(lancamento.get("versao"), cb.parameter(Long.class, "versao")));
+			parametros.put("versao", alterado.getVersao());
+		}
+		update.where(predicados.toArray(new Predicate[0]));
+		incrementarVersao(cb, update, lancamento);
+		Query<?> query = entityManager.createQuery(update).unwrap(Query.class);
+		parametros.forEach(query::setParameter);
+		return query.executeUpdate();
+	}
+
+	private static void incrementarVersao(CriteriaBuilder cb, CriteriaUpdate<Lancamento> update,
+			Root<Lancamento> lancamento) {
+		Path<Long> versao = lancamento.get("versao");
+		update.set(versao, cb.sum(versao, 1L));
+	}
+
+	/**
+	 * Valores preenchidos viram parâmetros com o nome do atributo. O Hibernate não tipa
+	 * um parâmetro nulo em {@code set}; campos vazios recebem um literal nulo tipado.
+	 */
+	private static <T> void definir(CriteriaBuilder cb, CriteriaUpdate<Lancamento> update, Root<Lancamento> lancamento,
+			Map<String, Object> parametros, String atributo, T valor, Class<T> tipo) {
+		Path<T> caminho = lancamento.get(atributo);
+		if (valor == null) {
+			update.set(caminho, cb.nullLiteral(tipo));
+			return;
+		}
+		update.set(caminho, cb.parameter(tipo, atributo));
+		parametros.put(atributo, valor);
+	}
+
+	/**
+	 * Seleciona só as colunas do {@link LancamentoDTO}, com o id do usuário lido da chave
+	 * estrangeira, sem junção com {@code usuario}.
+	 */
+	private void projetar(CriteriaBuilder cb, CriteriaQuery<LancamentoDTO> query, Root<Lancamento> lancamento,
+			List<Predicate> predicados, OrdenacaoLancamento ordenacao) {
+		Expression<?> chave = lancamento.get(ordenacao.getAtributo());
+		Expression<?> id = lancamento.get("id");
+		query
+			.select(cb.construct(LancamentoDTO.class, lancamento.get("id"), lancamento.get("descricao"),
+					lancamento.get("mes"), lancamento.get("ano"), lancamento.get("valor"),
+					lancamento.get("usuario").get("id"), lancamento.get("tipo"), lancamento.get("status"),
+					lancamento.get("versao")))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(ordenacao.isCrescente() ? cb.asc(chave) : cb.desc(chave),
+					ordenacao.isCrescente() ? cb.asc(id) : cb.desc(id));
+	}
+
+	/**
+	 * Mesmas condições de {@link #predicados}, em SQL, depois do filtro por usuário.
+	 */
+	private static String condicoes(FiltroLancamento filtro, List<Object> parametros) {
+		parametros.add(filtro.getIdUsuario());
+		StringBuilder sql = new StringBuilder();
+		if (filtro.getDescricao() != null && !filtro.getDescricao().isEmpty()) {
+			String termo = filtro.getDescricao().toLowerCase(Locale.ROOT).replaceAll("([\\\\%_])", "\\\\$1");
+			sql.append(" AND LOWER(l.descricao) LIKE ? ESCAPE '\\'");
+			parametros.add("%" + termo + "%");
+		}
+		Integer competenciaInicial = filtro.getCompetenciaInicial();
+		Integer competenciaFinal = filtro.getCompetenciaFinal();
+		if (competenciaInicial != null && competenciaInicial.equals(competenciaFinal)) {
+			sql.append(" AND l.competencia = ?");
+			parametros.add(competenciaInicial);
+		}
+		else {
+			if (competenciaInicial != null) {
+				sql.append(" AND l.competencia >= ?");
+				parametros.add(competenciaInicial);
+			}
+			if (competenciaFinal != null) {
+				sql.append(" AND l.competencia <= ?");
+				parametros.add(competenciaFinal);
+			}
+		}
+		if (filtro.getAno() == null && filtro.getMes() != null) {
+			sql.append(" AND l.mes = ?");
+			parametros.add(filtro.getMes());
+		}
+		if (filtro.getValorMinimo() != null) {
+			sql.append(" AND l.valor >= ?");
+			parametros.add(filtro.getValorMinimo());
+		}
+		if (filtro.getValorMaximo() != null) {
+			sql.append(" AND l.valor <= ?");
+			parametros.add(filtro.getValorMaximo());
+		}
+		if (filtro.getTipo() != null) {
+			sql.append(" AND l.tipo = ?");
+			parametros.add(filtro.getTipo().name());
+		}
+		if (filtro.getStatus() != null) {
+			sql.append(" AND l.status = ?");
+			parametros.add(filtro.getStatus().name());
+		}
+		if (filtro.getIds() != null) {
+			sql.append(" AND l.id IN (");
+			String separador = "";
+			for (Long id : filtro.getIds()) {
+				sql.append(separador).append('?');
+				separador = ", ";
+				parametros.add(id);
+			}
+			sql.append(')');
+		}
+		return sql.toString();
+	}
+
+	private static String ordenacao(OrdenacaoLancamento ordenacao) {
+		String direcao = ordenacao.isCrescente() ? " ASC" : " DESC";
+		return " ORDER BY l." + ordenacao.getAtributo() + direcao + ", l.id" + direcao;
+	}
+
+	private List<Predicate> predicados(CriteriaBuilder cb, Root<Lancamento> lancamento, FiltroLancamento filtro) {
+		List<Predicate> predicados = new ArrayList<>();
+		predicados.add(cb.equal(lancamento.get("usuario").get("id"), filtro.getIdUsuario()));
+		if (filtro.getDescricao() != null && !filtro.getDescricao().isEmpty()) {
+			String termo = filtro.getDescricao().toLowerCase(Locale.ROOT).replaceAll("([\\\\%_])", "\\\\$1");
+			predicados.add(cb.like(cb.lower(lancamento.get("descricao")), "%" + termo + "%", '\\'));
+		}
+		Integer competenciaInicial = filtro.getCompetenciaInicial();
+		Integer competenciaFinal = filtro.getCompetenciaFinal();
+		if (competenciaInicial != null && competenciaInicial.equals(competenciaFinal)) {
+			predicados.add(cb.equal(lancamento.get("competencia"), competenciaInicial));
+		}
+		else {
+			if (competenciaInicial != null) {
+				predicados.add(cb.greaterThanOrEqualTo(lancamento.get("competencia"), competenciaInicial));
+			}
+			if (competenciaFinal != null) {
+				predicados.add(cb.lessThanOrEqualTo(lancamento.get("competencia"), competenciaFinal));
+			}
+		}
+		if (filtro.getAno() == null && filtro.getMes() != null) {
+			predicados.add(cb.equal(lancamento.get("mes"), filtro.getMes()));
+		}
+		if (filtro.getValorMinimo() != null) {
+			predicados.add(cb.greaterThanOrEqualTo(lancamento.get("valor"), filtro.getValorMinimo()));
+		}
+		if (filtro.getValorMaximo() != null) {
+			predicados.add(cb.lessThanOrEqualTo(lancamento.get("valor"), filtro.getValorMaximo()));
+		}
+		if (filtro.getTipo() != null) {
+			predicados.add(cb.equal(lancamento.get("tipo"), filtro.getTipo()));
+		}
+		if (filtro.getStatus() != null) {
+			predicados.add(cb.equal(lancamento.get("status"), filtro.getStatus()));
+		}
+		if (filtro.getIds() != null) {
+			predicados.add(lancamento.get("id").in(filtro.getIds()));
+		}
+		return predicados;
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.RequisicaoIdempotente;
+import com.dsousa.minhasfinancas.model.entity.RequisicaoIdempotenteId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface RequisicaoIdempotenteRepository extends JpaRepository<RequisicaoIdempotente, RequisicaoIdempotenteId> {
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RequisicaoIdempotente r WHERE r.dataCriacao <= :limite")
+	int removerAnteriores(@Param("limite") LocalDateTime limite);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM RequisicaoIdempotente r WHERE r.id = :id AND r.dataCriacao <= :limite")
+	int removerSeAnterior(@Param("id") RequisicaoIdempotenteId id, @Param("limite") LocalDateTime limite);
+
+}
@@ -0,0 +1,27 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.ResumoMensal;
+import com.dsousa.minhasfinancas.model.entity.ResumoMensalId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ResumoMensalRepository
+		extends JpaRepository<ResumoMensal, ResumoMensalId>, ResumoMensalRepositoryCustom {
+
+	@Query("SELECT new com.dsousa.minhasfinancas.model.consulta.TotalPeriodo(r.id.ano, r.id.mes, r.id.tipo, "
+			+ "r.id.status, r.total, r.quantidade) FROM ResumoMensal r "
+			+ "WHERE r.id.idUsuario = :idUsuario AND r.id.ano = :ano AND r.quantidade > 0 ORDER BY r.id.mes")
+	List<TotalPeriodo> obterTotaisMensais(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+	@Query("SELECT new com.dsousa.minhasfinancas.model.consulta.TotalPeriodo(r.id.ano, r.id.tipo, r.id.status, "
+			+ "SUM(r.total), SUM(r.quantidade)) FROM ResumoMensal r WHERE r.id.idUsuario = :idUsuario "
+			+ "AND r.id.ano BETWEEN :anoInicial AND :anoFinal AND r.quantidade > 0 "
+			+ "GROUP BY r.id.ano, r.id.tipo, r.id.status ORDER BY r.id.ano")
+	List<TotalPeriodo> obterTotaisAnuais(@Param("idUsuario") Long idUsuario, @Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal);
+
+}
@@ -0,0 +1,35 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.ResumoMensalId;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface ResumoMensalRepositoryCustom {
+
+	void retirar(Long idLancamento);
+
+	void adicionar(ResumoMensalId id, BigDecimal valor, int quantidade);
+
+	/**
+	 * Soma ao resumo o lançamento como está gravado, sem lê-lo antes: o período e o valor
+	 * vêm da própria instrução.
+	 */
+	void adicionarGravado(Long idLancamento);
+
+	boolean isVazio();
+
+	List<Long> obterIdsUsuarios();
+
+	int reconstruir(Long idUsuarioInicial, Long idUsuarioFinal);
+
+	/**
+	 * Percorre, em ordem, o saldo efetivado acumulado ao fim de cada período (ano * 100 +
+	 * mês) com movimento até o período final. O período 0 traz o saldo anterior ao
+	 * período inicial.
+	 */
+	void percorrerSaldoAcumulado(Long idUsuario, int periodoInicial, int periodoFinal,
+			BiConsumer<Integer, BigDecimal> consumidor);
+
+}
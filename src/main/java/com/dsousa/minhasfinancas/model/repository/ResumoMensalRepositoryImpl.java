@@ -0,0 +1,115 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.ResumoMensalId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+@RequiredArgsConstructor
+public class ResumoMensalRepositoryImpl implements ResumoMensalRepositoryCustom {
+
+	private static final String MOVIMENTOS = "SELECT p.periodo, SUM(p.movimento) AS movimento FROM ("
+			+ "SELECT CASE WHEN r.ano * 100 + r.mes < ? THEN 0 ELSE r.ano * 100 + r.mes END AS periodo, "
+			+ "CASE WHEN r.tipo = 'RECEITA' THEN r.total ELSE -r.total END AS movimento "
+			+ "FROM financas.resumo_mensal r WHERE r.id_usuario = ? AND r.status = 'EFETIVADO' "
+			+ "AND r.ano * 100 + r.mes <= ?) p GROUP BY p.periodo";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private volatile Boolean funcoesDeJanela;
+
+	@Override
+	public void retirar(Long idLancamento) {
+		jdbcTemplate.update("UPDATE financas.resumo_mensal r SET total = total - "
+				+ "(SELECT l.valor FROM financas.lancamento l WHERE l.id = ?), quantidade = quantidade - 1 "
+				+ "WHERE EXISTS (SELECT 1 FROM financas.lancamento l WHERE l.id = ? AND l.id_usuario = r.id_usuario "
+				+ "AND l.ano = r.ano AND l.mes = r.mes AND l.tipo = r.tipo AND l.status = r.status)", idLancamento,
+				idLancamento);
+	}
+
+	@Override
+	public void adicionar(ResumoMensalId id, BigDecimal valor, int quantidade) {
+		Object[] chave = { id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo().name(), id.getStatus().name() };
+		int atualizados = jdbcTemplate.update(
+				"UPDATE financas.resumo_mensal SET total = total + ?, quantidade = quantidade + ? "
+						+ "WHERE id_usuario = ? AND ano = ? AND mes = ? AND tipo = ? AND status = ?",
+				valor, quantidade, chave[0], chave[1], chave[2], chave[3], chave[4]);
+		if (atualizados == 0) {
+			jdbcTemplate.update(
+					"INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, "
+							+ "quantidade) VALUES (?, ?, ?, ?, ?, ?, ?)",
+					chave[0], chave[1], chave[2], chave[3], chave[4], valor, quantidade);
+		}
+	}
+
+	@Override
+	public void adicionarGravado(Long idLancamento) {
+		int atualizados = jdbcTemplate.update("UPDATE financas.resumo_mensal r SET total = total + "
+				+ "(SELECT l.valor FROM financas.lancamento l WHERE l.id = ?), quantidade = quantidade + 1 "
+				+ "WHERE EXISTS (SELECT 1 FROM financas.lancamento l WHERE l.id = ? AND l.id_usuario = r.id_usuario "
+				+ "AND l.ano = r.ano AND l.mes = r.mes AND l.tipo = r.tipo AND l.status = r.status)", idLancamento,
+				idLancamento);
+		if (atualizados == 0) {
+			jdbcTemplate.update("INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, "
+					+ "quantidade) SELECT l.id_usuario, l.ano, l.mes, l.tipo, l.status, l.valor, 1 "
+					+ "FROM financas.lancamento l WHERE l.id = ? AND l.tipo IS NOT NULL AND l.status IS NOT NULL",
+					idLancamento);
+		}
+	}
+
+	@Override
+	public boolean isVazio() {
+		return jdbcTemplate.queryForList("SELECT id_usuario FROM financas.resumo_mensal LIMIT 1", Long.class).isEmpty();
+	}
+
+	@Override
+	public List<Long> obterIdsUsuarios() {
+		return jdbcTemplate.queryForList("SELECT id FROM financas.usuario ORDER BY id", Long.class);
+	}
+
+	@Override
+	public int reconstruir(Long idUsuarioInicial, Long idUsuarioFinal) {
+		jdbcTemplate.update("UPDATE financas.saldo_usuario SET versao = versao + 1 WHERE id_usuario BETWEEN ? AND ?",
+				idUsuarioInicial, idUsuarioFinal);
+		jdbcTemplate.update("DELETE FROM financas.resumo_mensal WHERE id_usuario BETWEEN ? AND ?", idUsuarioInicial,
+				idUsuarioFinal);
+		return jdbcTemplate.update("INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, "
+				+ "quantidade) SELECT l.id_usuario, l.ano, l.mes, l.tipo, l.status, SUM(l.valor), COUNT(*) "
+				+ "FROM financas.lancamento l WHERE l.id_usuario BETWEEN ? AND ? "
+				+ "AND l.tipo IS NOT NULL AND l.status IS NOT NULL "
+				+ "GROUP BY l.id_usuario, l.ano, l.mes, l.tipo, l.status", idUsuarioInicial, idUsuarioFinal);
+	}
+
+	@Override
+	public void percorrerSaldoAcumulado(Long idUsuario, int periodoInicial, int periodoFinal,
+			BiConsumer<Integer, BigDecimal> consumidor) {
+		if (isFuncoesDeJanela()) {
+			jdbcTemplate.query(
+					"SELECT m.periodo, SUM(m.movimento) OVER (ORDER BY m.periodo) AS saldo FROM (" + MOVIMENTOS
+							+ ") m ORDER BY m.periodo",
+					(RowCallbackHandler) rs -> consumidor.accept(rs.getInt("periodo"), rs.getBigDecimal("saldo")),
+					periodoInicial, idUsuario, periodoFinal);
+			return;
+		}
+		BigDecimal[] saldo = { BigDecimal.ZERO };
+		jdbcTemplate.query(MOVIMENTOS + " ORDER BY p.periodo", (RowCallbackHandler) rs -> {
+			saldo[0] = saldo[0].add(rs.getBigDecimal("movimento"));
+			consumidor.accept(rs.getInt("periodo"), saldo[0]);
+		}, periodoInicial, idUsuario, periodoFinal);
+	}
+
+	private boolean isFuncoesDeJanela() {
+		if (funcoesDeJanela == null) {
+			String banco = jdbcTemplate
+				.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+			funcoesDeJanela = "PostgreSQL".equalsIgnoreCase(banco);
+		}
+		return funcoesDeJanela;
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long>, SaldoUsuarioRepositoryCustom {
+
+	@Query("SELECT s.idUsuario FROM SaldoUsuario s ORDER BY s.idUsuario")
+	List<Long> obterIdsUsuarios();
+
+}
@@ -0,0 +1,32 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.consulta.DivergenciaSaldo;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface SaldoUsuarioRepositoryCustom {
+
+	/**
+	 * Trava a linha de saldo do usuário até o fim da transação, criando-a a partir dos
+	 * lançamentos caso ainda não exista.
+	 */
+	void bloquear(Long idUsuario);
+
+	void retirarContribuicao(Long idLancamento);
+
+	void adicionarContribuicao(Long idUsuario, BigDecimal valor);
+
+	/**
+	 * Soma ao saldo a contribuição do lançamento como está gravado, lida na própria
+	 * instrução.
+	 */
+	void adicionarContribuicaoGravada(Long idLancamento);
+
+	int criarSaldosAusentes();
+
+	List<DivergenciaSaldo> obterDivergencias(Long idUsuarioInicial, Long idUsuarioFinal);
+
+	boolean corrigir(Long idUsuario, BigDecimal saldo, long versao);
+
+}
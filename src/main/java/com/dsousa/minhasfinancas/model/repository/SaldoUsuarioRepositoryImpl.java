@@ -0,0 +1,114 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.consulta.DivergenciaSaldo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class SaldoUsuarioRepositoryImpl implements SaldoUsuarioRepositoryCustom {
+
+	private static final String CONTRIBUICAO = "CASE WHEN l.status = 'EFETIVADO' THEN "
+			+ "CASE WHEN l.tipo = 'RECEITA' THEN l.valor ELSE -l.valor END ELSE 0 END";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private volatile Boolean postgres;
+
+	@Override
+	public void bloquear(Long idUsuario) {
+		if (travar(idUsuario) == 0 && !criar(idUsuario)) {
+			travar(idUsuario);
+		}
+	}
+
+	private int travar(Long idUsuario) {
+		return jdbcTemplate.update("UPDATE financas.saldo_usuario SET versao = versao + 1 WHERE id_usuario = ?",
+				idUsuario);
+	}
+
+	/**
+	 * Cria o saldo a partir dos lançamentos, retornando {@code false} quando outra
+	 * transação o criou antes. No PostgreSQL o conflito é resolvido pelo próprio INSERT,
+	 * já que um erro dentro da transação a invalidaria; nos demais bancos a chave
+	 * duplicada é descartada.
+	 */
+	private boolean criar(Long idUsuario) {
+		String insert = "INSERT INTO financas.saldo_usuario (id_usuario, saldo, versao) SELECT ?, COALESCE(SUM("
+				+ CONTRIBUICAO + "), 0), 1 FROM financas.lancamento l WHERE l.id_usuario = ?";
+		if (isPostgres()) {
+			return jdbcTemplate.update(insert + " ON CONFLICT (id_usuario) DO NOTHING", idUsuario, idUsuario) == 1;
+		}
+		try {
+			return jdbcTemplate.update(insert, idUsuario, idUsuario) == 1;
+		}
+		catch (DuplicateKeyException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void retirarContribuicao(Long idLancamento) {
+		jdbcTemplate.update(
+				"UPDATE financas.saldo_usuario SET saldo = saldo - (SELECT " + CONTRIBUICAO
+						+ " FROM financas.lancamento l WHERE l.id = ?) "
+						+ "WHERE id_usuario = (SELECT l.id_usuario FROM financas.lancamento l WHERE l.id = ?)",
+				idLancamento, idLancamento);
+	}
+
+	@Override
+	public void adicionarContribuicaoGravada(Long idLancamento) {
+		jdbcTemplate.update(
+				"UPDATE financas.saldo_usuario SET saldo = saldo + (SELECT " + CONTRIBUICAO
+						+ " FROM financas.lancamento l WHERE l.id = ?) "
+						+ "WHERE id_usuario = (SELECT l.id_usuario FROM financas.lancamento l WHERE l.id = ?)",
+				idLancamento, idLancamento);
+	}
+
+	@Override
+	public void adicionarContribuicao(Long idUsuario, BigDecimal valor) {
+		jdbcTemplate.update("UPDATE financas.saldo_usuario SET saldo = saldo + ? WHERE id_usuario = ?", valor,
+				idUsuario);
+	}
+
+	@Override
+	public int criarSaldosAusentes() {
+		return jdbcTemplate.update("INSERT INTO financas.saldo_usuario (id_usuario, saldo, versao) "
+				+ "SELECT u.id, (SELECT COALESCE(SUM(" + CONTRIBUICAO + "), 0) FROM financas.lancamento l "
+				+ "WHERE l.id_usuario = u.id), 1 FROM financas.usuario u "
+				+ "WHERE NOT EXISTS (SELECT 1 FROM financas.saldo_usuario s WHERE s.id_usuario = u.id)");
+	}
+
+	@Override
+	public List<DivergenciaSaldo> obterDivergencias(Long idUsuarioInicial, Long idUsuarioFinal) {
+		return jdbcTemplate.query("SELECT s.id_usuario, s.saldo, s.versao, COALESCE(c.saldo, 0) AS calculado "
+				+ "FROM financas.saldo_usuario s LEFT JOIN (SELECT l.id_usuario, SUM(" + CONTRIBUICAO + ") AS saldo "
+				+ "FROM financas.lancamento l WHERE l.id_usuario BETWEEN ? AND ? GROUP BY l.id_usuario) c "
+				+ "ON c.id_usuario = s.id_usuario "
+				+ "WHERE s.id_usuario BETWEEN ? AND ? AND s.saldo <> COALESCE(c.saldo, 0) ORDER BY s.id_usuario",
+				(rs, linha) -> new DivergenciaSaldo(rs.getLong("id_usuario"), rs.getBigDecimal("saldo"),
+						rs.getBigDecimal("calculado"), rs.getLong("versao"), false),
+				idUsuarioInicial, idUsuarioFinal, idUsuarioInicial, idUsuarioFinal);
+	}
+
+	@Override
+	public boolean corrigir(Long idUsuario, BigDecimal saldo, long versao) {
+		return jdbcTemplate.update(
+				"UPDATE financas.saldo_usuario SET saldo = ?, versao = versao + 1 WHERE id_usuario = ? AND versao = ?",
+				saldo, idUsuario, versao) == 1;
+	}
+
+	private boolean isPostgres() {
+		if (postgres == null) {
+			String banco = jdbcTemplate
+				.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+			postgres = "PostgreSQL".equalsIgnoreCase(banco);
+		}
+		return postgres;
+	}
+
+}
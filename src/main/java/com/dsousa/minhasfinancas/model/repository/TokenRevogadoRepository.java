@@ -0,0 +1,23 @@
+package com.dsousa.minhasfinancas.model.repository;
+
+import com.dsousa.minhasfinancas.model.entity.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+	@Query("SELECT t.jti FROM TokenRevogado t WHERE t.expiracao > :agora")
+	List<String> obterJtisNaoExpirados(@Param("agora") LocalDateTime agora);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM TokenRevogado t WHERE t.expiracao <= :agora")
+	int removerExpirados(@Param("agora") LocalDateTime agora);
+
+}
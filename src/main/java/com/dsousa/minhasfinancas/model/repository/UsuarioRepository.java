@@ -2,6 +2,10 @@ package com.dsousa.minhasfinancas.model.repository;
 
 import com.dsousa.minhasfinancas.model.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +15,10 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
 	Optional<Usuario> findByEmail(String email);
 
+	@Transactional
+	@Modifying
+	@Query("UPDATE Usuario u SET u.senha = :novaSenha WHERE u.id = :id AND u.senha = :senhaAtual")
+	int atualizarSenha(@Param("id") Long id, @Param("senhaAtual") String senhaAtual,
+			@Param("novaSenha") String novaSenha);
+
 }
@@ -0,0 +1,40 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.consulta.ItemCategoria;
+import com.dsousa.minhasfinancas.model.entity.Categoria;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CategoriaService {
+
+	Categoria salvar(Categoria categoria);
+
+	/**
+	 * Altera a descrição e a situação da categoria; desativada, ela deixa de ser aceita
+	 * em novos lançamentos, mas continua nos existentes e nos relatórios.
+	 */
+	Categoria atualizar(Categoria categoria);
+
+	Optional<Categoria> obterPorId(Long id);
+
+	/**
+	 * Cópias das categorias ativas em ordem de descrição, servidas de um dicionário em
+	 * memória recarregado após cada alteração.
+	 */
+	List<Categoria> obterAtivas();
+
+	/**
+	 * Indica se todos os ids informados são de categorias ativas, sem consultar o banco.
+	 */
+	boolean isAtivas(Collection<Long> ids);
+
+	/**
+	 * Totais dos lançamentos do usuário no mês por categoria.
+	 */
+	List<ItemCategoria> obterRelatorioPorCategoria(Long idUsuario, Integer ano, Integer mes);
+
+	void validar(Categoria categoria);
+
+}
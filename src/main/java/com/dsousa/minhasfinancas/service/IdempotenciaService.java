@@ -0,0 +1,19 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.consulta.RespostaIdempotente;
+
+import java.util.function.Supplier;
+
+public interface IdempotenciaService {
+
+	/**
+	 * Executa a requisição uma única vez por usuário e chave dentro da janela
+	 * configurada, na mesma transação em que a resposta é guardada. Repetições, inclusive
+	 * simultâneas, recebem a resposta original sem executar de novo. Respostas de erro
+	 * não são guardadas, para que o cliente possa corrigir e reenviar. A mesma chave com
+	 * outra {@code requisicao} é recusada.
+	 */
+	RespostaIdempotente executar(Long idUsuario, String chave, String requisicao,
+			Supplier<RespostaIdempotente> execucao);
+
+}
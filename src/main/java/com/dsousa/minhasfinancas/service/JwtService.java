@@ -4,12 +4,20 @@ import com.dsousa.minhasfinancas.model.entity.Usuario;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 
+import java.util.Optional;
+
 public interface JwtService {
 
 	String gerarToken(Usuario usuario);
 
+	String gerarRefreshToken(Usuario usuario);
+
 	Claims obterClaims(String token) throws ExpiredJwtException;
 
+	Optional<Claims> obterClaimsValidas(String token);
+
+	Optional<Claims> obterClaimsRefreshValidas(String token);
+
 	boolean isTokenValido(String token);
 
 	String obterLoginUsuario(String token);
@@ -0,0 +1,34 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.consulta.RelatorioRecorrencia;
+import com.dsousa.minhasfinancas.model.entity.LancamentoRecorrente;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LancamentoRecorrenteService {
+
+	/**
+	 * Grava o modelo e já materializa as ocorrências vencidas até o mês atual.
+	 */
+	LancamentoRecorrente salvar(LancamentoRecorrente recorrente);
+
+	/**
+	 * Remove o modelo; os lançamentos já gerados são mantidos.
+	 */
+	void deletar(LancamentoRecorrente recorrente);
+
+	Optional<LancamentoRecorrente> obterPorId(Long id);
+
+	List<LancamentoRecorrente> buscar(Long idUsuario);
+
+	/**
+	 * Gera, para todos os usuários, os lançamentos dos modelos com ocorrências até a
+	 * competência (aaaamm) informada, em blocos de modelos com uma transação e um lote de
+	 * inserts cada. Períodos já gerados não são repetidos.
+	 */
+	RelatorioRecorrencia materializar(int competencia);
+
+	void validar(LancamentoRecorrente recorrente);
+
+}
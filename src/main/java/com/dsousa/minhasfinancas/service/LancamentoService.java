@@ -1,26 +1,91 @@
 package com.dsousa.minhasfinancas.service;
 
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.exception.VersaoDesatualizadaException;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.Pagina;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioImportacao;
+import com.dsousa.minhasfinancas.model.consulta.ResumoSaldo;
 import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
 import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.importacao.LeitorExtrato;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LancamentoService {
 
 	Lancamento salvar(Lancamento lancamento);
 
+	/**
+	 * Grava o lançamento em um único UPDATE, sem lê-lo antes. Com a versão preenchida, a
+	 * escrita só ocorre se o registro ainda estiver nela, e a versão é avançada no
+	 * objeto; caso contrário lança {@link VersaoDesatualizadaException}.
+	 */
 	void atualizar(Lancamento lancamento);
 
 	void deletar(Lancamento lancamento);
 
-	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	/**
+	 * Primeiros lançamentos do filtro na ordenação escolhida, limitados ao tamanho máximo
+	 * de página; além disso é preciso paginar com {@link #buscarPagina}.
+	 */
+	List<LancamentoDTO> buscar(FiltroLancamento filtro);
 
+	Pagina<LancamentoDTO> buscarPagina(FiltroLancamento filtro, String cursor, Integer tamanho);
+
+	List<LancamentoDTO> pesquisar(Long idUsuario, String termo, Integer limite);
+
+	void exportar(FiltroLancamento filtro, Consumer<LancamentoDTO> consumidor);
+
+	/**
+	 * Escreve os lançamentos do filtro em CSV, lidos de um cursor JDBC, e retorna a
+	 * quantidade de linhas escritas. O escritor não é fechado.
+	 */
+	long exportarCsv(FiltroLancamento filtro, Writer escritor) throws IOException;
+
+	void validarFiltro(FiltroLancamento filtro);
+
+	/**
+	 * Grava as transações do extrato em lotes, cada um na sua própria transação; linhas
+	 * já importadas pelo usuário são contadas como duplicadas e ignoradas.
+	 */
+	RelatorioImportacao importar(Usuario usuario, LeitorExtrato leitor) throws IOException;
+
+	/**
+	 * Altera apenas o status do lançamento informado pelo id e pelo usuário, com a mesma
+	 * verificação de versão de {@link #atualizar(Lancamento)}.
+	 */
 	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 
+	/**
+	 * Grava lançamentos novos, de um ou mais usuários, com inserts agrupados pelo JDBC,
+	 * mantendo saldo, resumo mensal, pesquisa e cache. Precisa de uma transação em curso,
+	 * que define o tamanho do lote.
+	 */
+	void salvarEmLote(List<Lancamento> lancamentos);
+
+	/**
+	 * Altera o status de todos os lançamentos do usuário que atendem ao filtro em um
+	 * único UPDATE, retornando quantos mudaram.
+	 */
+	int atualizarStatusEmLote(FiltroLancamento filtro, StatusLancamento status);
+
+	/**
+	 * Remove todos os lançamentos do usuário que atendem ao filtro em um único DELETE,
+	 * retornando quantos foram removidos.
+	 */
+	int deletarEmLote(FiltroLancamento filtro);
+
 	Optional<Lancamento> obterPorId(Long id);
 
 	BigDecimal obterSaldoPorUsuario(Long id);
 
+	ResumoSaldo obterResumoSaldo(Long idUsuario, Integer ano, Integer mes);
+
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.dsousa.minhasfinancas.service;
+
+public interface LimiteLoginService {
+
+	void registrarTentativa(String email, String ip);
+
+}
@@ -0,0 +1,35 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public interface PesquisaLancamentoService {
+
+	/**
+	 * Ids dos lançamentos do usuário que podem conter o trecho de descrição informado, ou
+	 * vazio quando o próprio banco resolve a busca por índice.
+	 */
+	Optional<Set<Long>> obterCandidatos(Long idUsuario, String descricao);
+
+	/**
+	 * Ids dos lançamentos do usuário mais parecidos com o termo, do mais para o menos
+	 * relevante.
+	 */
+	List<Long> pesquisar(Long idUsuario, String termo, int limite);
+
+	void registrar(Lancamento lancamento);
+
+	void remover(Lancamento lancamento);
+
+	/**
+	 * Chamado antes de uma remoção em massa; os ids só são consultados pelos índices que
+	 * precisam deles.
+	 */
+	void removerTodos(Supplier<Collection<Long>> ids);
+
+}
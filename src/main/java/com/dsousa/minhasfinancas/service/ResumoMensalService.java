@@ -0,0 +1,40 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.consulta.ItemRelatorio;
+import com.dsousa.minhasfinancas.model.consulta.PontoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumoMensalService {
+
+	void antesDaEscrita(Lancamento lancamento);
+
+	void depoisDaEscrita(Lancamento lancamento);
+
+	/**
+	 * Variante de {@link #depoisDaEscrita(Lancamento)} que soma o lançamento como está
+	 * gravado.
+	 */
+	void depoisDaEscritaPorId(Long idLancamento);
+
+	void depoisDaEscritaEmLote(Collection<Lancamento> lancamentos);
+
+	/**
+	 * Aplica uma alteração em massa já agregada por período: retira os totais anteriores
+	 * e soma os novos.
+	 */
+	void ajustarEmLote(Long idUsuario, List<TotalPeriodo> retirados, List<TotalPeriodo> adicionados);
+
+	int reconstruir();
+
+	List<ItemRelatorio> obterRelatorioMensal(Long idUsuario, Integer ano);
+
+	List<ItemRelatorio> obterRelatorioAnual(Long idUsuario, Integer anoInicial, Integer anoFinal);
+
+	List<PontoSaldo> obterHistoricoSaldo(Long idUsuario, Integer anoInicial, Integer mesInicial, Integer anoFinal,
+			Integer mesFinal);
+
+}
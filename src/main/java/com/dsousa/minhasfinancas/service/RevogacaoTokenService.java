@@ -0,0 +1,11 @@
+package com.dsousa.minhasfinancas.service;
+
+import java.util.Date;
+
+public interface RevogacaoTokenService {
+
+	boolean revogar(String jti, Date expiracao);
+
+	boolean isRevogado(String jti);
+
+}
@@ -0,0 +1,19 @@
+package com.dsousa.minhasfinancas.service;
+
+import java.util.Date;
+
+/**
+ * Invalida todos os tokens emitidos para um usuário até o momento da revogação. Ainda não
+ * há chamador de {@link #revogar}; o filtro e a renovação já consultam
+ * {@link #isRevogado} para quando a troca de senha ou o bloqueio da conta passarem a
+ * usá-lo.
+ */
+public interface RevogacaoUsuarioService {
+
+	void revogar(Long idUsuario);
+
+	void reativar(Long idUsuario);
+
+	boolean isRevogado(Long idUsuario, Date emitidoEm);
+
+}
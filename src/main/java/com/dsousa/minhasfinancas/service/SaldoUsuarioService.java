@@ -0,0 +1,37 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.consulta.RelatorioReconciliacao;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface SaldoUsuarioService {
+
+	void antesDaEscrita(Lancamento lancamento);
+
+	void depoisDaEscrita(Lancamento lancamento);
+
+	/**
+	 * Variante de {@link #depoisDaEscrita(Lancamento)} para escritas que não conhecem o
+	 * lançamento inteiro: a contribuição é lida do registro gravado.
+	 */
+	void depoisDaEscritaPorId(Long idLancamento);
+
+	void antesDaEscritaEmLote(Long idUsuario);
+
+	void depoisDaEscritaEmLote(Long idUsuario, Collection<Lancamento> lancamentos);
+
+	void ajustarEmLote(Long idUsuario, List<TotalPeriodo> retirados, List<TotalPeriodo> adicionados);
+
+	void inicializar(Long idUsuario);
+
+	BigDecimal obterSaldo(Long idUsuario);
+
+	long obterVersao(Long idUsuario);
+
+	RelatorioReconciliacao reconciliar();
+
+}
@@ -0,0 +1,15 @@
+package com.dsousa.minhasfinancas.service;
+
+import java.util.function.Consumer;
+
+public interface SenhaService {
+
+	String criptografar(String senha);
+
+	boolean verificar(String senha, String senhaCriptografada);
+
+	boolean precisaAtualizar(String senhaCriptografada);
+
+	void recriptografarEmSegundoPlano(String senha, Consumer<String> aoConcluir);
+
+}
@@ -0,0 +1,56 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.Base64;
+import java.util.Optional;
+
+public class AssinadorJwt {
+
+	private final SignatureAlgorithm algoritmo;
+
+	private final Key chaveAssinatura;
+
+	private final Key chaveVerificacao;
+
+	private final JwtParser parser;
+
+	public AssinadorJwt(SignatureAlgorithm algoritmo, Key chaveAssinatura, Key chaveVerificacao) {
+		this.algoritmo = algoritmo;
+		this.chaveAssinatura = chaveAssinatura;
+		this.chaveVerificacao = chaveVerificacao;
+		this.parser = Jwts.parser().setSigningKey(chaveVerificacao);
+	}
+
+	public String assinar(JwtBuilder builder) {
+		return builder.signWith(algoritmo, chaveAssinatura).compact();
+	}
+
+	public Claims verificar(String token) {
+		Jws<Claims> jws = parser.parseClaimsJws(token);
+		if (!algoritmo.getValue().equals(jws.getHeader().getAlgorithm())) {
+			throw new UnsupportedJwtException("Algoritmo de assinatura não aceito: " + jws.getHeader().getAlgorithm());
+		}
+		return jws.getBody();
+	}
+
+	public SignatureAlgorithm getAlgoritmo() {
+		return algoritmo;
+	}
+
+	public Optional<String> obterChavePublica() {
+		if (chaveVerificacao instanceof PublicKey) {
+			return Optional.of(Base64.getEncoder().encodeToString(chaveVerificacao.getEncoded()));
+		}
+		return Optional.empty();
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.ItemCategoria;
+import com.dsousa.minhasfinancas.model.consulta.TotalCategoria;
+import com.dsousa.minhasfinancas.model.entity.Categoria;
+import com.dsousa.minhasfinancas.model.repository.CategoriaRepository;
+import com.dsousa.minhasfinancas.model.repository.LancamentoRepository;
+import com.dsousa.minhasfinancas.service.CategoriaService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * As categorias ativas ficam em um dicionário imutável, carregado com uma consulta e
+ * descartado ao fim de cada transação que altera categorias; quem as consulta recebe
+ * cópias, nunca as entidades compartilhadas. Em outras instâncias a alteração aparece
+ * quando o dicionário expira ({@code categoria.cache.expiracao-segundos}).
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoriaServiceImpl implements CategoriaService {
+
+	private static final String ATIVAS = "ativas";
+
+	private static final int TAMANHO_MAXIMO_DESCRICAO = 255;
+
+	private final CategoriaRepository repository;
+
+	private final LancamentoRepository lancamentoRepository;
+
+	private final MeterRegistry meterRegistry;
+
+	@Value("${categoria.cache.expiracao-segundos:600}")
+	private long expiracaoSegundos;
+
+	private LoadingCache<String, Map<Long, Categoria>> dicionario;
+
+	@PostConstruct
+	public void iniciar() {
+		dicionario = Caffeine.newBuilder()
+			.maximumSize(1)
+			.expireAfterWrite(expiracaoSegundos, TimeUnit.SECONDS)
+			.recordStats()
+			.build(chave -> carregarAtivas());
+		CaffeineCacheMetrics.monitor(meterRegistry, dicionario, "categoria.ativas");
+	}
+
+	@Override
+	@Transactional
+	public Categoria salvar(Categoria categoria) {
+		validar(categoria);
+		categoria.setId(null);
+		if (categoria.getAtiva() == null) {
+			categoria.setAtiva(true);
+		}
+		categoria.setDataCadastro(LocalDate.now());
+		Categoria salva = repository.save(categoria);
+		invalidar();
+		return salva;
+	}
+
+	@Override
+	@Transactional
+	public Categoria atualizar(Categoria categoria) {
+		Objects.requireNonNull(categoria.getId());
+		validar(categoria);
+		Categoria existente = repository.findById(categoria.getId())
+			.orElseThrow(() -> new RegraNegocioException("Categoria não encontrada na base de Dados."));
+		existente.setDescricao(categoria.getDescricao());
+		if (categoria.getAtiva() != null) {
+			existente.setAtiva(categoria.getAtiva());
+		}
+		invalidar();
+		return existente;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Categoria> obterPorId(Long id) {
+		return repository.findById(id);
+	}
+
+	@Override
+	public List<Categoria> obterAtivas() {
+		return dicionario.get(ATIVAS)
+			.values()
+			.stream()
+			.map(categoria -> categoria.toBuilder().build())
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public boolean isAtivas(Collection<Long> ids) {
+		return dicionario.get(ATIVAS).keySet().containsAll(ids);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ItemCategoria> obterRelatorioPorCategoria(Long idUsuario, Integer ano, Integer mes) {
+		if (ano == null || ano.toString().length() != 4) {
+			throw new RegraNegocioException("Informe um Ano válido.");
+		}
+		if (mes == null || mes < 1 || mes > 12) {
+			throw new RegraNegocioException("Informe um Mês válido.");
+		}
+		Map<Long, ItemCategoria> itens = new LinkedHashMap<>();
+		for (TotalCategoria total : lancamentoRepository.obterTotaisPorCategoria(idUsuario, ano * 100 + mes)) {
+			itens.computeIfAbsent(total.getIdCategoria(), id -> new ItemCategoria(id, total.getDescricao()))
+				.somar(total);
+		}
+		return new ArrayList<>(itens.values());
+	}
+
+	@Override
+	public void validar(Categoria categoria) {
+		if (categoria.getDescricao() == null || categoria.getDescricao().trim().isEmpty()
+				|| categoria.getDescricao().length() > TAMANHO_MAXIMO_DESCRICAO) {
+			throw new RegraNegocioException("Informe uma Descrição válida.");
+		}
+	}
+
+	private Map<Long, Categoria> carregarAtivas() {
+		Map<Long, Categoria> ativas = new LinkedHashMap<>();
+		for (Categoria categoria : repository.findByAtivaTrueOrderByDescricao()) {
+			ativas.put(categoria.getId(), categoria);
+		}
+		return Collections.unmodifiableMap(ativas);
+	}
+
+	/**
+	 * Descarta o dicionário só depois da transação, para que a próxima carga já leia a
+	 * alteração confirmada.
+	 */
+	private void invalidar() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			dicionario.invalidate(ATIVAS);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				dicionario.invalidate(ATIVAS);
+			}
+		});
+	}
+
+}
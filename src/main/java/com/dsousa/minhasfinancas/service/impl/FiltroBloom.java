@@ -0,0 +1,64 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class FiltroBloom {
+
+	private final AtomicLongArray bits;
+
+	private final long quantidadeBits;
+
+	private final int quantidadeHashes;
+
+	public FiltroBloom(long capacidadeEsperada, double taxaFalsoPositivo) {
+		long capacidade = Math.max(1, capacidadeEsperada);
+		long tamanho = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+		this.quantidadeBits = Math.max(64, ((tamanho + 63) / 64) * 64);
+		this.quantidadeHashes = Math.max(1, (int) Math.round((double) quantidadeBits / capacidade * Math.log(2)));
+		this.bits = new AtomicLongArray((int) (quantidadeBits / 64));
+	}
+
+	public void adicionar(String valor) {
+		long h1 = fnv1a(valor);
+		long h2 = misturar(h1);
+		for (int i = 0; i < quantidadeHashes; i++) {
+			long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+			int indice = (int) (posicao >>> 6);
+			long mascara = 1L << posicao;
+			long atual = bits.get(indice);
+			while ((atual & mascara) == 0 && !bits.compareAndSet(indice, atual, atual | mascara)) {
+				atual = bits.get(indice);
+			}
+		}
+	}
+
+	public boolean talvezContenha(String valor) {
+		long h1 = fnv1a(valor);
+		long h2 = misturar(h1);
+		for (int i = 0; i < quantidadeHashes; i++) {
+			long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+			if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static long fnv1a(String valor) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static long misturar(long valor) {
+		long z = valor + 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return (z ^ (z >>> 31)) | 1L;
+	}
+
+}
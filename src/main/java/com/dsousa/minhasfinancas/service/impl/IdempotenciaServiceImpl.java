@@ -0,0 +1,187 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.exception.ChaveIdempotenciaReutilizadaException;
+import com.dsousa.minhasfinancas.model.consulta.RespostaIdempotente;
+import com.dsousa.minhasfinancas.model.entity.RequisicaoIdempotente;
+import com.dsousa.minhasfinancas.model.entity.RequisicaoIdempotenteId;
+import com.dsousa.minhasfinancas.model.repository.RequisicaoIdempotenteRepository;
+import com.dsousa.minhasfinancas.service.IdempotenciaService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Guarda as respostas em um cache limitado na frente da tabela
+ * {@code requisicao_idempotente}. Repetições simultâneas da mesma chave nesta instância
+ * aguardam a primeira execução; entre instâncias, a chave primária da tabela garante que
+ * só uma das transações é confirmada.
+ */
+@Service
+@RequiredArgsConstructor
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private final RequisicaoIdempotenteRepository repository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final MeterRegistry meterRegistry;
+
+	@Value("${lancamento.idempotencia.janela-minutos:1440}")
+	private long janelaMinutos;
+
+	@Value("${lancamento.idempotencia.tamanho-maximo:10000}")
+	private long tamanhoMaximo;
+
+	private final ConcurrentMap<RequisicaoIdempotenteId, CompletableFuture<RequisicaoIdempotente>> emExecucao = new ConcurrentHashMap<>();
+
+	private Cache<RequisicaoIdempotenteId, RequisicaoIdempotente> respostas;
+
+	@PostConstruct
+	public void iniciar() {
+		respostas = Caffeine.newBuilder()
+			.maximumSize(tamanhoMaximo)
+			.expireAfterWrite(janelaMinutos, TimeUnit.MINUTES)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, respostas, "lancamento.idempotencia");
+	}
+
+	@Scheduled(fixedDelayString = "${lancamento.idempotencia.intervalo-limpeza-ms:3600000}",
+			initialDelayString = "${lancamento.idempotencia.intervalo-limpeza-ms:3600000}")
+	public void removerExpiradas() {
+		repository.removerAnteriores(inicioDaJanela());
+	}
+
+	@Override
+	public RespostaIdempotente executar(Long idUsuario, String chave, String requisicao,
+			Supplier<RespostaIdempotente> execucao) {
+		RequisicaoIdempotenteId id = new RequisicaoIdempotenteId(idUsuario, chave);
+		String hashRequisicao = hash(requisicao);
+		while (true) {
+			RequisicaoIdempotente armazenada = respostas.getIfPresent(id);
+			if (armazenada != null && isDentroDaJanela(armazenada)) {
+				return reproduzir(armazenada, hashRequisicao);
+			}
+			CompletableFuture<RequisicaoIdempotente> execucaoAtual = new CompletableFuture<>();
+			CompletableFuture<RequisicaoIdempotente> anterior = emExecucao.putIfAbsent(id, execucaoAtual);
+			if (anterior == null) {
+				try {
+					return executarUmaVez(id, hashRequisicao, execucao, execucaoAtual);
+				}
+				finally {
+					emExecucao.remove(id, execucaoAtual);
+				}
+			}
+			armazenada = anterior.join();
+			if (armazenada != null) {
+				return reproduzir(armazenada, hashRequisicao);
+			}
+		}
+	}
+
+	/**
+	 * Completa {@code execucaoAtual} com a resposta guardada, ou com {@code null} quando
+	 * nada foi guardado, para que as repetições em espera executem por conta própria.
+	 */
+	private RespostaIdempotente executarUmaVez(RequisicaoIdempotenteId id, String hashRequisicao,
+			Supplier<RespostaIdempotente> execucao, CompletableFuture<RequisicaoIdempotente> execucaoAtual) {
+		RequisicaoIdempotente guardada = null;
+		try {
+			Optional<RequisicaoIdempotente> existente = repository.findById(id);
+			if (existente.filter(this::isDentroDaJanela).isPresent()) {
+				guardada = lembrar(existente.get());
+				return reproduzir(guardada, hashRequisicao);
+			}
+			if (existente.isPresent()) {
+				repository.removerSeAnterior(id, inicioDaJanela());
+			}
+			RequisicaoIdempotente[] registrada = new RequisicaoIdempotente[1];
+			RespostaIdempotente resposta;
+			try {
+				resposta = transactionTemplate.execute(status -> {
+					RespostaIdempotente executada = execucao.get();
+					if (!executada.isSucesso()) {
+						status.setRollbackOnly();
+						return executada;
+					}
+					registrada[0] = repository.saveAndFlush(RequisicaoIdempotente.builder()
+						.id(id)
+						.hashRequisicao(hashRequisicao)
+						.status(executada.getStatus())
+						.corpo(executada.getCorpo())
+						.etag(executada.getEtag())
+						.dataCriacao(LocalDateTime.now())
+						.build());
+					return executada;
+				});
+			}
+			catch (DataIntegrityViolationException e) {
+				guardada = lembrar(repository.findById(id).orElseThrow(() -> e));
+				return reproduzir(guardada, hashRequisicao);
+			}
+			if (registrada[0] != null) {
+				guardada = lembrar(registrada[0]);
+			}
+			return resposta;
+		}
+		finally {
+			execucaoAtual.complete(guardada);
+		}
+	}
+
+	private RequisicaoIdempotente lembrar(RequisicaoIdempotente requisicao) {
+		respostas.put(requisicao.getId(), requisicao);
+		return requisicao;
+	}
+
+	private static RespostaIdempotente reproduzir(RequisicaoIdempotente requisicao, String hashRequisicao) {
+		if (!requisicao.getHashRequisicao().equals(hashRequisicao)) {
+			throw new ChaveIdempotenciaReutilizadaException(
+					"A chave de idempotência informada já foi usada em outra requisição.");
+		}
+		return new RespostaIdempotente(requisicao.getStatus(), requisicao.getCorpo(), requisicao.getEtag(), true);
+	}
+
+	private static String hash(String requisicao) {
+		byte[] hash = SHA256.get().digest(requisicao.getBytes(StandardCharsets.UTF_8));
+		return String.format("%064x", new BigInteger(1, hash));
+	}
+
+	private boolean isDentroDaJanela(RequisicaoIdempotente requisicao) {
+		return requisicao.getDataCriacao().isAfter(inicioDaJanela());
+	}
+
+	private LocalDateTime inicioDaJanela() {
+		return LocalDateTime.now().minusMinutes(janelaMinutos);
+	}
+
+}
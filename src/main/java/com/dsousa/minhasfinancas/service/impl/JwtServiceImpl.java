@@ -2,68 +2,177 @@ package com.dsousa.minhasfinancas.service.impl;
 
 import com.dsousa.minhasfinancas.model.entity.Usuario;
 import com.dsousa.minhasfinancas.service.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private static final String CLAIM_TIPO = "tipo";
+
+	private static final String TIPO_REFRESH = "refresh";
+
+	private final MeterRegistry meterRegistry;
+
+	private final AssinadorJwt assinador;
+
 	@Value("${jwt.expiracao::2400}")
 	private String expiracao;
 
-	@Value("${jwt.chave-assinatura::test}")
-	private String chaveAssinatura;
+	@Value("${jwt.expiracao-refresh:43200}")
+	private long expiracaoRefresh;
+
+	@Value("${jwt.cache.tamanho-maximo:10000}")
+	private long tamanhoMaximoCache;
+
+	private Cache<String, Claims> cacheClaims;
+
+	private long expiracaoMillis;
+
+	private long expiracaoRefreshMillis;
+
+	@PostConstruct
+	public void iniciar() {
+		expiracaoMillis = TimeUnit.MINUTES.toMillis(Long.valueOf(expiracao));
+		expiracaoRefreshMillis = TimeUnit.MINUTES.toMillis(expiracaoRefresh);
+		cacheClaims = Caffeine.newBuilder()
+			.maximumSize(tamanhoMaximoCache)
+			.expireAfter(new ExpiracaoDoToken())
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cacheClaims, "jwt.claims");
+	}
 
 	@Override
 	public String gerarToken(Usuario usuario) {
-		long exp = Long.valueOf(expiracao);
-		LocalDateTime dataHoraExpiracao = LocalDateTime.now().plusMinutes(exp);
-		Instant instant = dataHoraExpiracao.atZone(ZoneId.systemDefault()).toInstant();
-		java.util.Date data = Date.from(instant);
-		String horaExpiracaoToken = dataHoraExpiracao.toLocalTime().format(DateTimeFormatter.ofPattern("HH:mm"));
-		return Jwts.builder()
-			.setExpiration(data)
-			.setSubject(usuario.getEmail())
-			.claim("userid", usuario.getId())
-			.claim("nome", usuario.getNome())
-			.claim("horaExpiracao", horaExpiracaoToken)
-			.signWith(SignatureAlgorithm.HS512, chaveAssinatura)
-			.compact();
+		return assinador.assinar(criarToken(usuario, expiracaoMillis));
+	}
+
+	@Override
+	public String gerarRefreshToken(Usuario usuario) {
+		return assinador.assinar(criarToken(usuario, expiracaoRefreshMillis).claim(CLAIM_TIPO, TIPO_REFRESH));
 	}
 
 	@Override
 	public Claims obterClaims(String token) throws ExpiredJwtException {
-		return Jwts.parser().setSigningKey(chaveAssinatura).parseClaimsJws(token).getBody();
+		return assinador.verificar(token);
 	}
 
 	@Override
-	public boolean isTokenValido(String token) {
+	public Optional<Claims> obterClaimsValidas(String token) {
+		String chave = resumo(token);
+		Claims claims = cacheClaims.getIfPresent(chave);
+		if (claims != null) {
+			return Optional.of(claims);
+		}
+		try {
+			claims = obterClaims(token);
+		}
+		catch (JwtException | IllegalArgumentException e) {
+			return Optional.empty();
+		}
+		if (isExpirado(claims) || isRefresh(claims)) {
+			return Optional.empty();
+		}
+		cacheClaims.put(chave, claims);
+		return Optional.of(claims);
+	}
+
+	@Override
+	public Optional<Claims> obterClaimsRefreshValidas(String token) {
 		try {
 			Claims claims = obterClaims(token);
-			java.util.Date dataEx = claims.getExpiration();
-			LocalDateTime dataExpiracao = dataEx.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
-			boolean dataHoraAtualIsAfterDataExpiracao = LocalDateTime.now().isAfter(dataExpiracao);
-			return !dataHoraAtualIsAfterDataExpiracao;
+			return isExpirado(claims) || !isRefresh(claims) ? Optional.empty() : Optional.of(claims);
 		}
-		catch (ExpiredJwtException e) {
-			return false;
+		catch (JwtException | IllegalArgumentException e) {
+			return Optional.empty();
 		}
 	}
 
+	@Override
+	public boolean isTokenValido(String token) {
+		return obterClaimsValidas(token).isPresent();
+	}
+
 	@Override
 	public String obterLoginUsuario(String token) {
 		Claims claims = obterClaims(token);
 		return claims.getSubject();
 	}
 
+	private JwtBuilder criarToken(Usuario usuario, long validadeMillis) {
+		long agora = System.currentTimeMillis();
+		return Jwts.builder()
+			.setId(UUID.randomUUID().toString())
+			.setIssuedAt(new Date(agora))
+			.setExpiration(new Date(agora + validadeMillis))
+			.setSubject(usuario.getEmail())
+			.claim("userid", usuario.getId())
+			.claim("nome", usuario.getNome());
+	}
+
+	private boolean isExpirado(Claims claims) {
+		return claims.getExpiration() == null || !claims.getExpiration().after(new Date());
+	}
+
+	private boolean isRefresh(Claims claims) {
+		return TIPO_REFRESH.equals(claims.get(CLAIM_TIPO));
+	}
+
+	private String resumo(String token) {
+		byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+		return Base64.getEncoder().withoutPadding().encodeToString(hash);
+	}
+
+	private static class ExpiracaoDoToken implements Expiry<String, Claims> {
+
+		@Override
+		public long expireAfterCreate(String chave, Claims claims, long tempoAtual) {
+			long restanteMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMillis, 0));
+		}
+
+		@Override
+		public long expireAfterUpdate(String chave, Claims claims, long tempoAtual, long duracaoAtual) {
+			return duracaoAtual;
+		}
+
+		@Override
+		public long expireAfterRead(String chave, Claims claims, long tempoAtual, long duracaoAtual) {
+			return duracaoAtual;
+		}
+
+	}
+
 }
@@ -0,0 +1,237 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioRecorrencia;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.dsousa.minhasfinancas.model.enums.Periodicidade;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.repository.LancamentoRecorrenteRepository;
+import com.dsousa.minhasfinancas.service.LancamentoRecorrenteService;
+import com.dsousa.minhasfinancas.service.LancamentoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class LancamentoRecorrenteServiceImpl implements LancamentoRecorrenteService {
+
+	private static final int TAMANHO_MAXIMO_DESCRICAO = 100;
+
+	private final LancamentoRecorrenteRepository repository;
+
+	private final LancamentoService lancamentoService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final Counter lancamentosCriados;
+
+	private final Timer duracao;
+
+	@Value("${lancamento.recorrencia.tamanho-lote:500}")
+	private int tamanhoLote;
+
+	@Value("${lancamento.recorrencia.maximo-ao-salvar:12}")
+	private int maximoOcorrenciasAoSalvar;
+
+	public LancamentoRecorrenteServiceImpl(LancamentoRecorrenteRepository repository,
+			LancamentoService lancamentoService, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+		this.repository = repository;
+		this.lancamentoService = lancamentoService;
+		this.transactionTemplate = transactionTemplate;
+		this.lancamentosCriados = meterRegistry.counter("lancamento.recorrencia.criados");
+		this.duracao = meterRegistry.timer("lancamento.recorrencia.duracao");
+	}
+
+	/**
+	 * Gera na própria requisição no máximo
+	 * {@code lancamento.recorrencia.maximo-ao-salvar} ocorrências vencidas; as demais
+	 * ficam a partir da próxima competência do modelo para o agendamento.
+	 */
+	@Override
+	@Transactional
+	public LancamentoRecorrente salvar(LancamentoRecorrente recorrente) {
+		validar(recorrente);
+		recorrente.setProximaCompetencia(recorrente.getCompetenciaInicial());
+		LancamentoRecorrente salvo = repository.save(recorrente);
+		List<Lancamento> ocorrencias = gerarOcorrencias(salvo, competenciaAtual(), maximoOcorrenciasAoSalvar);
+		if (!ocorrencias.isEmpty()) {
+			lancamentoService.salvarEmLote(ocorrencias);
+		}
+		return salvo;
+	}
+
+	@Override
+	@Transactional
+	public void deletar(LancamentoRecorrente recorrente) {
+		repository.delete(recorrente);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<LancamentoRecorrente> obterPorId(Long id) {
+		return repository.findById(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoRecorrente> buscar(Long idUsuario) {
+		return repository.findByUsuarioIdOrderById(idUsuario);
+	}
+
+	@Override
+	public RelatorioRecorrencia materializar(int competencia) {
+		long inicio = System.nanoTime();
+		int modelos = 0;
+		int criados = 0;
+		long idApos = 0L;
+		while (true) {
+			long ultimoId = idApos;
+			Lote lote = transactionTemplate.execute(status -> materializarLote(competencia, ultimoId));
+			if (lote.modelos == 0) {
+				break;
+			}
+			modelos += lote.modelos;
+			criados += lote.criados;
+			idApos = lote.ultimoId;
+			lancamentosCriados.increment(lote.criados);
+		}
+		long nanos = System.nanoTime() - inicio;
+		duracao.record(nanos, TimeUnit.NANOSECONDS);
+		RelatorioRecorrencia relatorio = new RelatorioRecorrencia(modelos, criados,
+				TimeUnit.NANOSECONDS.toMillis(nanos));
+		log.info("Recorrências até {}: {} lançamentos criados a partir de {} modelos em {} ms ({} lançamentos/s).",
+				competencia, relatorio.getLancamentosCriados(), relatorio.getModelosProcessados(),
+				relatorio.getDuracaoMillis(), String.format("%.1f", relatorio.getLancamentosPorSegundo()));
+		return relatorio;
+	}
+
+	@Scheduled(cron = "${lancamento.recorrencia.cron:0 30 2 * * *}")
+	public void materializarAgendado() {
+		materializar(competenciaAtual());
+	}
+
+	private Lote materializarLote(int competencia, long idApos) {
+		List<LancamentoRecorrente> pendentes = repository.obterPendentes(competencia, idApos,
+				PageRequest.of(0, tamanhoLote));
+		if (pendentes.isEmpty()) {
+			return new Lote(0, 0, idApos);
+		}
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for (LancamentoRecorrente recorrente : pendentes) {
+			lancamentos.addAll(gerarOcorrencias(recorrente, competencia, Integer.MAX_VALUE));
+		}
+		lancamentoService.salvarEmLote(lancamentos);
+		return new Lote(pendentes.size(), lancamentos.size(), pendentes.get(pendentes.size() - 1).getId());
+	}
+
+	/**
+	 * Cria até {@code maximo} lançamentos do modelo da próxima competência pendente até
+	 * {@code competencia} (ou até o fim do modelo) e avança a próxima competência, que é
+	 * gravada junto com eles.
+	 */
+	private static List<Lancamento> gerarOcorrencias(LancamentoRecorrente recorrente, int competencia, int maximo) {
+		Integer competenciaFinal = recorrente.getCompetenciaFinal();
+		int limite = competenciaFinal == null ? competencia : Math.min(competencia, competenciaFinal);
+		int proxima = recorrente.getProximaCompetencia();
+		if (proxima > limite) {
+			return Collections.emptyList();
+		}
+		List<Lancamento> ocorrencias = new ArrayList<>();
+		LocalDate hoje = LocalDate.now();
+		Periodicidade periodicidade = recorrente.getPeriodicidade();
+		for (; proxima <= limite && ocorrencias.size() < maximo; proxima = periodicidade.proxima(proxima)) {
+			ocorrencias.add(Lancamento.builder()
+				.descricao(recorrente.getDescricao())
+				.ano(proxima / 100)
+				.mes(proxima % 100)
+				.valor(recorrente.getValor())
+				.tipo(recorrente.getTipo())
+				.status(StatusLancamento.PENDENTE)
+				.usuario(recorrente.getUsuario())
+				.dataCadastro(hoje)
+				.idRecorrente(recorrente.getId())
+				.build());
+		}
+		recorrente.setProximaCompetencia(proxima);
+		return ocorrencias;
+	}
+
+	private static int competenciaAtual() {
+		YearMonth atual = YearMonth.now();
+		return atual.getYear() * 100 + atual.getMonthValue();
+	}
+
+	@Override
+	public void validar(LancamentoRecorrente recorrente) {
+		if (recorrente.getDescricao() == null || recorrente.getDescricao().trim().isEmpty()
+				|| recorrente.getDescricao().length() > TAMANHO_MAXIMO_DESCRICAO) {
+			throw new RegraNegocioException("Informe uma Descrição válida.");
+		}
+		if (!isMesValido(recorrente.getMesInicial())
+				|| (recorrente.getMesFinal() != null && !isMesValido(recorrente.getMesFinal()))) {
+			throw new RegraNegocioException("Informe um Mês válido.");
+		}
+		if (!isAnoValido(recorrente.getAnoInicial())
+				|| (recorrente.getAnoFinal() != null && !isAnoValido(recorrente.getAnoFinal()))) {
+			throw new RegraNegocioException("Informe um Ano válido.");
+		}
+		if ((recorrente.getAnoFinal() == null) != (recorrente.getMesFinal() == null)) {
+			throw new RegraNegocioException("Informe o Ano e o Mês finais da recorrência.");
+		}
+		if (recorrente.getCompetenciaFinal() != null
+				&& recorrente.getCompetenciaFinal() < recorrente.getCompetenciaInicial()) {
+			throw new RegraNegocioException("Informe um período válido.");
+		}
+		if (recorrente.getUsuario() == null || recorrente.getUsuario().getId() == null) {
+			throw new RegraNegocioException("Informe um Usuário.");
+		}
+		if (recorrente.getValor() == null || recorrente.getValor().compareTo(BigDecimal.ZERO) < 1) {
+			throw new RegraNegocioException("Informe um Valor válido.");
+		}
+		if (recorrente.getTipo() == null) {
+			throw new RegraNegocioException("Informe um tipo de Lançamento.");
+		}
+		if (recorrente.getPeriodicidade() == null) {
+			throw new RegraNegocioException("Informe uma periodicidade válida.");
+		}
+	}
+
+	private static boolean isMesValido(Integer mes) {
+		return mes != null && mes >= 1 && mes <= 12;
+	}
+
+	private static boolean isAnoValido(Integer ano) {
+		return ano != null && ano.toString().length() == 4;
+	}
+
+	@AllArgsConstructor
+	private static final class Lote {
+
+		private final int modelos;
+
+		private final int criados;
+
+		private final long ultimoId;
+
+	}
+
+}
@@ -1,35 +1,165 @@
 package com.dsousa.minhasfinancas.service.impl;
 
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
 import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.exception.VersaoDesatualizadaException;
+import com.dsousa.minhasfinancas.model.consulta.CursorLancamento;
+import com.dsousa.minhasfinancas.model.consulta.ErroImportacao;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.Pagina;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioImportacao;
+import com.dsousa.minhasfinancas.model.consulta.ResumoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Categoria;
 import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
 import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
-import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.exportacao.EscritorCsvLancamento;
+import com.dsousa.minhasfinancas.model.importacao.LeitorExtrato;
+import com.dsousa.minhasfinancas.model.importacao.LinhaExtrato;
 import com.dsousa.minhasfinancas.model.repository.LancamentoRepository;
+import com.dsousa.minhasfinancas.service.CategoriaService;
 import com.dsousa.minhasfinancas.service.LancamentoService;
+import com.dsousa.minhasfinancas.service.PesquisaLancamentoService;
+import com.dsousa.minhasfinancas.service.ResumoMensalService;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import java.io.IOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class LancamentoServiceImpl implements LancamentoService {
 
+	private static final int TAMANHO_MAXIMO_DESCRICAO = 100;
+
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
 	private final LancamentoRepository repository;
 
+	private final SaldoUsuarioService saldoUsuarioService;
+
+	private final ResumoMensalService resumoMensalService;
+
+	private final PesquisaLancamentoService pesquisaLancamentoService;
+
+	private final CategoriaService categoriaService;
+
+	private final MeterRegistry meterRegistry;
+
+	private final TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Value("${lancamento.pagina.tamanho-padrao:50}")
+	private int tamanhoPadraoPagina;
+
+	@Value("${lancamento.pagina.tamanho-maximo:500}")
+	private int tamanhoMaximoPagina;
+
+	@Value("${lancamento.exportacao.tamanho-lote:500}")
+	private int tamanhoLoteExportacao;
+
+	@Value("${lancamento.importacao.tamanho-lote:500}")
+	private int tamanhoLoteImportacao;
+
+	@Value("${lancamento.importacao.maximo-erros:100}")
+	private int maximoErrosImportacao;
+
+	@Value("${lancamento.cache.maximo-lancamentos:100000}")
+	private long maximoLancamentosCache;
+
+	@Value("${lancamento.cache.maximo-por-consulta:5000}")
+	private int maximoLancamentosPorConsulta;
+
+	@Value("${lancamento.cache.expiracao-segundos:300}")
+	private long expiracaoCacheSegundos;
+
+	private final AtomicLong sequenciaGeracoes = new AtomicLong();
+
+	/**
+	 * Geração atual das consultas de cada usuário. Cada geração recebe um valor novo da
+	 * sequência, de modo que uma geração descartada e recriada nunca volta a alcançar
+	 * entradas antigas; usuários sem acesso por um período de expiração do cache deixam o
+	 * mapa.
+	 */
+	private Cache<Long, Long> geracoes;
+
+	private Cache<ChaveConsulta, List<LancamentoDTO>> cacheConsultas;
+
+	@PostConstruct
+	public void iniciar() {
+		geracoes = Caffeine.newBuilder().expireAfterAccess(expiracaoCacheSegundos, TimeUnit.SECONDS).build();
+		cacheConsultas = Caffeine.newBuilder()
+			.maximumWeight(maximoLancamentosCache)
+			.<ChaveConsulta, List<LancamentoDTO>>weigher((chave, lancamentos) -> Math.max(1, lancamentos.size()))
+			.expireAfterWrite(expiracaoCacheSegundos, TimeUnit.SECONDS)
+			.recordStats()
+			.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cacheConsultas, "lancamento.consultas");
+	}
+
 	@Override
 	@Transactional
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		saldoUsuarioService.antesDaEscrita(lancamento);
+		resumoMensalService.antesDaEscrita(lancamento);
+		Lancamento lancamentoSalvo = repository.save(lancamento);
+		saldoUsuarioService.depoisDaEscrita(lancamentoSalvo);
+		resumoMensalService.depoisDaEscrita(lancamentoSalvo);
+		pesquisaLancamentoService.registrar(lancamentoSalvo);
+		invalidarConsultas(lancamento.getUsuario().getId());
+		return lancamentoSalvo;
 	}
 
 	@Override
@@ -37,44 +167,259 @@ public class LancamentoServiceImpl implements LancamentoService {
 	public void atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		repository.save(lancamento);
+		saldoUsuarioService.antesDaEscrita(lancamento);
+		resumoMensalService.antesDaEscrita(lancamento);
+		if (repository.atualizar(lancamento) == 0) {
+			throw naoAtualizado(lancamento);
+		}
+		if (lancamento.getCategorias() != null) {
+			repository.substituirCategorias(lancamento.getId(),
+					lancamento.getCategorias().stream().map(Categoria::getId).collect(Collectors.toSet()));
+		}
+		avancarVersao(lancamento);
+		saldoUsuarioService.depoisDaEscrita(lancamento);
+		resumoMensalService.depoisDaEscrita(lancamento);
+		pesquisaLancamentoService.registrar(lancamento);
+		invalidarConsultas(lancamento.getUsuario().getId());
 	}
 
 	@Override
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		saldoUsuarioService.antesDaEscrita(lancamento);
+		resumoMensalService.antesDaEscrita(lancamento);
 		repository.delete(lancamento);
+		pesquisaLancamentoService.remover(lancamento);
+		invalidarConsultas(lancamento.getUsuario().getId());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoDTO> buscar(FiltroLancamento filtro) {
+		validarFiltro(filtro);
+		FiltroLancamento normalizado = filtro.toBuilder()
+			.descricao(filtro.getDescricao() == null || filtro.getDescricao().isEmpty() ? null
+					: filtro.getDescricao().toLowerCase(Locale.ROOT))
+			.ordenacao(filtro.getOrdenacao())
+			.ids(null)
+			.build();
+		ChaveConsulta chave = new ChaveConsulta(obterGeracao(filtro.getIdUsuario()), normalizado);
+		AtomicReference<List<LancamentoDTO>> naoArmazenado = new AtomicReference<>();
+		List<LancamentoDTO> lancamentos = cacheConsultas.get(chave, c -> {
+			FiltroLancamento consulta = c.getFiltro().toBuilder().build();
+			if (!restringirPorDescricao(consulta)) {
+				return Collections.emptyList();
+			}
+			List<LancamentoDTO> resultado = Collections
+				.unmodifiableList(repository.buscarApos(consulta, null, tamanhoMaximoPagina));
+			if (resultado.size() > maximoLancamentosPorConsulta) {
+				naoArmazenado.set(resultado);
+				return null;
+			}
+			return resultado;
+		});
+		return lancamentos != null ? lancamentos : naoArmazenado.get();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Pagina<LancamentoDTO> buscarPagina(FiltroLancamento filtro, String cursor, Integer tamanho) {
+		int limite = tamanho == null ? tamanhoPadraoPagina : Math.min(tamanho, tamanhoMaximoPagina);
+		if (limite < 1) {
+			throw new RegraNegocioException("Informe um tamanho de página válido.");
+		}
+		validarFiltro(filtro);
+		CursorLancamento posicao = cursor == null || cursor.isEmpty() ? null
+				: CursorLancamento.decodificar(cursor, filtro.getOrdenacao());
+		if (!restringirPorDescricao(filtro)) {
+			return new Pagina<>(Collections.emptyList(), null);
+		}
+		List<LancamentoDTO> lancamentos = repository.buscarApos(filtro, posicao, limite + 1);
+		if (lancamentos.size() <= limite) {
+			return new Pagina<>(lancamentos, null);
+		}
+		List<LancamentoDTO> itens = lancamentos.subList(0, limite);
+		return new Pagina<>(itens, CursorLancamento.de(itens.get(limite - 1), filtro.getOrdenacao()).codificar());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoDTO> pesquisar(Long idUsuario, String termo, Integer limite) {
+		if (termo == null || termo.trim().isEmpty()) {
+			throw new RegraNegocioException("Informe um termo para a pesquisa.");
+		}
+		int tamanho = limite == null ? tamanhoPadraoPagina : Math.min(Math.max(limite, 1), tamanhoMaximoPagina);
+		List<Long> ids = pesquisaLancamentoService.pesquisar(idUsuario, termo.trim(), tamanho);
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(idUsuario).ids(new HashSet<>(ids)).build();
+		Map<Long, LancamentoDTO> lancamentos = repository.buscarApos(filtro, null, ids.size())
+			.stream()
+			.collect(Collectors.toMap(LancamentoDTO::getId, Function.identity()));
+		return ids.stream().map(lancamentos::get).filter(Objects::nonNull).collect(Collectors.toList());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportar(FiltroLancamento filtro, Consumer<LancamentoDTO> consumidor) {
+		validarFiltro(filtro);
+		if (restringirPorDescricao(filtro)) {
+			repository.percorrer(filtro, tamanhoLoteExportacao, consumidor);
+		}
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-		return repository.findAll(Example.of(lancamentoFiltro,
-				ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING)));
+	public long exportarCsv(FiltroLancamento filtro, Writer escritor) throws IOException {
+		validarFiltro(filtro);
+		EscritorCsvLancamento csv = new EscritorCsvLancamento(escritor);
+		csv.escreverCabecalho();
+		if (restringirPorDescricao(filtro)) {
+			repository.percorrerColunas(filtro, tamanhoLoteExportacao, csv);
+		}
+		return csv.getLinhas();
+	}
+
+	@Override
+	public RelatorioImportacao importar(Usuario usuario, LeitorExtrato leitor) throws IOException {
+		RelatorioImportacao relatorio = new RelatorioImportacao();
+		Map<String, Integer> ocorrencias = new HashMap<>();
+		Map<String, Lancamento> lote = new LinkedHashMap<>();
+		LinhaExtrato linha;
+		while ((linha = leitor.proxima()) != null) {
+			if (!linha.isValida()) {
+				rejeitar(relatorio, linha.getNumero(), linha.getErro());
+				continue;
+			}
+			Lancamento lancamento = Lancamento.builder()
+				.descricao(linha.getDescricao())
+				.ano(linha.getAno())
+				.mes(linha.getMes())
+				.valor(linha.getValor())
+				.tipo(linha.getTipo())
+				.status(StatusLancamento.PENDENTE)
+				.usuario(usuario)
+				.hashConteudo(calcularHash(linha, ocorrencias))
+				.build();
+			try {
+				validar(lancamento);
+			}
+			catch (RegraNegocioException e) {
+				rejeitar(relatorio, linha.getNumero(), e.getMessage());
+				continue;
+			}
+			if (lote.putIfAbsent(lancamento.getHashConteudo(), lancamento) != null) {
+				relatorio.setDuplicados(relatorio.getDuplicados() + 1);
+			}
+			else if (lote.size() >= tamanhoLoteImportacao) {
+				gravarLote(usuario.getId(), lote, relatorio);
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			gravarLote(usuario.getId(), lote, relatorio);
+		}
+		return relatorio;
 	}
 
 	@Override
 	@Transactional
 	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
+		Objects.requireNonNull(lancamento.getId());
+		Objects.requireNonNull(status);
+		saldoUsuarioService.antesDaEscrita(lancamento);
+		resumoMensalService.antesDaEscrita(lancamento);
+		if (repository.atualizarStatus(lancamento, status) == 0) {
+			throw naoAtualizado(lancamento);
+		}
 		lancamento.setStatus(status);
-		atualizar(lancamento);
+		avancarVersao(lancamento);
+		saldoUsuarioService.depoisDaEscritaPorId(lancamento.getId());
+		resumoMensalService.depoisDaEscritaPorId(lancamento.getId());
+		invalidarConsultas(lancamento.getUsuario().getId());
+	}
+
+	/**
+	 * Só é chamado quando o UPDATE condicional não alterou nada, para distinguir um
+	 * lançamento inexistente de uma versão desatualizada.
+	 */
+	private RuntimeException naoAtualizado(Lancamento lancamento) {
+		if (lancamento.getVersao() != null
+				&& repository.existsByIdAndUsuarioId(lancamento.getId(), lancamento.getUsuario().getId())) {
+			return new VersaoDesatualizadaException(
+					"O lançamento foi alterado por outra requisição. Recarregue-o e tente novamente.");
+		}
+		return new RegraNegocioException("Lancamento não encontrado na base de Dados.");
+	}
+
+	private static void avancarVersao(Lancamento lancamento) {
+		if (lancamento.getVersao() != null) {
+			lancamento.setVersao(lancamento.getVersao() + 1);
+		}
+	}
+
+	@Override
+	@Transactional
+	public int atualizarStatusEmLote(FiltroLancamento filtro, StatusLancamento status) {
+		Objects.requireNonNull(status);
+		validarFiltroEmLote(filtro);
+		if (!restringirPorDescricao(filtro)) {
+			return 0;
+		}
+		saldoUsuarioService.antesDaEscritaEmLote(filtro.getIdUsuario());
+		List<TotalPeriodo> anteriores = repository.obterTotaisPorPeriodo(filtro);
+		if (anteriores.isEmpty()) {
+			return 0;
+		}
+		int alterados = repository.atualizarStatus(filtro, status);
+		List<TotalPeriodo> atuais = anteriores.stream()
+			.map(total -> new TotalPeriodo(total.getAno(), total.getMes(), total.getTipo(), status, total.getTotal(),
+					total.getQuantidade()))
+			.collect(Collectors.toList());
+		saldoUsuarioService.ajustarEmLote(filtro.getIdUsuario(), anteriores, atuais);
+		resumoMensalService.ajustarEmLote(filtro.getIdUsuario(), anteriores, atuais);
+		invalidarConsultas(filtro.getIdUsuario());
+		return alterados;
+	}
+
+	@Override
+	@Transactional
+	public int deletarEmLote(FiltroLancamento filtro) {
+		validarFiltroEmLote(filtro);
+		if (!restringirPorDescricao(filtro)) {
+			return 0;
+		}
+		saldoUsuarioService.antesDaEscritaEmLote(filtro.getIdUsuario());
+		List<TotalPeriodo> anteriores = repository.obterTotaisPorPeriodo(filtro);
+		if (anteriores.isEmpty()) {
+			return 0;
+		}
+		pesquisaLancamentoService.removerTodos(() -> repository.obterIds(filtro));
+		int removidos = repository.deletar(filtro);
+		saldoUsuarioService.ajustarEmLote(filtro.getIdUsuario(), anteriores, Collections.emptyList());
+		resumoMensalService.ajustarEmLote(filtro.getIdUsuario(), anteriores, Collections.emptyList());
+		invalidarConsultas(filtro.getIdUsuario());
+		return removidos;
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.RECEITA,
-				StatusLancamento.EFETIVADO);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.DESPESA,
-				StatusLancamento.EFETIVADO);
-		if (receitas == null) {
-			receitas = BigDecimal.ZERO;
+		return saldoUsuarioService.obterSaldo(id);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ResumoSaldo obterResumoSaldo(Long idUsuario, Integer ano, Integer mes) {
+		if (mes != null && ano == null) {
+			throw new RegraNegocioException("Informe o Ano ao filtrar por Mês.");
 		}
-		if (despesas == null) {
-			despesas = BigDecimal.ZERO;
+		if (mes != null && (mes < 1 || mes > 12)) {
+			throw new RegraNegocioException("Informe um Mês válido.");
 		}
-		return receitas.subtract(despesas);
+		return ResumoSaldo.de(ano, mes, repository.obterTotaisPorTipoEStatus(idUsuario, ano, mes));
 	}
 
 	@Override
@@ -82,8 +427,156 @@ public class LancamentoServiceImpl implements LancamentoService {
 		return repository.findById(id);
 	}
 
+	/**
+	 * Grava o lote com inserts agrupados pelo JDBC (os ids vêm do sequence em blocos) e
+	 * atualiza saldo e resumo mensal uma vez por lote, sob a mesma trava de saldo das
+	 * escritas individuais.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void salvarEmLote(List<Lancamento> lancamentos) {
+		Map<Long, List<Lancamento>> porUsuario = lancamentos.stream()
+			.collect(Collectors.groupingBy(lancamento -> lancamento.getUsuario().getId(), TreeMap::new,
+					Collectors.toList()));
+		porUsuario.keySet().forEach(saldoUsuarioService::antesDaEscritaEmLote);
+		gravarBloqueados(porUsuario);
+	}
+
+	/**
+	 * Grava os lançamentos de usuários cujos saldos já foram bloqueados nesta transação.
+	 */
+	private void gravarBloqueados(Map<Long, List<Lancamento>> porUsuario) {
+		List<Lancamento> lancamentos = porUsuario.values().stream().flatMap(List::stream).collect(Collectors.toList());
+		repository.saveAll(lancamentos);
+		repository.flush();
+		porUsuario.forEach(saldoUsuarioService::depoisDaEscritaEmLote);
+		resumoMensalService.depoisDaEscritaEmLote(lancamentos);
+		lancamentos.forEach(pesquisaLancamentoService::registrar);
+		porUsuario.keySet().forEach(this::invalidarConsultas);
+	}
+
+	private void gravarLote(Long idUsuario, Map<String, Lancamento> lote, RelatorioImportacao relatorio) {
+		transactionTemplate.execute(status -> {
+			saldoUsuarioService.antesDaEscritaEmLote(idUsuario);
+			Set<String> existentes = repository.obterHashesExistentes(idUsuario, lote.keySet());
+			List<Lancamento> novos = lote.values()
+				.stream()
+				.filter(lancamento -> !existentes.contains(lancamento.getHashConteudo()))
+				.collect(Collectors.toList());
+			gravarBloqueados(Collections.singletonMap(idUsuario, novos));
+			relatorio.setImportados(relatorio.getImportados() + novos.size());
+			relatorio.setDuplicados(relatorio.getDuplicados() + existentes.size());
+			return null;
+		});
+		// Com open-in-view o EntityManager sobrevive à transação do lote. Sem limpá-lo,
+		// cada lançamento importado continuaria gerenciado até o fim da requisição.
+		entityManager.clear();
+	}
+
+	/**
+	 * Usa o FITID do banco quando existe; senão, o conteúdo da linha mais a sua
+	 * ocorrência no arquivo, para que duas compras iguais no mesmo extrato não se anulem
+	 * e um extrato reenviado gere os mesmos hashes.
+	 */
+	private String calcularHash(LinhaExtrato linha, Map<String, Integer> ocorrencias) {
+		String conteudo;
+		if (linha.getIdentificador() != null) {
+			conteudo = "fitid|" + linha.getIdentificador();
+		}
+		else {
+			conteudo = linha.getAno() + "|" + linha.getMes() + "|" + linha.getTipo() + "|"
+					+ linha.getValor().toPlainString() + "|"
+					+ (linha.getDescricao() == null ? "" : linha.getDescricao().toLowerCase(Locale.ROOT));
+			conteudo += "|" + ocorrencias.merge(conteudo, 1, Integer::sum);
+		}
+		byte[] hash = SHA256.get().digest(conteudo.getBytes(StandardCharsets.UTF_8));
+		return String.format("%064x", new BigInteger(1, hash));
+	}
+
+	private void rejeitar(RelatorioImportacao relatorio, int linha, String mensagem) {
+		relatorio.setRejeitados(relatorio.getRejeitados() + 1);
+		if (relatorio.getErros().size() < maximoErrosImportacao) {
+			relatorio.getErros().add(new ErroImportacao(linha, mensagem));
+		}
+	}
+
+	private long obterGeracao(Long idUsuario) {
+		return geracoes.get(idUsuario, id -> sequenciaGeracoes.incrementAndGet());
+	}
+
+	/**
+	 * Descarta a geração do usuário só depois que a transação termina: uma consulta que
+	 * obtenha a geração nova já enxerga a escrita confirmada, e as entradas antigas
+	 * deixam de ser alcançadas até serem removidas por peso ou tempo.
+	 */
+	private void invalidarConsultas(Long idUsuario) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			geracoes.invalidate(idUsuario);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				geracoes.invalidate(idUsuario);
+			}
+		});
+	}
+
+	/**
+	 * Restringe o filtro aos ids candidatos do índice de descrição, quando houver,
+	 * preservando os ids já informados; retorna falso se nada pode ser encontrado.
+	 */
+	private boolean restringirPorDescricao(FiltroLancamento filtro) {
+		Optional<Set<Long>> candidatos = pesquisaLancamentoService.obterCandidatos(filtro.getIdUsuario(),
+				filtro.getDescricao());
+		candidatos.ifPresent(ids -> {
+			if (filtro.getIds() == null) {
+				filtro.setIds(ids);
+			}
+			else {
+				Set<Long> informados = new HashSet<>(filtro.getIds());
+				informados.retainAll(ids);
+				filtro.setIds(informados);
+			}
+		});
+		return filtro.getIds() == null || !filtro.getIds().isEmpty();
+	}
+
+	private void validarFiltroEmLote(FiltroLancamento filtro) {
+		validarFiltro(filtro);
+		if (!filtro.isRestrito()) {
+			throw new RegraNegocioException("Informe os lançamentos ou ao menos um filtro para a operação em lote.");
+		}
+	}
+
+	@Override
+	public void validarFiltro(FiltroLancamento filtro) {
+		if (!isMesValido(filtro.getMes()) || !isMesValido(filtro.getMesInicial())
+				|| !isMesValido(filtro.getMesFinal())) {
+			throw new RegraNegocioException("Informe um Mês válido.");
+		}
+		if ((filtro.getMesInicial() != null && filtro.getAnoInicial() == null)
+				|| (filtro.getMesFinal() != null && filtro.getAnoFinal() == null)) {
+			throw new RegraNegocioException("Informe o Ano ao filtrar por Mês.");
+		}
+		Integer competenciaInicial = filtro.getCompetenciaInicial();
+		Integer competenciaFinal = filtro.getCompetenciaFinal();
+		if (competenciaInicial != null && competenciaFinal != null && competenciaInicial > competenciaFinal) {
+			throw new RegraNegocioException("Informe um período válido.");
+		}
+		if (filtro.getValorMinimo() != null && filtro.getValorMaximo() != null
+				&& filtro.getValorMinimo().compareTo(filtro.getValorMaximo()) > 0) {
+			throw new RegraNegocioException("Informe uma faixa de valores válida.");
+		}
+	}
+
+	private boolean isMesValido(Integer mes) {
+		return mes == null || (mes >= 1 && mes <= 12);
+	}
+
 	public void validar(Lancamento lancamento) {
-		if (lancamento.getDescricao() == null || lancamento.getDescricao().trim().isEmpty()) {
+		if (lancamento.getDescricao() == null || lancamento.getDescricao().trim().isEmpty()
+				|| lancamento.getDescricao().length() > TAMANHO_MAXIMO_DESCRICAO) {
 			throw new RegraNegocioException("Informe uma Descrição válida.");
 		}
 		if (lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() > 12) {
@@ -101,6 +594,21 @@ public class LancamentoServiceImpl implements LancamentoService {
 		if (lancamento.getTipo() == null) {
 			throw new RegraNegocioException("Informe um tipo de Lançamento.");
 		}
+		if (lancamento.getCategorias() != null && !lancamento.getCategorias().isEmpty() && !categoriaService
+			.isAtivas(lancamento.getCategorias().stream().map(Categoria::getId).collect(Collectors.toList()))) {
+			throw new RegraNegocioException("Informe uma Categoria válida.");
+		}
+	}
+
+	@Getter
+	@EqualsAndHashCode
+	@RequiredArgsConstructor
+	private static final class ChaveConsulta {
+
+		private final long geracao;
+
+		private final FiltroLancamento filtro;
+
 	}
 
 }
@@ -0,0 +1,132 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.exception.TentativasExcedidasException;
+import com.dsousa.minhasfinancas.service.LimiteLoginService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class LimiteLoginServiceImpl implements LimiteLoginService {
+
+	private static final String MENSAGEM = "Muitas tentativas de autenticação. Tente novamente mais tarde.";
+
+	private final ConcurrentMap<String, Balde> baldesPorEmail = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Balde> baldesPorIp = new ConcurrentHashMap<>();
+
+	private final Counter rejeicoesPorEmail;
+
+	private final Counter rejeicoesPorIp;
+
+	@Value("${login.limite.email.capacidade:5}")
+	private int capacidadeEmail;
+
+	@Value("${login.limite.email.recarga-por-minuto:5}")
+	private int recargaEmailPorMinuto;
+
+	@Value("${login.limite.ip.capacidade:20}")
+	private int capacidadeIp;
+
+	@Value("${login.limite.ip.recarga-por-minuto:20}")
+	private int recargaIpPorMinuto;
+
+	public LimiteLoginServiceImpl(MeterRegistry meterRegistry) {
+		this.rejeicoesPorEmail = meterRegistry.counter("login.limite.rejeicoes", "chave", "email");
+		this.rejeicoesPorIp = meterRegistry.counter("login.limite.rejeicoes", "chave", "ip");
+		meterRegistry.gauge("login.limite.baldes", this,
+				limite -> limite.baldesPorEmail.size() + limite.baldesPorIp.size());
+	}
+
+	@Override
+	public void registrarTentativa(String email, String ip) {
+		long agora = System.nanoTime();
+		long esperaIp = consumir(baldesPorIp, ip == null ? "" : ip, capacidadeIp, recargaIpPorMinuto, agora);
+		if (esperaIp > 0) {
+			rejeicoesPorIp.increment();
+			throw new TentativasExcedidasException(MENSAGEM, segundos(esperaIp));
+		}
+		String chaveEmail = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+		long esperaEmail = consumir(baldesPorEmail, chaveEmail, capacidadeEmail, recargaEmailPorMinuto, agora);
+		if (esperaEmail > 0) {
+			rejeicoesPorEmail.increment();
+			throw new TentativasExcedidasException(MENSAGEM, segundos(esperaEmail));
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${login.limite.intervalo-limpeza-ms:60000}")
+	public void removerBaldesOciosos() {
+		long agora = System.nanoTime();
+		baldesPorEmail.values().removeIf(balde -> balde.isCheio(capacidadeEmail, recargaEmailPorMinuto, agora));
+		baldesPorIp.values().removeIf(balde -> balde.isCheio(capacidadeIp, recargaIpPorMinuto, agora));
+	}
+
+	private long consumir(ConcurrentMap<String, Balde> baldes, String chave, int capacidade, int recargaPorMinuto,
+			long agora) {
+		Balde balde = baldes.get(chave);
+		if (balde == null) {
+			balde = baldes.computeIfAbsent(chave, c -> new Balde(capacidade, agora));
+		}
+		return balde.consumir(capacidade, recargaPorMinuto, agora);
+	}
+
+	private long segundos(long nanos) {
+		return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+	}
+
+	private static final class Balde {
+
+		private final AtomicReference<Estado> estado;
+
+		Balde(int capacidade, long agora) {
+			this.estado = new AtomicReference<>(new Estado(capacidade, agora));
+		}
+
+		long consumir(int capacidade, int recargaPorMinuto, long agora) {
+			while (true) {
+				Estado atual = estado.get();
+				double fichas = atual.fichasEm(capacidade, recargaPorMinuto, agora);
+				if (fichas < 1) {
+					double nanosPorFicha = TimeUnit.MINUTES.toNanos(1) / (double) recargaPorMinuto;
+					return (long) Math.ceil((1 - fichas) * nanosPorFicha);
+				}
+				if (estado.compareAndSet(atual, new Estado(fichas - 1, Math.max(agora, atual.atualizadoEm)))) {
+					return 0;
+				}
+			}
+		}
+
+		boolean isCheio(int capacidade, int recargaPorMinuto, long agora) {
+			return estado.get().fichasEm(capacidade, recargaPorMinuto, agora) >= capacidade;
+		}
+
+	}
+
+	private static final class Estado {
+
+		private final double fichas;
+
+		private final long atualizadoEm;
+
+		Estado(double fichas, long atualizadoEm) {
+			this.fichas = fichas;
+			this.atualizadoEm = atualizadoEm;
+		}
+
+		double fichasEm(int capacidade, int recargaPorMinuto, long agora) {
+			long decorrido = Math.max(0, agora - atualizadoEm);
+			double recarga = decorrido * (double) recargaPorMinuto / TimeUnit.MINUTES.toNanos(1);
+			return Math.min(capacidade, fichas + recarga);
+		}
+
+	}
+
+}
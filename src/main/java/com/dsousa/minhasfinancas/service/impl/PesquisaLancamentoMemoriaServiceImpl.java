@@ -0,0 +1,275 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.service.PesquisaLancamentoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido de trigramas da descrição, por usuário, para bancos sem índice de
+ * trigramas (H2). Inclusões entram no índice imediatamente e remoções só depois do
+ * commit, de modo que o índice sempre devolve um superconjunto dos lançamentos que contêm
+ * o trecho; a consulta ao banco continua aplicando o filtro exato.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "lancamento.pesquisa.indice", havingValue = "memoria")
+public class PesquisaLancamentoMemoriaServiceImpl implements PesquisaLancamentoService {
+
+	private static final double SIMILARIDADE_MINIMA = 0.3;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final ConcurrentMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Long, IndiceUsuario> indices = new ConcurrentHashMap<>();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() {
+		jdbcTemplate.query("SELECT id, id_usuario, descricao FROM financas.lancamento WHERE descricao IS NOT NULL",
+				(RowCallbackHandler) rs -> indexar(rs.getLong("id"), rs.getLong("id_usuario"),
+						normalizar(rs.getString("descricao"))));
+	}
+
+	@Override
+	public Optional<Set<Long>> obterCandidatos(Long idUsuario, String descricao) {
+		if (descricao == null || descricao.isEmpty()) {
+			return Optional.empty();
+		}
+		IndiceUsuario indice = indices.get(idUsuario);
+		if (indice == null) {
+			return Optional.of(Collections.emptySet());
+		}
+		String termo = normalizar(descricao);
+		Set<String> trigramas = trigramas(termo);
+		if (trigramas.isEmpty()) {
+			return Optional.of(indice.ids.stream().filter(id -> contem(id, termo)).collect(Collectors.toSet()));
+		}
+		List<Set<Long>> listas = trigramas.stream()
+			.map(trigrama -> indice.postagens.getOrDefault(trigrama, Collections.emptySet()))
+			.sorted(Comparator.comparingInt(Set::size))
+			.collect(Collectors.toList());
+		Set<Long> candidatos = new HashSet<>(listas.get(0));
+		for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+			candidatos.retainAll(listas.get(i));
+		}
+		return Optional.of(candidatos);
+	}
+
+	@Override
+	public List<Long> pesquisar(Long idUsuario, String termo, int limite) {
+		IndiceUsuario indice = indices.get(idUsuario);
+		if (indice == null) {
+			return Collections.emptyList();
+		}
+		String termoNormalizado = normalizar(termo);
+		Set<String> trigramasTermo = trigramas(termoNormalizado);
+		Set<Long> candidatos = new HashSet<>();
+		for (String trigrama : trigramasTermo) {
+			candidatos.addAll(indice.postagens.getOrDefault(trigrama, Collections.emptySet()));
+		}
+		if (trigramasTermo.isEmpty()) {
+			candidatos.addAll(indice.ids);
+		}
+		Set<String> trigramasPalavrasTermo = trigramasPalavras(termoNormalizado);
+		Map<Long, Double> similaridades = new HashMap<>();
+		candidatos.forEach(id -> {
+			Documento documento = documentos.get(id);
+			if (documento == null) {
+				return;
+			}
+			double similaridade = similaridade(trigramasPalavrasTermo, trigramasPalavras(documento.texto));
+			if (documento.texto.contains(termoNormalizado) || similaridade >= SIMILARIDADE_MINIMA) {
+				similaridades.put(id, similaridade);
+			}
+		});
+		return similaridades.entrySet()
+			.stream()
+			.sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+			.limit(limite)
+			.map(Map.Entry::getKey)
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public void registrar(Lancamento lancamento) {
+		Long id = lancamento.getId();
+		Documento anterior = indexar(id, lancamento.getUsuario().getId(), normalizar(lancamento.getDescricao()));
+		if (anterior != null) {
+			aoConcluir(confirmado -> {
+				if (confirmado) {
+					limpar(id, anterior);
+				}
+				else {
+					restaurar(id, anterior);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void remover(Lancamento lancamento) {
+		remover(Collections.singletonList(lancamento.getId()));
+	}
+
+	@Override
+	public void removerTodos(Supplier<Collection<Long>> ids) {
+		remover(ids.get());
+	}
+
+	private void remover(Collection<Long> ids) {
+		aoConcluir(confirmado -> {
+			if (!confirmado) {
+				return;
+			}
+			for (Long id : ids) {
+				Documento documento = documentos.remove(id);
+				if (documento != null) {
+					IndiceUsuario indice = indices.get(documento.idUsuario);
+					synchronized (indice) {
+						indice.ids.remove(id);
+						trigramas(documento.texto).forEach(trigrama -> indice.remover(trigrama, id));
+					}
+				}
+			}
+		});
+	}
+
+	private Documento indexar(Long id, Long idUsuario, String texto) {
+		IndiceUsuario indice = indices.computeIfAbsent(idUsuario, u -> new IndiceUsuario());
+		synchronized (indice) {
+			indice.ids.add(id);
+			trigramas(texto).forEach(
+					trigrama -> indice.postagens.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(id));
+			return documentos.put(id, new Documento(idUsuario, texto));
+		}
+	}
+
+	private void limpar(Long id, Documento anterior) {
+		Documento atual = documentos.get(id);
+		boolean mesmoUsuario = atual != null && atual.idUsuario.equals(anterior.idUsuario);
+		Set<String> atuais = mesmoUsuario ? trigramas(atual.texto) : Collections.emptySet();
+		IndiceUsuario indice = indices.get(anterior.idUsuario);
+		synchronized (indice) {
+			if (!mesmoUsuario) {
+				indice.ids.remove(id);
+			}
+			trigramas(anterior.texto).stream()
+				.filter(trigrama -> !atuais.contains(trigrama))
+				.forEach(trigrama -> indice.remover(trigrama, id));
+		}
+	}
+
+	private void restaurar(Long id, Documento anterior) {
+		Documento descartado = indexar(id, anterior.idUsuario, anterior.texto);
+		if (descartado != null) {
+			limpar(id, descartado);
+		}
+	}
+
+	private boolean contem(Long id, String termo) {
+		Documento documento = documentos.get(id);
+		return documento != null && documento.texto.contains(termo);
+	}
+
+	private void aoConcluir(Consumer<Boolean> acao) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			acao.accept(true);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				acao.accept(status == TransactionSynchronization.STATUS_COMMITTED);
+			}
+		});
+	}
+
+	private static String normalizar(String texto) {
+		return texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+	}
+
+	private static Set<String> trigramas(String texto) {
+		Set<String> trigramas = new HashSet<>();
+		for (int i = 0; i + 3 <= texto.length(); i++) {
+			trigramas.add(texto.substring(i, i + 3));
+		}
+		return trigramas;
+	}
+
+	/**
+	 * Trigramas de cada palavra com os mesmos espaços de preenchimento do pg_trgm, usados
+	 * apenas para ordenar por similaridade.
+	 */
+	private static Set<String> trigramasPalavras(String texto) {
+		Set<String> trigramas = new HashSet<>();
+		for (String palavra : texto.split("[^\\p{L}\\p{N}]+")) {
+			if (!palavra.isEmpty()) {
+				trigramas.addAll(trigramas("  " + palavra + " "));
+			}
+		}
+		return trigramas;
+	}
+
+	private static double similaridade(Set<String> termo, Set<String> documento) {
+		long comuns = termo.stream().filter(documento::contains).count();
+		long uniao = termo.size() + documento.size() - comuns;
+		return uniao == 0 ? 0 : (double) comuns / uniao;
+	}
+
+	private static class IndiceUsuario {
+
+		private final Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+		private final ConcurrentMap<String, Set<Long>> postagens = new ConcurrentHashMap<>();
+
+		private void remover(String trigrama, Long id) {
+			Set<Long> ids = postagens.get(trigrama);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty()) {
+					postagens.remove(trigrama);
+				}
+			}
+		}
+
+	}
+
+	private static class Documento {
+
+		private final Long idUsuario;
+
+		private final String texto;
+
+		private Documento(Long idUsuario, String texto) {
+			this.idUsuario = idUsuario;
+			this.texto = texto;
+		}
+
+	}
+
+}
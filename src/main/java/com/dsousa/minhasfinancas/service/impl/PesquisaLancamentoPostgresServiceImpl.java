@@ -0,0 +1,64 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.service.PesquisaLancamentoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Usa o índice GIN {@code gin_trgm_ops} sobre {@code lower(descricao)}, que atende tanto
+ * o {@code LIKE '%termo%'} dos filtros quanto o operador de similaridade {@code %}.
+ */
+@Service
+@ConditionalOnProperty(name = "lancamento.pesquisa.indice", havingValue = "postgres", matchIfMissing = true)
+public class PesquisaLancamentoPostgresServiceImpl implements PesquisaLancamentoService {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Optional<Set<Long>> obterCandidatos(Long idUsuario, String descricao) {
+		return Optional.empty();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	@SuppressWarnings("unchecked")
+	public List<Long> pesquisar(Long idUsuario, String termo, int limite) {
+		String termoNormalizado = termo.toLowerCase(Locale.ROOT);
+		List<Number> ids = entityManager
+			.createNativeQuery("SELECT l.id FROM financas.lancamento l WHERE l.id_usuario = :idUsuario "
+					+ "AND (lower(l.descricao) LIKE :padrao ESCAPE '\\' OR lower(l.descricao) % :termo) "
+					+ "ORDER BY similarity(lower(l.descricao), :termo) DESC, l.id LIMIT :limite")
+			.setParameter("idUsuario", idUsuario)
+			.setParameter("padrao", "%" + termoNormalizado.replaceAll("([\\\\%_])", "\\\\$1") + "%")
+			.setParameter("termo", termoNormalizado)
+			.setParameter("limite", limite)
+			.getResultList();
+		return ids.stream().map(Number::longValue).collect(Collectors.toList());
+	}
+
+	@Override
+	public void registrar(Lancamento lancamento) {
+	}
+
+	@Override
+	public void remover(Lancamento lancamento) {
+	}
+
+	@Override
+	public void removerTodos(Supplier<Collection<Long>> ids) {
+	}
+
+}
@@ -0,0 +1,230 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.ItemRelatorio;
+import com.dsousa.minhasfinancas.model.consulta.PontoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.ResumoMensalId;
+import com.dsousa.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.dsousa.minhasfinancas.service.ResumoMensalService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+	private static final int MAXIMO_PONTOS_HISTORICO = 600;
+
+	private final ResumoMensalRepository repository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${resumo-mensal.backfill.tamanho-lote:200}")
+	private int tamanhoLote;
+
+	@Value("${resumo-mensal.backfill.na-inicializacao:true}")
+	private boolean reconstruirNaInicializacao;
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void antesDaEscrita(Lancamento lancamento) {
+		if (lancamento.getId() != null) {
+			repository.retirar(lancamento.getId());
+		}
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void depoisDaEscrita(Lancamento lancamento) {
+		if (lancamento.getTipo() != null && lancamento.getStatus() != null) {
+			repository.adicionar(new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(),
+					lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus()), lancamento.getValor(), 1);
+		}
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void depoisDaEscritaPorId(Long idLancamento) {
+		repository.adicionarGravado(idLancamento);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void depoisDaEscritaEmLote(Collection<Lancamento> lancamentos) {
+		Map<ResumoMensalId, BigDecimal> totais = new LinkedHashMap<>();
+		Map<ResumoMensalId, Integer> quantidades = new HashMap<>();
+		for (Lancamento lancamento : lancamentos) {
+			if (lancamento.getTipo() != null && lancamento.getStatus() != null) {
+				ResumoMensalId id = new ResumoMensalId(lancamento.getUsuario().getId(), lancamento.getAno(),
+						lancamento.getMes(), lancamento.getTipo(), lancamento.getStatus());
+				totais.merge(id, lancamento.getValor(), BigDecimal::add);
+				quantidades.merge(id, 1, Integer::sum);
+			}
+		}
+		totais.forEach((id, total) -> repository.adicionar(id, total, quantidades.get(id)));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void ajustarEmLote(Long idUsuario, List<TotalPeriodo> retirados, List<TotalPeriodo> adicionados) {
+		Map<ResumoMensalId, BigDecimal> totais = new LinkedHashMap<>();
+		Map<ResumoMensalId, Integer> quantidades = new HashMap<>();
+		acumular(idUsuario, retirados, -1, totais, quantidades);
+		acumular(idUsuario, adicionados, 1, totais, quantidades);
+		totais.forEach((id, total) -> {
+			int quantidade = quantidades.get(id);
+			if (quantidade != 0 || total.signum() != 0) {
+				repository.adicionar(id, total, quantidade);
+			}
+		});
+	}
+
+	private static void acumular(Long idUsuario, List<TotalPeriodo> totais, int sinal,
+			Map<ResumoMensalId, BigDecimal> acumulados, Map<ResumoMensalId, Integer> quantidades) {
+		for (TotalPeriodo total : totais) {
+			if (total.getTipo() != null && total.getStatus() != null) {
+				ResumoMensalId id = new ResumoMensalId(idUsuario, total.getAno(), total.getMes(), total.getTipo(),
+						total.getStatus());
+				acumulados.merge(id, sinal < 0 ? total.getTotal().negate() : total.getTotal(), BigDecimal::add);
+				quantidades.merge(id, sinal * total.getQuantidade().intValue(), Integer::sum);
+			}
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void reconstruirSeVazio() {
+		if (reconstruirNaInicializacao && repository.isVazio()) {
+			reconstruir();
+		}
+	}
+
+	@Override
+	public int reconstruir() {
+		long inicio = System.currentTimeMillis();
+		List<Long> ids = repository.obterIdsUsuarios();
+		int linhas = 0;
+		for (int i = 0; i < ids.size(); i += tamanhoLote) {
+			Long primeiro = ids.get(i);
+			Long ultimo = ids.get(Math.min(i + tamanhoLote, ids.size()) - 1);
+			linhas += transactionTemplate.execute(status -> repository.reconstruir(primeiro, ultimo));
+		}
+		log.info("Resumo mensal reconstruído para {} usuários: {} linhas ({} ms).", ids.size(), linhas,
+				System.currentTimeMillis() - inicio);
+		return linhas;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ItemRelatorio> obterRelatorioMensal(Long idUsuario, Integer ano) {
+		if (ano == null || ano.toString().length() != 4) {
+			throw new RegraNegocioException("Informe um Ano válido.");
+		}
+		return agrupar(repository.obterTotaisMensais(idUsuario, ano));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ItemRelatorio> obterRelatorioAnual(Long idUsuario, Integer anoInicial, Integer anoFinal) {
+		if (anoInicial == null || anoFinal == null || anoInicial > anoFinal) {
+			throw new RegraNegocioException("Informe um intervalo de Anos válido.");
+		}
+		return agrupar(repository.obterTotaisAnuais(idUsuario, anoInicial, anoFinal));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<PontoSaldo> obterHistoricoSaldo(Long idUsuario, Integer anoInicial, Integer mesInicial,
+			Integer anoFinal, Integer mesFinal) {
+		int inicio = periodo(anoInicial, mesInicial);
+		int fim = periodo(anoFinal, mesFinal);
+		int pontos = (anoFinal - anoInicial) * 12 + mesFinal - mesInicial + 1;
+		if (pontos < 1 || pontos > MAXIMO_PONTOS_HISTORICO) {
+			throw new RegraNegocioException(
+					"Informe um intervalo de até " + MAXIMO_PONTOS_HISTORICO + " meses com início antes do fim.");
+		}
+		SerieSaldo serie = new SerieSaldo(inicio, pontos);
+		repository.percorrerSaldoAcumulado(idUsuario, inicio, fim, serie::registrar);
+		return serie.concluir(fim);
+	}
+
+	private int periodo(Integer ano, Integer mes) {
+		if (ano == null || ano.toString().length() != 4) {
+			throw new RegraNegocioException("Informe um Ano válido.");
+		}
+		if (mes == null || mes < 1 || mes > 12) {
+			throw new RegraNegocioException("Informe um Mês válido.");
+		}
+		return ano * 100 + mes;
+	}
+
+	private List<ItemRelatorio> agrupar(List<TotalPeriodo> totais) {
+		Map<String, ItemRelatorio> itens = new LinkedHashMap<>();
+		for (TotalPeriodo total : totais) {
+			itens
+				.computeIfAbsent(total.getAno() + "/" + total.getMes(),
+						periodo -> new ItemRelatorio(total.getAno(), total.getMes()))
+				.somar(total);
+		}
+		return new ArrayList<>(itens.values());
+	}
+
+	private static class SerieSaldo {
+
+		private final List<PontoSaldo> pontos;
+
+		private int proximo;
+
+		private BigDecimal saldo = BigDecimal.ZERO;
+
+		SerieSaldo(int inicio, int tamanho) {
+			this.proximo = inicio;
+			this.pontos = new ArrayList<>(tamanho);
+		}
+
+		void registrar(Integer periodo, BigDecimal saldoAcumulado) {
+			if (periodo > 0) {
+				completarAte(periodo - 1);
+				pontos
+					.add(new PontoSaldo(periodo / 100, periodo % 100, saldoAcumulado.subtract(saldo), saldoAcumulado));
+				proximo = seguinte(periodo);
+			}
+			saldo = saldoAcumulado;
+		}
+
+		List<PontoSaldo> concluir(int fim) {
+			completarAte(fim);
+			return pontos;
+		}
+
+		private void completarAte(int periodo) {
+			while (proximo <= periodo) {
+				pontos.add(new PontoSaldo(proximo / 100, proximo % 100, BigDecimal.ZERO, saldo));
+				proximo = seguinte(proximo);
+			}
+		}
+
+		private static int seguinte(int periodo) {
+			return periodo % 100 == 12 ? (periodo / 100 + 1) * 100 + 1 : periodo + 1;
+		}
+
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.model.entity.TokenRevogado;
+import com.dsousa.minhasfinancas.model.repository.TokenRevogadoRepository;
+import com.dsousa.minhasfinancas.service.RevogacaoTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@Service
+public class RevogacaoTokenServiceImpl implements RevogacaoTokenService {
+
+	private final TokenRevogadoRepository repository;
+
+	private final Counter consultasAoBanco;
+
+	@Value("${jwt.revogacao.capacidade:100000}")
+	private long capacidade;
+
+	@Value("${jwt.revogacao.taxa-falso-positivo:0.01}")
+	private double taxaFalsoPositivo;
+
+	private final Queue<String> revogadosDuranteRecarga = new ConcurrentLinkedQueue<>();
+
+	private volatile FiltroBloom filtro;
+
+	public RevogacaoTokenServiceImpl(TokenRevogadoRepository repository, MeterRegistry meterRegistry) {
+		this.repository = repository;
+		this.consultasAoBanco = meterRegistry.counter("jwt.revogacao.consultas");
+	}
+
+	@PostConstruct
+	@Scheduled(fixedDelayString = "${jwt.revogacao.intervalo-recarga-ms:60000}",
+			initialDelayString = "${jwt.revogacao.intervalo-recarga-ms:60000}")
+	public void recarregar() {
+		LocalDateTime agora = LocalDateTime.now();
+		repository.removerExpirados(agora);
+		List<String> revogados = repository.obterJtisNaoExpirados(agora);
+		FiltroBloom novoFiltro = new FiltroBloom(Math.max(capacidade, revogados.size() * 2L), taxaFalsoPositivo);
+		revogados.forEach(novoFiltro::adicionar);
+		filtro = novoFiltro;
+		String jti;
+		while ((jti = revogadosDuranteRecarga.poll()) != null) {
+			novoFiltro.adicionar(jti);
+		}
+	}
+
+	@Override
+	public boolean revogar(String jti, Date expiracao) {
+		if (jti == null || repository.existsById(jti)) {
+			return false;
+		}
+		LocalDateTime dataExpiracao = LocalDateTime.ofInstant(expiracao.toInstant(), ZoneId.systemDefault());
+		try {
+			repository.save(TokenRevogado.builder().jti(jti).expiracao(dataExpiracao).build());
+		}
+		catch (DataIntegrityViolationException e) {
+			return false;
+		}
+		revogadosDuranteRecarga.add(jti);
+		filtro.adicionar(jti);
+		return true;
+	}
+
+	@Override
+	public boolean isRevogado(String jti) {
+		if (jti == null || !filtro.talvezContenha(jti)) {
+			return false;
+		}
+		consultasAoBanco.increment();
+		return repository.existsById(jti);
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.service.RevogacaoUsuarioService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revogação em memória, local a cada instância; os instantes ficam em segundos, a mesma
+ * precisão do {@code iat} do JWT.
+ */
+@Service
+public class RevogacaoUsuarioServiceImpl implements RevogacaoUsuarioService {
+
+	private final Map<Long, Long> revogadosEm = new ConcurrentHashMap<>();
+
+	@Value("${jwt.expiracao::2400}")
+	private String expiracao;
+
+	@Value("${jwt.expiracao-refresh:43200}")
+	private long expiracaoRefresh;
+
+	@Override
+	public void revogar(Long idUsuario) {
+		long agora = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+		long limite = agora - TimeUnit.MINUTES.toSeconds(Math.max(Long.valueOf(expiracao), expiracaoRefresh));
+		revogadosEm.values().removeIf(revogadoEm -> revogadoEm < limite);
+		revogadosEm.put(idUsuario, agora);
+	}
+
+	@Override
+	public void reativar(Long idUsuario) {
+		revogadosEm.remove(idUsuario);
+	}
+
+	@Override
+	public boolean isRevogado(Long idUsuario, Date emitidoEm) {
+		if (revogadosEm.isEmpty()) {
+			return false;
+		}
+		Long revogadoEm = revogadosEm.get(idUsuario);
+		// Um token emitido no mesmo segundo da revogação é tratado como posterior a ela,
+		// para
+		// não recusar o login feito logo depois.
+		return revogadoEm != null
+				&& (emitidoEm == null || TimeUnit.MILLISECONDS.toSeconds(emitidoEm.getTime()) < revogadoEm);
+	}
+
+}
@@ -0,0 +1,213 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.model.consulta.DivergenciaSaldo;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioReconciliacao;
+import com.dsousa.minhasfinancas.model.consulta.ResumoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.TotalPeriodo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.SaldoUsuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.LancamentoRepository;
+import com.dsousa.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService {
+
+	private final SaldoUsuarioRepository repository;
+
+	private final LancamentoRepository lancamentoRepository;
+
+	private final Counter correcoes;
+
+	private final AtomicInteger ultimasDivergencias = new AtomicInteger();
+
+	@Value("${saldo.reconciliacao.paralelismo:4}")
+	private int paralelismo;
+
+	@Value("${saldo.reconciliacao.tamanho-lote:500}")
+	private int tamanhoLote;
+
+	@Value("${saldo.reconciliacao.corrigir:true}")
+	private boolean corrigir;
+
+	public SaldoUsuarioServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository,
+			MeterRegistry meterRegistry) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.correcoes = meterRegistry.counter("saldo.reconciliacao.correcoes");
+		meterRegistry.gauge("saldo.reconciliacao.divergencias", ultimasDivergencias);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void antesDaEscrita(Lancamento lancamento) {
+		repository.bloquear(lancamento.getUsuario().getId());
+		if (lancamento.getId() != null) {
+			repository.retirarContribuicao(lancamento.getId());
+		}
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void depoisDaEscrita(Lancamento lancamento) {
+		BigDecimal contribuicao = contribuicao(lancamento);
+		if (contribuicao.signum() != 0) {
+			repository.adicionarContribuicao(lancamento.getUsuario().getId(), contribuicao);
+		}
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void depoisDaEscritaPorId(Long idLancamento) {
+		repository.adicionarContribuicaoGravada(idLancamento);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void antesDaEscritaEmLote(Long idUsuario) {
+		repository.bloquear(idUsuario);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void depoisDaEscritaEmLote(Long idUsuario, Collection<Lancamento> lancamentos) {
+		BigDecimal contribuicao = lancamentos.stream()
+			.map(SaldoUsuarioServiceImpl::contribuicao)
+			.reduce(BigDecimal.ZERO, BigDecimal::add);
+		if (contribuicao.signum() != 0) {
+			repository.adicionarContribuicao(idUsuario, contribuicao);
+		}
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void ajustarEmLote(Long idUsuario, List<TotalPeriodo> retirados, List<TotalPeriodo> adicionados) {
+		BigDecimal contribuicao = contribuicao(adicionados).subtract(contribuicao(retirados));
+		if (contribuicao.signum() != 0) {
+			repository.adicionarContribuicao(idUsuario, contribuicao);
+		}
+	}
+
+	@Override
+	@Transactional
+	public void inicializar(Long idUsuario) {
+		repository.bloquear(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long idUsuario) {
+		return repository.findById(idUsuario).map(SaldoUsuario::getSaldo).orElseGet(() -> calcular(idUsuario));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long obterVersao(Long idUsuario) {
+		return repository.findById(idUsuario).map(SaldoUsuario::getVersao).orElse(0L);
+	}
+
+	@Override
+	public RelatorioReconciliacao reconciliar() {
+		long inicio = System.currentTimeMillis();
+		int criados = repository.criarSaldosAusentes();
+		List<Long> ids = repository.obterIdsUsuarios();
+		List<CompletableFuture<List<DivergenciaSaldo>>> lotes = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, paralelismo));
+		try {
+			for (int i = 0; i < ids.size(); i += tamanhoLote) {
+				Long primeiro = ids.get(i);
+				Long ultimo = ids.get(Math.min(i + tamanhoLote, ids.size()) - 1);
+				lotes.add(CompletableFuture.supplyAsync(() -> reconciliarLote(primeiro, ultimo), executor));
+			}
+			List<DivergenciaSaldo> divergencias = lotes.stream()
+				.flatMap(lote -> lote.join().stream())
+				.collect(Collectors.toList());
+			ultimasDivergencias.set(divergencias.size());
+			RelatorioReconciliacao relatorio = new RelatorioReconciliacao(criados, ids.size(), divergencias,
+					System.currentTimeMillis() - inicio);
+			registrar(relatorio);
+			return relatorio;
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Scheduled(cron = "${saldo.reconciliacao.cron:0 0 3 * * *}")
+	public void reconciliarAgendado() {
+		reconciliar();
+	}
+
+	private List<DivergenciaSaldo> reconciliarLote(Long primeiro, Long ultimo) {
+		List<DivergenciaSaldo> divergencias = repository.obterDivergencias(primeiro, ultimo);
+		if (corrigir) {
+			for (DivergenciaSaldo divergencia : divergencias) {
+				divergencia.setCorrigido(repository.corrigir(divergencia.getIdUsuario(),
+						divergencia.getSaldoCalculado(), divergencia.getVersao()));
+				if (divergencia.isCorrigido()) {
+					correcoes.increment();
+				}
+			}
+		}
+		return divergencias;
+	}
+
+	private void registrar(RelatorioReconciliacao relatorio) {
+		if (relatorio.getDivergencias().isEmpty()) {
+			log.info("Reconciliação de saldos: {} saldos verificados, {} criados, nenhuma divergência ({} ms).",
+					relatorio.getSaldosVerificados(), relatorio.getSaldosCriados(), relatorio.getDuracaoMillis());
+			return;
+		}
+		log.warn("Reconciliação de saldos: {} divergências em {} saldos verificados ({} ms).",
+				relatorio.getDivergencias().size(), relatorio.getSaldosVerificados(), relatorio.getDuracaoMillis());
+		relatorio.getDivergencias()
+			.forEach(divergencia -> log.warn("Saldo do usuário {}: armazenado {}, calculado {}, corrigido: {}.",
+					divergencia.getIdUsuario(), divergencia.getSaldoArmazenado(), divergencia.getSaldoCalculado(),
+					divergencia.isCorrigido()));
+	}
+
+	private BigDecimal calcular(Long idUsuario) {
+		return ResumoSaldo.de(null, null, lancamentoRepository.obterTotaisPorTipoEStatus(idUsuario, null, null))
+			.getSaldo();
+	}
+
+	private static BigDecimal contribuicao(List<TotalPeriodo> totais) {
+		BigDecimal contribuicao = BigDecimal.ZERO;
+		for (TotalPeriodo total : totais) {
+			if (total.getStatus() == StatusLancamento.EFETIVADO) {
+				contribuicao = total.getTipo() == TipoLancamento.RECEITA ? contribuicao.add(total.getTotal())
+						: contribuicao.subtract(total.getTotal());
+			}
+		}
+		return contribuicao;
+	}
+
+	private static BigDecimal contribuicao(Lancamento lancamento) {
+		if (lancamento.getStatus() != StatusLancamento.EFETIVADO) {
+			return BigDecimal.ZERO;
+		}
+		return lancamento.getTipo() == TipoLancamento.RECEITA ? lancamento.getValor() : lancamento.getValor().negate();
+	}
+
+}
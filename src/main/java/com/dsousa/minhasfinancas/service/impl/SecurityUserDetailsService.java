@@ -1,9 +1,9 @@
 package com.dsousa.minhasfinancas.service.impl;
 
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
 import com.dsousa.minhasfinancas.model.entity.Usuario;
 import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -19,11 +19,8 @@ public class SecurityUserDetailsService implements UserDetailsService {
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 		Usuario usuarioEncontrado = usuarioRepository.findByEmail(email)
 			.orElseThrow(() -> new UsernameNotFoundException("Email não cadastrado."));
-		return User.builder()
-			.username(usuarioEncontrado.getEmail())
-			.password(usuarioEncontrado.getSenha())
-			.roles("USER")
-			.build();
+		return new UsuarioAutenticado(usuarioEncontrado.getId(), usuarioEncontrado.getEmail(),
+				usuarioEncontrado.getNome(), usuarioEncontrado.getSenha());
 	}
 
 }
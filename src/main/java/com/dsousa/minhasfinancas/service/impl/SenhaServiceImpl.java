@@ -0,0 +1,103 @@
+package com.dsousa.minhasfinancas.service.impl;
+
+import com.dsousa.minhasfinancas.exception.ServicoSobrecarregadoException;
+import com.dsousa.minhasfinancas.service.SenhaService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+@Service
+public class SenhaServiceImpl implements SenhaService {
+
+	private static final String MENSAGEM_SOBRECARGA = "Serviço temporariamente sobrecarregado. Tente novamente em instantes.";
+
+	private final PasswordEncoder encoder;
+
+	private final ThreadPoolExecutor executor;
+
+	private final Counter rejeicoes;
+
+	@Value("${senha.executor.tempo-maximo-espera-ms:10000}")
+	private long tempoMaximoEsperaMillis;
+
+	@Value("${senha.executor.retry-after-segundos:2}")
+	private long retryAfterSegundos;
+
+	public SenhaServiceImpl(PasswordEncoder encoder, ThreadPoolExecutor executorSenhas, MeterRegistry meterRegistry) {
+		this.encoder = encoder;
+		this.executor = executorSenhas;
+		this.rejeicoes = meterRegistry.counter("senha.hash.rejeicoes");
+	}
+
+	@Override
+	public String criptografar(String senha) {
+		return executar(() -> encoder.encode(senha));
+	}
+
+	@Override
+	public boolean verificar(String senha, String senhaCriptografada) {
+		return executar(() -> encoder.matches(senha, senhaCriptografada));
+	}
+
+	@Override
+	public boolean precisaAtualizar(String senhaCriptografada) {
+		try {
+			return encoder.upgradeEncoding(senhaCriptografada);
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void recriptografarEmSegundoPlano(String senha, Consumer<String> aoConcluir) {
+		try {
+			executor.execute(() -> aoConcluir.accept(encoder.encode(senha)));
+		}
+		catch (RejectedExecutionException e) {
+			rejeicoes.increment();
+		}
+	}
+
+	private <T> T executar(Callable<T> tarefa) {
+		Future<T> resultado;
+		try {
+			resultado = executor.submit(tarefa);
+		}
+		catch (RejectedExecutionException e) {
+			rejeicoes.increment();
+			throw new ServicoSobrecarregadoException(MENSAGEM_SOBRECARGA, retryAfterSegundos);
+		}
+		try {
+			return resultado.get(tempoMaximoEsperaMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			resultado.cancel(true);
+			rejeicoes.increment();
+			throw new ServicoSobrecarregadoException(MENSAGEM_SOBRECARGA, retryAfterSegundos);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			resultado.cancel(true);
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+}
@@ -4,11 +4,12 @@ import com.dsousa.minhasfinancas.exception.ErroAutenticacao;
 import com.dsousa.minhasfinancas.exception.RegraNegocioException;
 import com.dsousa.minhasfinancas.model.entity.Usuario;
 import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
+import com.dsousa.minhasfinancas.service.SenhaService;
 import com.dsousa.minhasfinancas.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -18,22 +19,37 @@ public class UsuarioServiceImpl implements UsuarioService {
 
 	private final UsuarioRepository repository;
 
-	private final PasswordEncoder encoder;
+	private final SenhaService senhaService;
+
+	private final SaldoUsuarioService saldoUsuarioService;
+
+	private final TransactionTemplate transactionTemplate;
 
 	@Override
 	public Usuario autenticar(String email, String senha) {
 		Usuario usuario = repository.findByEmail(email)
 			.orElseThrow(() -> new ErroAutenticacao("Usuário não encontrado para o email informado."));
 		this.validarSenha(senha, usuario.getSenha());
+		this.atualizarCustoDaSenha(usuario, senha);
 		return usuario;
 	}
 
+	/**
+	 * O hash da senha espera na fila do executor de BCrypt fora de qualquer transação,
+	 * sem prender uma conexão do pool; só a verificação do email e a gravação são
+	 * transacionais. O email é conferido também antes, para não gastar um hash com um
+	 * cadastro repetido.
+	 */
 	@Override
-	@Transactional
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
-		usuario.criptografarSenha();
-		return repository.save(usuario);
+		usuario.setSenha(senhaService.criptografar(usuario.getSenha()));
+		return transactionTemplate.execute(status -> {
+			validarEmail(usuario.getEmail());
+			Usuario usuarioSalvo = repository.save(usuario);
+			saldoUsuarioService.inicializar(usuarioSalvo.getId());
+			return usuarioSalvo;
+		});
 	}
 
 	@Override
@@ -48,9 +64,18 @@ public class UsuarioServiceImpl implements UsuarioService {
 	}
 
 	private void validarSenha(String senhaEnviada, String senhaUsuario) {
-		if (!encoder.matches(senhaEnviada, senhaUsuario)) {
+		if (!senhaService.verificar(senhaEnviada, senhaUsuario)) {
 			throw new ErroAutenticacao("Senha inválida.");
 		}
 	}
 
+	private void atualizarCustoDaSenha(Usuario usuario, String senha) {
+		String senhaAtual = usuario.getSenha();
+		if (senhaService.precisaAtualizar(senhaAtual)) {
+			Long id = usuario.getId();
+			senhaService.recriptografarEmSegundoPlano(senha,
+					novaSenha -> repository.atualizarSenha(id, senhaAtual, novaSenha));
+		}
+	}
+
 }
@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS financas.lancamento_recorrente (
+id bigserial NOT NULL,
+descricao varchar(100) NOT NULL,
+valor numeric(16, 2) NOT NULL,
+tipo varchar(20) NOT NULL,
+periodicidade varchar(20) NOT NULL,
+ano_inicial integer NOT NULL,
+mes_inicial integer NOT NULL,
+ano_final integer NULL,
+mes_final integer NULL,
+proxima_competencia integer NOT NULL,
+id_usuario bigint NOT NULL,
+data_cadastro date DEFAULT CURRENT_DATE NULL,
+CONSTRAINT lancamento_recorrente_pkey PRIMARY KEY (id),
+CONSTRAINT lancamento_recorrente_usuario_fk FOREIGN KEY (id_usuario) REFERENCES financas.usuario(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS lancamento_recorrente_proxima_competencia_idx ON financas.lancamento_recorrente (proxima_competencia, id);
+
+CREATE INDEX IF NOT EXISTS lancamento_recorrente_usuario_idx ON financas.lancamento_recorrente (id_usuario, id);
+
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS id_recorrente bigint NULL;
+
+ALTER TABLE financas.lancamento DROP CONSTRAINT IF EXISTS lancamento_recorrente_fk;
+
+ALTER TABLE financas.lancamento ADD CONSTRAINT lancamento_recorrente_fk FOREIGN KEY (id_recorrente) REFERENCES financas.lancamento_recorrente(id) ON DELETE SET NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS lancamento_recorrente_periodo_uk ON financas.lancamento (id_recorrente, ano, mes);
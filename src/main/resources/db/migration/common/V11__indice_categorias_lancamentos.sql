@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS categorias_lancamentos_lancamento_categoria_idx ON financas.categorias_lancamentos (id_lancamento, id_categoria);
+DROP INDEX IF EXISTS financas.categorias_lancamentos_lancamento_idx;
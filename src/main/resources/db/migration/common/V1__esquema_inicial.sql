@@ -0,0 +1,67 @@
+CREATE TABLE IF NOT EXISTS financas.usuario (
+id bigserial NOT NULL,
+nome varchar(150) NULL,
+email varchar(100) NULL,
+senha varchar(255) NULL,
+data_cadastro date DEFAULT CURRENT_DATE NULL,
+CONSTRAINT usuario_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS financas.lancamento (
+id bigserial NOT NULL,
+descricao varchar(100) NULL,
+mes integer NOT NULL,
+ano integer NOT NULL,
+valor numeric(16, 2) NOT NULL,
+tipo varchar(20) NULL,
+status varchar(20) NULL,
+id_usuario bigint NOT NULL,
+data_cadastro date DEFAULT CURRENT_DATE NULL,
+data_atualizacao date NULL,
+CONSTRAINT lancamento_pkey PRIMARY KEY (id),
+CONSTRAINT lancamento_status_check CHECK (status IN ('PENDENTE', 'CANCELADO', 'EFETIVADO')),
+CONSTRAINT lancamento_tipo_check CHECK (tipo IN ('RECEITA', 'DESPESA')),
+CONSTRAINT lancamento_usuario_fk FOREIGN KEY (id_usuario) REFERENCES financas.usuario(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS financas.categoria (
+id bigserial NOT NULL,
+descricao varchar(255) NOT NULL,
+ativa boolean DEFAULT true NULL,
+data_cadastro date NULL,
+CONSTRAINT categoria_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS financas.categorias_lancamentos (
+id_categoria bigint NOT NULL,
+id_lancamento bigint NOT NULL,
+CONSTRAINT categorias_lancamentos_pkey PRIMARY KEY (id_categoria, id_lancamento),
+CONSTRAINT categorias_lancamentos_categoria_fk FOREIGN KEY (id_categoria) REFERENCES financas.categoria(id) ON DELETE CASCADE ON UPDATE CASCADE,
+CONSTRAINT categorias_lancamentos_lancamento_fk FOREIGN KEY (id_lancamento) REFERENCES financas.lancamento(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS financas.token_revogado (
+jti varchar(36) NOT NULL,
+expiracao timestamp NOT NULL,
+CONSTRAINT token_revogado_pkey PRIMARY KEY (jti)
+);
+
+CREATE TABLE IF NOT EXISTS financas.saldo_usuario (
+id_usuario bigint NOT NULL,
+saldo numeric(16, 2) DEFAULT 0 NOT NULL,
+versao bigint DEFAULT 0 NOT NULL,
+CONSTRAINT saldo_usuario_pkey PRIMARY KEY (id_usuario),
+CONSTRAINT saldo_usuario_usuario_fk FOREIGN KEY (id_usuario) REFERENCES financas.usuario(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS financas.resumo_mensal (
+id_usuario bigint NOT NULL,
+ano integer NOT NULL,
+mes integer NOT NULL,
+tipo varchar(20) NOT NULL,
+status varchar(20) NOT NULL,
+total numeric(16, 2) DEFAULT 0 NOT NULL,
+quantidade bigint DEFAULT 0 NOT NULL,
+CONSTRAINT resumo_mensal_pkey PRIMARY KEY (id_usuario, ano, mes, tipo, status),
+CONSTRAINT resumo_mensal_usuario_fk FOREIGN KEY (id_usuario) REFERENCES financas.usuario(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
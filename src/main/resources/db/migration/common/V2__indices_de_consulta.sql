@@ -0,0 +1,9 @@
+CREATE UNIQUE INDEX IF NOT EXISTS usuario_email_uk ON financas.usuario (email);
+
+CREATE INDEX IF NOT EXISTS lancamento_usuario_periodo_idx ON financas.lancamento (id_usuario, ano, mes, id);
+
+CREATE INDEX IF NOT EXISTS lancamento_usuario_tipo_status_idx ON financas.lancamento (id_usuario, tipo, status, valor);
+
+CREATE INDEX IF NOT EXISTS token_revogado_expiracao_idx ON financas.token_revogado (expiracao);
+
+CREATE INDEX IF NOT EXISTS categorias_lancamentos_lancamento_idx ON financas.categorias_lancamentos (id_lancamento);
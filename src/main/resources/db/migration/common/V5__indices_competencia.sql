@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS lancamento_usuario_competencia_idx ON financas.lancamento (id_usuario, competencia, id);
+
+CREATE INDEX IF NOT EXISTS lancamento_usuario_valor_idx ON financas.lancamento (id_usuario, valor, id);
+
+DROP INDEX IF EXISTS financas.lancamento_usuario_periodo_idx;
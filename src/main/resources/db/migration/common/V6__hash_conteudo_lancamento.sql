@@ -0,0 +1,3 @@
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS hash_conteudo varchar(64) NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS lancamento_usuario_hash_uk ON financas.lancamento (id_usuario, hash_conteudo);
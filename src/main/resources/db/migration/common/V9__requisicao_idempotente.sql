@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS financas.requisicao_idempotente (
+id_usuario bigint NOT NULL,
+chave varchar(255) NOT NULL,
+hash_requisicao varchar(64) NOT NULL,
+status integer NOT NULL,
+corpo varchar(4000) NULL,
+etag varchar(64) NULL,
+data_criacao timestamp NOT NULL,
+CONSTRAINT requisicao_idempotente_pkey PRIMARY KEY (id_usuario, chave),
+CONSTRAINT requisicao_idempotente_usuario_fk FOREIGN KEY (id_usuario) REFERENCES financas.usuario(id) ON DELETE CASCADE ON UPDATE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS requisicao_idempotente_data_criacao_idx ON financas.requisicao_idempotente (data_criacao);
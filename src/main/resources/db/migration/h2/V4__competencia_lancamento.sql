@@ -0,0 +1 @@
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS competencia integer AS (ano * 100 + mes);
@@ -0,0 +1,3 @@
+CREATE SEQUENCE IF NOT EXISTS financas.lancamento_seq START WITH 50 INCREMENT BY 50;
+
+ALTER TABLE financas.lancamento ALTER COLUMN id BIGINT NOT NULL;
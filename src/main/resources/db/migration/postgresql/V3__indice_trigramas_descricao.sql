@@ -0,0 +1,3 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS lancamento_descricao_trgm_idx ON financas.lancamento USING gin (lower(descricao) gin_trgm_ops);
@@ -0,0 +1 @@
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS competencia integer GENERATED ALWAYS AS (ano * 100 + mes) STORED;
@@ -0,0 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS financas.lancamento_seq INCREMENT BY 50;
+
+SELECT setval('financas.lancamento_seq', COALESCE(MAX(id), 0) + 50, false) FROM financas.lancamento;
+
+ALTER TABLE financas.lancamento ALTER COLUMN id DROP DEFAULT;
+
+DROP SEQUENCE IF EXISTS financas.lancamento_id_seq;
@@ -0,0 +1,97 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Registra as instruções SQL enviadas ao banco pela thread atual, para que os testes
+ * possam conferir quantas idas ao banco cada endpoint faz.
+ */
+@TestConfiguration
+public class ContadorSql implements BeanPostProcessor {
+
+	private static final ThreadLocal<List<String>> INSTRUCOES = new ThreadLocal<>();
+
+	public static void iniciar() {
+		INSTRUCOES.set(new ArrayList<>());
+	}
+
+	/**
+	 * Encerra a contagem e devolve as instruções executadas, em minúsculas e sem as
+	 * chamadas à sequência dos ids.
+	 */
+	public static List<String> encerrar() {
+		List<String> instrucoes = INSTRUCOES.get();
+		INSTRUCOES.remove();
+		return instrucoes.stream()
+			.map(sql -> sql.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+			.filter(sql -> !sql.contains("next value for") && !sql.contains("nextval("))
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource) {
+			DataSource dataSource = (DataSource) bean;
+			return proxy(DataSource.class, (alvo, metodo, args) -> {
+				Object resultado = invocar(dataSource, metodo, args);
+				return resultado instanceof Connection ? conexao((Connection) resultado) : resultado;
+			});
+		}
+		return bean;
+	}
+
+	private static Connection conexao(Connection conexao) {
+		return proxy(Connection.class, (alvo, metodo, args) -> {
+			if (metodo.getName().startsWith("prepare") && args != null && args[0] instanceof String) {
+				registrar((String) args[0]);
+			}
+			Object resultado = invocar(conexao, metodo, args);
+			return resultado instanceof Statement && "createStatement".equals(metodo.getName())
+					? instrucao((Statement) resultado) : resultado;
+		});
+	}
+
+	private static Statement instrucao(Statement instrucao) {
+		return proxy(Statement.class, (alvo, metodo, args) -> {
+			if (metodo.getName().startsWith("execute") && args != null && args[0] instanceof String) {
+				registrar((String) args[0]);
+			}
+			return invocar(instrucao, metodo, args);
+		});
+	}
+
+	private static void registrar(String sql) {
+		List<String> instrucoes = INSTRUCOES.get();
+		if (instrucoes != null) {
+			instrucoes.add(sql);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> tipo, InvocationHandler manipulador) {
+		return (T) Proxy.newProxyInstance(ContadorSql.class.getClassLoader(), new Class<?>[] { tipo }, manipulador);
+	}
+
+	private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+		try {
+			return metodo.invoke(alvo, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+}
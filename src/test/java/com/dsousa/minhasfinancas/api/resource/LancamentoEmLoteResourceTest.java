@@ -0,0 +1,103 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import com.dsousa.minhasfinancas.service.JwtService;
+import com.dsousa.minhasfinancas.service.LancamentoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Operações em lote com a cadeia de filtros de segurança ativa, autenticando pelo JWT.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LancamentoEmLoteResourceTest {
+
+	static final String API = "/api/lancamentos";
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	JwtService jwtService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Test
+	public void naoDeveAlterarNemRemoverEmLoteLancamentosDeOutroUsuario() throws Exception {
+		Usuario usuario = criarUsuario();
+		Usuario outroUsuario = criarUsuario();
+		Lancamento alheio = criarLancamento(outroUsuario);
+		String token = "Bearer " + jwtService.gerarToken(usuario);
+
+		mvc.perform(MockMvcRequestBuilders.put(API + "/atualiza-status")
+			.header(HttpHeaders.AUTHORIZATION, token)
+			.param("usuario", outroUsuario.getId().toString())
+			.param("ano", "2019")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("{\"status\":\"EFETIVADO\"}")).andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.delete(API)
+			.header(HttpHeaders.AUTHORIZATION, token)
+			.param("usuario", outroUsuario.getId().toString())
+			.param("ano", "2019")).andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.delete(API)
+			.header(HttpHeaders.AUTHORIZATION, token)
+			.param("ids", alheio.getId().toString()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("afetados").value(0));
+
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(outroUsuario.getId()).build()))
+			.extracting(LancamentoDTO::getStatus)
+			.containsExactly(StatusLancamento.PENDENTE.name());
+	}
+
+	@Test
+	public void naoDeveExecutarOperacoesEmLoteSemAutenticacao() throws Exception {
+		Usuario usuario = criarUsuario();
+		criarLancamento(usuario);
+
+		mvc.perform(
+				MockMvcRequestBuilders.delete(API).param("usuario", usuario.getId().toString()).param("ano", "2019"))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).build())).hasSize(1);
+	}
+
+	private Lancamento criarLancamento(Usuario usuario) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		return lancamentoService.salvar(lancamento);
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+}
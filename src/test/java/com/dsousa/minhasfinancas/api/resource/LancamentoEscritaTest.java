@@ -0,0 +1,293 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
+import com.dsousa.minhasfinancas.api.dto.AtualizaStatusDTO;
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import com.dsousa.minhasfinancas.service.LancamentoService;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@Import(ContadorSql.class)
+public class LancamentoEscritaTest {
+
+	static final String API = "/api/lancamentos";
+
+	@Autowired
+	MockMvc mvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@AfterEach
+	public void limparAutenticacao() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	public void deveCriarUmLancamentoComUmUnicoInsert() throws Exception {
+		Usuario usuario = criarUsuario();
+		autenticar(usuario);
+
+		ContadorSql.iniciar();
+		mvc.perform(json(MockMvcRequestBuilders.post(API), criarLancamento(usuario.getId())))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		List<String> instrucoes = ContadorSql.encerrar();
+
+		assertThat(instrucoes).filteredOn(LancamentoEscritaTest::escreveLancamento)
+			.hasSize(1)
+			.allMatch(sql -> sql.startsWith("insert into financas.lancamento "));
+		assertThat(instrucoes).noneMatch(sql -> sql.startsWith("select"));
+		assertThat(instrucoes).noneMatch(sql -> sql.contains("financas.usuario"));
+	}
+
+	@Test
+	public void deveAtualizarUmLancamentoComUmUnicoUpdate() throws Exception {
+		Usuario usuario = criarUsuario();
+		autenticar(usuario);
+		LancamentoDTO lancamento = criarLancamento(usuario.getId());
+		Long id = salvar(lancamento);
+		lancamento.setDescricao("aluguel reajustado");
+		lancamento.setValor(BigDecimal.valueOf(1200));
+
+		ContadorSql.iniciar();
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), lancamento).header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1\""))
+			.andExpect(MockMvcResultMatchers.jsonPath("id").value(id))
+			.andExpect(MockMvcResultMatchers.jsonPath("descricao").value("aluguel reajustado"));
+		List<String> instrucoes = ContadorSql.encerrar();
+
+		assertThat(instrucoes).filteredOn(LancamentoEscritaTest::escreveLancamento)
+			.hasSize(1)
+			.allMatch(sql -> sql.startsWith("update financas.lancamento "));
+		assertThat(instrucoes).noneMatch(sql -> sql.startsWith("select") || sql.startsWith("insert"));
+	}
+
+	@Test
+	public void deveRecusarAtualizacoesSobreUmaVersaoDesatualizada() throws Exception {
+		Usuario usuario = criarUsuario();
+		autenticar(usuario);
+		LancamentoDTO lancamento = criarLancamento(usuario.getId());
+		Long id = salvar(lancamento);
+		lancamento.setValor(BigDecimal.valueOf(1500));
+
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), lancamento).header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		lancamento.setValor(BigDecimal.valueOf(900));
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), lancamento).header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+		mvc.perform(status(id, "EFETIVADO").header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+		ContadorSql.iniciar();
+		mvc.perform(status(id, "EFETIVADO").header(HttpHeaders.IF_MATCH, "\"1\""))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2\""))
+			.andExpect(MockMvcResultMatchers.jsonPath("id").value(id))
+			.andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+		List<String> instrucoes = ContadorSql.encerrar();
+
+		assertThat(instrucoes).filteredOn(LancamentoEscritaTest::escreveLancamento).hasSize(1);
+		// A resposta relê o lançamento depois do UPDATE; a escrita em si não o consulta.
+		int escrita = instrucoes
+			.indexOf(instrucoes.stream().filter(LancamentoEscritaTest::escreveLancamento).findFirst().orElse(null));
+		assertThat(instrucoes.subList(0, escrita)).noneMatch(sql -> sql.startsWith("select"));
+		mvc.perform(MockMvcRequestBuilders.get(API + "/" + id))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2\""))
+			.andExpect(MockMvcResultMatchers.jsonPath("valor").value(1500))
+			.andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("-1500");
+	}
+
+	@Test
+	public void naoDeveAtualizarLancamentoInexistenteOuDeOutroUsuario() throws Exception {
+		Usuario usuario = criarUsuario();
+		Usuario outroUsuario = criarUsuario();
+		autenticar(usuario);
+		Long id = salvar(criarLancamento(usuario.getId()));
+		autenticar(outroUsuario);
+
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), criarLancamento(outroUsuario.getId()))
+			.header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Lancamento não encontrado na base de Dados."));
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + (id + 1000)), criarLancamento(outroUsuario.getId()))
+			.header(HttpHeaders.IF_MATCH, "\"0\"")).andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	public void naoDeveGravarLancamentoEmNomeDeOutroUsuario() throws Exception {
+		Usuario usuario = criarUsuario();
+		Usuario outroUsuario = criarUsuario();
+		autenticar(usuario);
+		LancamentoDTO lancamento = criarLancamento(usuario.getId());
+		Long id = salvar(lancamento);
+		autenticar(outroUsuario);
+		lancamento.setValor(BigDecimal.ONE);
+
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), lancamento).header(HttpHeaders.IF_MATCH, "\"0\""))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(json(MockMvcRequestBuilders.post(API), lancamento))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).build()))
+			.extracting(LancamentoDTO::getValor)
+			.usingElementComparator(BigDecimal::compareTo)
+			.containsExactly(BigDecimal.valueOf(1000));
+	}
+
+	@Test
+	public void deveExigirAVersaoAoAtualizar() throws Exception {
+		Usuario usuario = criarUsuario();
+		autenticar(usuario);
+		LancamentoDTO lancamento = criarLancamento(usuario.getId());
+		Long id = salvar(lancamento);
+
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), lancamento))
+			.andExpect(MockMvcResultMatchers.status().isPreconditionRequired());
+		lancamento.setVersao(0L);
+		mvc.perform(json(MockMvcRequestBuilders.put(API + "/" + id), lancamento))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"1\""));
+	}
+
+	@Test
+	public void deveDevolverARespostaOriginalAoRepetirAChaveDeIdempotencia() throws Exception {
+		Usuario usuario = criarUsuario();
+		LancamentoDTO lancamento = criarLancamento(usuario.getId());
+		autenticar(usuario);
+
+		String original = mvc
+			.perform(
+					json(MockMvcRequestBuilders.post(API), lancamento).header(LancamentoResource.IDEMPOTENCY_KEY, "k1"))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.header().string(LancamentoResource.IDEMPOTENT_REPLAYED, "false"))
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		ContadorSql.iniciar();
+		mvc.perform(json(MockMvcRequestBuilders.post(API), lancamento).header(LancamentoResource.IDEMPOTENCY_KEY, "k1"))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.header().string(LancamentoResource.IDEMPOTENT_REPLAYED, "true"))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"0\""))
+			.andExpect(MockMvcResultMatchers.content().json(original));
+		List<String> instrucoes = ContadorSql.encerrar();
+
+		assertThat(instrucoes).isEmpty();
+		lancamento.setValor(BigDecimal.valueOf(5));
+		mvc.perform(json(MockMvcRequestBuilders.post(API), lancamento).header(LancamentoResource.IDEMPOTENCY_KEY, "k1"))
+			.andExpect(MockMvcResultMatchers.status().isUnprocessableEntity());
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("0");
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).build())).hasSize(1);
+	}
+
+	@Test
+	public void naoDeveAceitarChaveDeIdempotenciaSemUsuarioAutenticado() throws Exception {
+		Usuario usuario = criarUsuario();
+
+		mvc.perform(json(MockMvcRequestBuilders.post(API), criarLancamento(usuario.getId()))
+			.header(LancamentoResource.IDEMPOTENCY_KEY, "k1")).andExpect(MockMvcResultMatchers.status().isForbidden());
+
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).build())).isEmpty();
+	}
+
+	@Test
+	public void naoDeveCriarLancamentoParaUsuarioInexistente() throws Exception {
+		autenticar(Usuario.builder().id(Long.MAX_VALUE).email("inexistente@email.com").nome("inexistente").build());
+		mvc.perform(json(MockMvcRequestBuilders.post(API), criarLancamento(Long.MAX_VALUE)))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Usuário não encontrado para o Id informado."));
+	}
+
+	private static boolean escreveLancamento(String sql) {
+		return sql.startsWith("insert into financas.lancamento ") || sql.startsWith("update financas.lancamento ")
+				|| sql.startsWith("delete from financas.lancamento ");
+	}
+
+	private MockHttpServletRequestBuilder status(Long id, String status) throws Exception {
+		return MockMvcRequestBuilders.put(API + "/" + id + "/atualiza-status")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(new AtualizaStatusDTO(status)));
+	}
+
+	private static void autenticar(Usuario usuario) {
+		UsuarioAutenticado autenticado = new UsuarioAutenticado(usuario.getId(), usuario.getEmail(), usuario.getNome(),
+				null);
+		SecurityContextHolder.getContext()
+			.setAuthentication(
+					new UsernamePasswordAuthenticationToken(autenticado, null, autenticado.getAuthorities()));
+	}
+
+	private Long salvar(LancamentoDTO lancamento) throws Exception {
+		String resposta = mvc.perform(json(MockMvcRequestBuilders.post(API), lancamento))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		return objectMapper.readValue(resposta, LancamentoDTO.class).getId();
+	}
+
+	private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder requisicao, LancamentoDTO lancamento)
+			throws Exception {
+		return requisicao.contentType(MediaType.APPLICATION_JSON)
+			.accept(MediaType.APPLICATION_JSON)
+			.content(objectMapper.writeValueAsString(lancamento));
+	}
+
+	private LancamentoDTO criarLancamento(Long idUsuario) {
+		return LancamentoDTO.builder()
+			.descricao("aluguel")
+			.ano(2020)
+			.mes(1)
+			.valor(BigDecimal.valueOf(1000))
+			.tipo("DESPESA")
+			.status("PENDENTE")
+			.usuario(idUsuario)
+			.build();
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+}
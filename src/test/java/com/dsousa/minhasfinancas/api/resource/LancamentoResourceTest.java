@@ -0,0 +1,283 @@
+package com.dsousa.minhasfinancas.api.resource;
+
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioImportacao;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.importacao.LeitorExtrato;
+import com.dsousa.minhasfinancas.model.importacao.LeitorExtratoCsv;
+import com.dsousa.minhasfinancas.service.JwtService;
+import com.dsousa.minhasfinancas.service.LancamentoService;
+import com.dsousa.minhasfinancas.service.LimiteLoginService;
+import com.dsousa.minhasfinancas.service.ResumoMensalService;
+import com.dsousa.minhasfinancas.service.RevogacaoTokenService;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
+import com.dsousa.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LancamentoResourceTest {
+
+	static final String API = "/api/lancamentos";
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	UsuarioService service;
+
+	@MockBean
+	LancamentoService lancamentoService;
+
+	@MockBean
+	JwtService jwtService;
+
+	@MockBean
+	LimiteLoginService limiteLoginService;
+
+	@MockBean
+	RevogacaoTokenService revogacaoTokenService;
+
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+
+	@MockBean
+	ResumoMensalService resumoMensalService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveTransmitirOsLancamentosComoNdjson() throws Exception {
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		Mockito.doAnswer(invocacao -> {
+			Consumer<LancamentoDTO> consumidor = invocacao.getArgument(1);
+			for (long id = 1; id <= 3; id++) {
+				consumidor.accept(LancamentoDTO.builder()
+					.id(id)
+					.descricao("lancamento " + id)
+					.ano(2020)
+					.mes(1)
+					.valor(BigDecimal.TEN)
+					.usuario(1L)
+					.tipo("RECEITA")
+					.status("PENDENTE")
+					.build());
+			}
+			return null;
+		}).when(lancamentoService).exportar(Mockito.any(FiltroLancamento.class), Mockito.any(Consumer.class));
+
+		MvcResult resultado = mvc
+			.perform(MockMvcRequestBuilders.get(API)
+				.param("usuario", "1")
+				.param("ano", "2020")
+				.accept(LancamentoResource.APPLICATION_NDJSON))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(LancamentoResource.APPLICATION_NDJSON))
+			.andReturn();
+
+		String[] linhas = resultado.getResponse().getContentAsString().split("\n");
+		assertThat(linhas).hasSize(3);
+		ObjectMapper mapper = new ObjectMapper();
+		for (int i = 0; i < linhas.length; i++) {
+			LancamentoDTO dto = mapper.readValue(linhas[i], LancamentoDTO.class);
+			assertThat(dto.getId()).isEqualTo(i + 1L);
+			assertThat(dto.getDescricao()).isEqualTo("lancamento " + (i + 1));
+		}
+		ArgumentCaptor<FiltroLancamento> filtro = ArgumentCaptor.forClass(FiltroLancamento.class);
+		Mockito.verify(lancamentoService).exportar(filtro.capture(), Mockito.any(Consumer.class));
+		assertThat(filtro.getValue().getIdUsuario()).isEqualTo(1L);
+		assertThat(filtro.getValue().getAno()).isEqualTo(2020);
+	}
+
+	@Test
+	public void deveExportarOsLancamentosEmCsvCompactadoQuandoOClienteAceitaGzip() throws Exception {
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		Mockito.doAnswer(invocacao -> {
+			Writer escritor = invocacao.getArgument(1);
+			escritor.write("id;descricao\r\n1;aluguel\r\n");
+			return 1L;
+		}).when(lancamentoService).exportarCsv(Mockito.any(FiltroLancamento.class), Mockito.any(Writer.class));
+
+		MvcResult resultado = mvc
+			.perform(MockMvcRequestBuilders.get(API)
+				.param("usuario", "1")
+				.param("ano", "2020")
+				.header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8")
+				.accept(LancamentoResource.TEXT_CSV))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(LancamentoResource.TEXT_CSV))
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn();
+
+		try (GZIPInputStream entrada = new GZIPInputStream(
+				new ByteArrayInputStream(resultado.getResponse().getContentAsByteArray()))) {
+			assertThat(StreamUtils.copyToString(entrada, StandardCharsets.UTF_8))
+				.isEqualTo("id;descricao\r\n1;aluguel\r\n");
+		}
+
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").accept(LancamentoResource.TEXT_CSV))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andExpect(MockMvcResultMatchers.content().string("id;descricao\r\n1;aluguel\r\n"));
+	}
+
+	@Test
+	public void deveRepassarOsFiltrosDeFaixaEOrdenacaoParaABusca() throws Exception {
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		Mockito.when(lancamentoService.buscar(Mockito.any(FiltroLancamento.class))).thenReturn(Collections.emptyList());
+		mvc.perform(MockMvcRequestBuilders.get(API)
+			.param("usuario", "1")
+			.param("anoInicial", "2020")
+			.param("mesInicial", "11")
+			.param("anoFinal", "2021")
+			.param("valorMinimo", "10.50")
+			.param("tipo", "DESPESA")
+			.param("status", "EFETIVADO")
+			.param("ordenacao", "-valor")).andExpect(MockMvcResultMatchers.status().isOk());
+
+		ArgumentCaptor<FiltroLancamento> filtro = ArgumentCaptor.forClass(FiltroLancamento.class);
+		Mockito.verify(lancamentoService).buscar(filtro.capture());
+		assertThat(filtro.getValue().getCompetenciaInicial()).isEqualTo(202011);
+		assertThat(filtro.getValue().getCompetenciaFinal()).isEqualTo(202112);
+		assertThat(filtro.getValue().getValorMinimo()).isEqualByComparingTo("10.50");
+		assertThat(filtro.getValue().getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		assertThat(filtro.getValue().getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		assertThat(filtro.getValue().getOrdenacao()).isEqualTo(OrdenacaoLancamento.VALOR_DECRESCENTE);
+	}
+
+	@Test
+	public void deveRetornarBadRequestParaOrdenacaoInvalida() throws Exception {
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "1").param("ordenacao", "descricao"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Informe uma ordenação válida."));
+	}
+
+	@Test
+	public void deveRetornarBadRequestAoTransmitirLancamentosDeUsuarioInexistente() throws Exception {
+		Mockito.when(service.obterPorId(2L)).thenReturn(Optional.empty());
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", "2").accept(LancamentoResource.APPLICATION_NDJSON))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+
+	@Test
+	public void deveImportarOExtratoEnviadoNoCorpoDaRequisicao() throws Exception {
+		Usuario usuario = Usuario.builder().id(1L).build();
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(usuario));
+		RelatorioImportacao relatorio = new RelatorioImportacao();
+		relatorio.setImportados(1);
+		ArgumentCaptor<LeitorExtrato> leitor = ArgumentCaptor.forClass(LeitorExtrato.class);
+		Mockito.when(lancamentoService.importar(Mockito.eq(usuario), leitor.capture())).thenReturn(relatorio);
+
+		mvc.perform(MockMvcRequestBuilders.post(API + "/importacao")
+			.param("usuario", "1")
+			.contentType("text/csv")
+			.content("data;descricao;valor\n05/01/2020;Salário;5.000,00\n".getBytes(StandardCharsets.UTF_8)))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(1));
+
+		assertThat(leitor.getValue()).isInstanceOf(LeitorExtratoCsv.class);
+	}
+
+	@Test
+	public void deveRetornarBadRequestAoImportarCsvSemCabecalho() throws Exception {
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(Usuario.builder().id(1L).build()));
+		mvc.perform(MockMvcRequestBuilders.post(API + "/importacao").param("usuario", "1").contentType("text/csv"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("O extrato informado está vazio."));
+	}
+
+	@Test
+	public void deveAtualizarOStatusEmLoteDosIdsEFiltroInformados() throws Exception {
+		autenticar(1L);
+		ArgumentCaptor<FiltroLancamento> filtro = ArgumentCaptor.forClass(FiltroLancamento.class);
+		Mockito.when(lancamentoService.atualizarStatusEmLote(filtro.capture(), Mockito.eq(StatusLancamento.EFETIVADO)))
+			.thenReturn(2);
+
+		mvc.perform(MockMvcRequestBuilders.put(API + "/atualiza-status")
+			.param("usuario", "1")
+			.param("ids", "10", "11")
+			.param("tipo", "DESPESA")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("{\"status\":\"EFETIVADO\"}"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("afetados").value(2));
+
+		assertThat(filtro.getValue().getIdUsuario()).isEqualTo(1L);
+		assertThat(filtro.getValue().getIds()).containsExactlyInAnyOrder(10L, 11L);
+		assertThat(filtro.getValue().getTipo()).isEqualTo(TipoLancamento.DESPESA);
+	}
+
+	@Test
+	public void deveRetornarBadRequestAoRemoverEmLoteComStatusDeFiltroInvalido() throws Exception {
+		autenticar(1L);
+		mvc.perform(MockMvcRequestBuilders.delete(API).param("status", "PAGO"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Informe um tipo e status de Lançamento válidos."));
+		Mockito.verify(lancamentoService, Mockito.never()).deletarEmLote(Mockito.any());
+	}
+
+	@Test
+	public void naoDeveAlterarEmLoteLancamentosDeOutroUsuario() throws Exception {
+		autenticar(1L);
+		mvc.perform(MockMvcRequestBuilders.delete(API).param("usuario", "2").param("ids", "10"))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.put(API + "/atualiza-status")
+			.param("usuario", "2")
+			.param("ids", "10")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content("{\"status\":\"EFETIVADO\"}")).andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(lancamentoService, Mockito.never()).deletarEmLote(Mockito.any());
+		Mockito.verify(lancamentoService, Mockito.never()).atualizarStatusEmLote(Mockito.any(), Mockito.any());
+	}
+
+	@AfterEach
+	public void limparAutenticacao() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private static void autenticar(Long idUsuario) {
+		UsuarioAutenticado autenticado = new UsuarioAutenticado(idUsuario, "usuario@email.com", "usuario", null);
+		SecurityContextHolder.getContext()
+			.setAuthentication(
+					new UsernamePasswordAuthenticationToken(autenticado, null, autenticado.getAuthorities()));
+	}
+
+}
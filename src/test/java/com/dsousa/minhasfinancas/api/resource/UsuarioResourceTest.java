@@ -1,13 +1,28 @@
 package com.dsousa.minhasfinancas.api.resource;
 
+import com.dsousa.minhasfinancas.api.UsuarioAutenticado;
+import com.dsousa.minhasfinancas.api.dto.RenovacaoTokenDTO;
 import com.dsousa.minhasfinancas.api.dto.UsuarioDTO;
 import com.dsousa.minhasfinancas.exception.ErroAutenticacao;
 import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.exception.ServicoSobrecarregadoException;
+import com.dsousa.minhasfinancas.exception.TentativasExcedidasException;
+import com.dsousa.minhasfinancas.model.consulta.PontoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.ResumoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.TotalLancamentos;
 import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
 import com.dsousa.minhasfinancas.service.JwtService;
 import com.dsousa.minhasfinancas.service.LancamentoService;
+import com.dsousa.minhasfinancas.service.LimiteLoginService;
+import com.dsousa.minhasfinancas.service.ResumoMensalService;
+import com.dsousa.minhasfinancas.service.RevogacaoTokenService;
+import com.dsousa.minhasfinancas.service.SaldoUsuarioService;
 import com.dsousa.minhasfinancas.service.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -16,6 +31,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,6 +41,9 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.Optional;
 
 @SpringBootTest
@@ -47,6 +67,18 @@ public class UsuarioResourceTest {
 	@MockBean
 	JwtService jwtService;
 
+	@MockBean
+	LimiteLoginService limiteLoginService;
+
+	@MockBean
+	RevogacaoTokenService revogacaoTokenService;
+
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+
+	@MockBean
+	ResumoMensalService resumoMensalService;
+
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
 		String email = "usuario@email.com";
@@ -78,6 +110,77 @@ public class UsuarioResourceTest {
 		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
 	}
 
+	@Test
+	public void deveRetornarServiceUnavailableQuandoOServicoDeSenhasEstiverSobrecarregado() throws Exception {
+		String email = "usuario@email.com";
+		String senha = "123";
+		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
+		Mockito.when(service.autenticar(email, senha))
+			.thenThrow(new ServicoSobrecarregadoException("Serviço sobrecarregado.", 2));
+		String json = new ObjectMapper().writeValueAsString(dto);
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar"))
+			.accept(JSON)
+			.contentType(JSON)
+			.content(json);
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+			.andExpect(MockMvcResultMatchers.header().string("Retry-After", "2"));
+	}
+
+	@Test
+	public void deveRetornarTooManyRequestsSemAutenticarQuandoOLimiteDeTentativasForExcedido() throws Exception {
+		String email = "usuario@email.com";
+		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha("123").build();
+		Mockito.doThrow(new TentativasExcedidasException("Muitas tentativas.", 12))
+			.when(limiteLoginService)
+			.registrarTentativa(Mockito.eq(email), Mockito.anyString());
+		String json = new ObjectMapper().writeValueAsString(dto);
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar"))
+			.accept(JSON)
+			.contentType(JSON)
+			.content(json);
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+			.andExpect(MockMvcResultMatchers.header().string("Retry-After", "12"));
+		Mockito.verify(service, Mockito.never()).autenticar(Mockito.anyString(), Mockito.anyString());
+	}
+
+	@Test
+	public void deveRenovarOsTokensComUmRefreshTokenValido() throws Exception {
+		Claims claims = Jwts.claims().setSubject("usuario@email.com").setId("jti-refresh");
+		claims.setExpiration(new Date(System.currentTimeMillis() + 60000));
+		claims.put("userid", 1L);
+		claims.put("nome", "usuario");
+		Mockito.when(jwtService.obterClaimsRefreshValidas("refresh")).thenReturn(Optional.of(claims));
+		Mockito.when(revogacaoTokenService.revogar(Mockito.eq("jti-refresh"), Mockito.any())).thenReturn(true);
+		Mockito.when(jwtService.gerarToken(Mockito.any(Usuario.class))).thenReturn("novo-token");
+		Mockito.when(jwtService.gerarRefreshToken(Mockito.any(Usuario.class))).thenReturn("novo-refresh");
+		String json = new ObjectMapper().writeValueAsString(new RenovacaoTokenDTO("refresh"));
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/renovar-token"))
+			.accept(JSON)
+			.contentType(JSON)
+			.content(json);
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("token").value("novo-token"))
+			.andExpect(MockMvcResultMatchers.jsonPath("refreshToken").value("novo-refresh"));
+		Mockito.verify(service, Mockito.never()).autenticar(Mockito.anyString(), Mockito.anyString());
+	}
+
+	@Test
+	public void deveRetornarUnauthorizedAoReutilizarUmRefreshToken() throws Exception {
+		Claims claims = Jwts.claims().setSubject("usuario@email.com").setId("jti-usado");
+		claims.setExpiration(new Date(System.currentTimeMillis() + 60000));
+		Mockito.when(jwtService.obterClaimsRefreshValidas("refresh")).thenReturn(Optional.of(claims));
+		Mockito.when(revogacaoTokenService.revogar(Mockito.eq("jti-usado"), Mockito.any())).thenReturn(false);
+		String json = new ObjectMapper().writeValueAsString(new RenovacaoTokenDTO("refresh"));
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/renovar-token"))
+			.accept(JSON)
+			.contentType(JSON)
+			.content(json);
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+
 	@Test
 	public void deveCriarUmNovoUsuario() throws Exception {
 		String email = "usuario@email.com";
@@ -123,6 +226,68 @@ public class UsuarioResourceTest {
 			.andExpect(MockMvcResultMatchers.content().string("10"));
 	}
 
+	@Test
+	public void deveObterOSaldoDoUsuarioAutenticadoSemConsultarOBanco() throws Exception {
+		UsuarioAutenticado autenticado = new UsuarioAutenticado(1L, "usuario@email.com", "usuario", null);
+		SecurityContextHolder.getContext()
+			.setAuthentication(
+					new UsernamePasswordAuthenticationToken(autenticado, null, autenticado.getAuthorities()));
+		try {
+			Mockito.when(lancamentoService.obterSaldoPorUsuario(1L)).thenReturn(BigDecimal.valueOf(10));
+			MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo"))
+				.accept(JSON)
+				.contentType(JSON);
+			mvc.perform(request)
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().string("10"));
+			Mockito.verify(service, Mockito.never()).obterPorId(Mockito.anyLong());
+		}
+		finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+
+	@Test
+	public void deveObterOResumoDoSaldoDoUsuario() throws Exception {
+		Usuario usuario = Usuario.builder().id(1L).email("usuario@email.com").senha("123").build();
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(lancamentoService.obterResumoSaldo(1L, 2020, null))
+			.thenReturn(
+					ResumoSaldo.de(2020, null, Collections.singletonList(new TotalLancamentos(TipoLancamento.RECEITA,
+							StatusLancamento.EFETIVADO, BigDecimal.valueOf(10), 1L))));
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo/detalhado"))
+			.param("ano", "2020")
+			.accept(JSON);
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("saldo").value(10))
+			.andExpect(MockMvcResultMatchers.jsonPath("totais.length()").value(6));
+	}
+
+	@Test
+	public void deveObterOHistoricoDoSaldoComETagDaVersaoDoSaldo() throws Exception {
+		Usuario usuario = Usuario.builder().id(1L).email("usuario@email.com").senha("123").build();
+		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.of(usuario));
+		Mockito.when(saldoUsuarioService.obterVersao(1L)).thenReturn(7L);
+		Mockito.when(resumoMensalService.obterHistoricoSaldo(1L, 2020, 1, 2020, 2))
+			.thenReturn(Arrays.asList(new PontoSaldo(2020, 1, BigDecimal.TEN, BigDecimal.TEN),
+					new PontoSaldo(2020, 2, BigDecimal.ZERO, BigDecimal.TEN)));
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo/historico"))
+			.param("anoInicial", "2020")
+			.param("mesInicial", "1")
+			.param("anoFinal", "2020")
+			.param("mesFinal", "2")
+			.accept(JSON);
+		mvc.perform(request)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string("ETag", "W/\"7\""))
+			.andExpect(MockMvcResultMatchers.jsonPath("[1].saldo").value(10));
+
+		mvc.perform(request.header("If-None-Match", "W/\"7\""))
+			.andExpect(MockMvcResultMatchers.status().isNotModified());
+		Mockito.verify(resumoMensalService, Mockito.times(1)).obterHistoricoSaldo(1L, 2020, 1, 2020, 2);
+	}
+
 	@Test
 	public void deveRetornarResourceNotFoundQuandoUsuarioNaoExisteParaObterOSaldo() throws Exception {
 		Mockito.when(service.obterPorId(1L)).thenReturn(Optional.empty());
@@ -1,8 +1,16 @@
 package com.dsousa.minhasfinancas.model.repository;
 
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.CursorLancamento;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.TotalLancamentos;
 import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
 import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
 import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.exportacao.EscritorCsvLancamento;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +21,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,6 +48,7 @@ public class LancamentoRepositoryTest {
 	@Test
 	public void deveSalvarUmLancamento() {
 		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(persistirUsuario());
 		lancamento = repository.save(lancamento);
 		assertThat(lancamento.getId()).isNotNull();
 	}
@@ -60,6 +75,29 @@ public class LancamentoRepositoryTest {
 		assertThat(lancamentoAtualizado.getStatus()).isEqualTo(StatusLancamento.CANCELADO);
 	}
 
+	@Test
+	public void deveAtualizarOsCamposSoNaVersaoInformada() {
+		Lancamento lancamento = criarEPersistirUmLancamento();
+		entityManager.flush();
+		Lancamento alterado = criarLancamento();
+		alterado.setId(lancamento.getId());
+		alterado.setUsuario(lancamento.getUsuario());
+		alterado.setDescricao("Teste Atualizar");
+		alterado.setTipo(null);
+		alterado.setVersao(lancamento.getVersao() + 1);
+
+		assertThat(repository.atualizar(alterado)).isZero();
+
+		alterado.setVersao(lancamento.getVersao());
+		assertThat(repository.atualizar(alterado)).isEqualTo(1);
+		assertThat(repository.atualizarStatus(alterado, StatusLancamento.EFETIVADO)).isZero();
+		entityManager.clear();
+		Lancamento lancamentoAtualizado = entityManager.find(Lancamento.class, lancamento.getId());
+		assertThat(lancamentoAtualizado.getDescricao()).isEqualTo("Teste Atualizar");
+		assertThat(lancamentoAtualizado.getTipo()).isNull();
+		assertThat(lancamentoAtualizado.getVersao()).isEqualTo(lancamento.getVersao() + 1);
+	}
+
 	@Test
 	public void deveBuscarUmLancamentoPorId() {
 		Lancamento lancamento = criarEPersistirUmLancamento();
@@ -67,12 +105,295 @@ public class LancamentoRepositoryTest {
 		assertThat(lancamentoEncontrado.isPresent()).isTrue();
 	}
 
+	@Test
+	public void deveCarregarOUsuarioDoLancamentoSobDemanda() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("lazy@email.com").senha("senha").build());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		entityManager.persistAndFlush(lancamento);
+		entityManager.clear();
+
+		Lancamento encontrado = repository.findById(lancamento.getId()).get();
+
+		assertThat(Hibernate.isInitialized(encontrado.getUsuario())).isFalse();
+		assertThat(encontrado.getUsuario().getId()).isEqualTo(usuario.getId());
+		assertThat(Hibernate.isInitialized(encontrado.getUsuario())).isFalse();
+	}
+
+	@Test
+	public void deveAgruparOsTotaisPorTipoEStatus() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("totais@email.com").senha("senha").build());
+		persistirLancamento(usuario, 2020, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100);
+		persistirLancamento(usuario, 2020, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50);
+		persistirLancamento(usuario, 2020, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30);
+		persistirLancamento(usuario, 2021, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 20);
+
+		List<TotalLancamentos> totais = repository.obterTotaisPorTipoEStatus(usuario.getId(), null, null);
+		assertThat(totais).hasSize(3);
+		assertThat(totais).anySatisfy(total -> {
+			assertThat(total.getTipo()).isEqualTo(TipoLancamento.RECEITA);
+			assertThat(total.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+			assertThat(total.getTotal()).isEqualByComparingTo("150");
+			assertThat(total.getQuantidade()).isEqualTo(2L);
+		});
+
+		List<TotalLancamentos> totaisDoAno = repository.obterTotaisPorTipoEStatus(usuario.getId(), 2021, 1);
+		assertThat(totaisDoAno).hasSize(1);
+		assertThat(totaisDoAno.get(0).getTotal()).isEqualByComparingTo("20");
+	}
+
+	@Test
+	public void devePercorrerOsLancamentosPorCursorNaOrdemAnoMesId() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("cursor@email.com").senha("senha").build());
+		int[][] periodos = { { 2021, 3 }, { 2020, 12 }, { 2021, 1 }, { 2020, 12 }, { 2021, 3 }, { 2019, 7 } };
+		for (int[] periodo : periodos) {
+			Lancamento lancamento = criarLancamento();
+			lancamento.setUsuario(usuario);
+			lancamento.setAno(periodo[0]);
+			lancamento.setMes(periodo[1]);
+			entityManager.persist(lancamento);
+		}
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).build();
+
+		List<LancamentoDTO> lidos = new ArrayList<>();
+		CursorLancamento cursor = null;
+		List<LancamentoDTO> pagina;
+		do {
+			pagina = repository.buscarApos(filtro, cursor, 4);
+			lidos.addAll(pagina.subList(0, Math.min(pagina.size(), 3)));
+			cursor = lidos.isEmpty() ? null : CursorLancamento.de(lidos.get(lidos.size() - 1), filtro.getOrdenacao());
+		}
+		while (pagina.size() > 3);
+
+		assertThat(lidos).hasSize(periodos.length);
+		assertThat(lidos).extracting(l -> l.getAno() * 100 + l.getMes())
+			.containsExactly(201907, 202012, 202012, 202101, 202103, 202103);
+		assertThat(lidos.get(1).getId()).isLessThan(lidos.get(2).getId());
+	}
+
+	@Test
+	public void deveFiltrarPorPeriodoEntreAnosFaixaDeValorTipoEStatus() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("faixas@email.com").senha("senha").build());
+		Lancamento dentro = persistirLancamento(usuario, 2020, 11, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO,
+				50);
+		Lancamento outroDentro = persistirLancamento(usuario, 2021, 2, TipoLancamento.DESPESA,
+				StatusLancamento.EFETIVADO, 80);
+		persistirLancamento(usuario, 2020, 10, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 50);
+		persistirLancamento(usuario, 2021, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 50);
+		persistirLancamento(usuario, 2020, 12, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 500);
+		persistirLancamento(usuario, 2020, 12, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 50);
+		persistirLancamento(usuario, 2020, 12, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 50);
+		FiltroLancamento filtro = FiltroLancamento.builder()
+			.idUsuario(usuario.getId())
+			.anoInicial(2020)
+			.mesInicial(11)
+			.anoFinal(2021)
+			.mesFinal(2)
+			.valorMinimo(BigDecimal.valueOf(50))
+			.valorMaximo(BigDecimal.valueOf(100))
+			.tipo(TipoLancamento.DESPESA)
+			.status(StatusLancamento.EFETIVADO)
+			.ordenacao(OrdenacaoLancamento.COMPETENCIA_DECRESCENTE)
+			.build();
+
+		List<LancamentoDTO> encontrados = repository.buscarApos(filtro, null, 10);
+
+		assertThat(encontrados).extracting(LancamentoDTO::getId).containsExactly(outroDentro.getId(), dentro.getId());
+	}
+
+	@Test
+	public void devePaginarPorValorDecrescente() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("valor@email.com").senha("senha").build());
+		int[] valores = { 30, 10, 50, 30, 20 };
+		for (int valor : valores) {
+			persistirLancamento(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, valor);
+		}
+		FiltroLancamento filtro = FiltroLancamento.builder()
+			.idUsuario(usuario.getId())
+			.ordenacao(OrdenacaoLancamento.VALOR_DECRESCENTE)
+			.build();
+
+		List<LancamentoDTO> lidos = new ArrayList<>();
+		List<LancamentoDTO> pagina = repository.buscarApos(filtro, null, 2);
+		while (!pagina.isEmpty()) {
+			lidos.addAll(pagina);
+			CursorLancamento cursor = CursorLancamento.de(pagina.get(pagina.size() - 1), filtro.getOrdenacao());
+			pagina = repository.buscarApos(filtro,
+					CursorLancamento.decodificar(cursor.codificar(), filtro.getOrdenacao()), 2);
+		}
+
+		assertThat(lidos).extracting(l -> l.getValor().intValue()).containsExactly(50, 30, 30, 20, 10);
+		assertThat(lidos.get(1).getId()).isGreaterThan(lidos.get(2).getId());
+	}
+
+	@Test
+	public void devePercorrerOsLancamentosFiltradosComoProjecao() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("exportacao@email.com").senha("senha").build());
+		persistirLancamento(usuario, 2021, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 30);
+		persistirLancamento(usuario, 2020, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		persistirLancamento(usuario, 2020, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 20);
+		persistirLancamento(usuario, 2019, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 40);
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(usuario.getId()).descricao("QUALQUER").build();
+
+		List<LancamentoDTO> lidos = new ArrayList<>();
+		repository.percorrer(filtro, 2, lidos::add);
+
+		assertThat(lidos).extracting(LancamentoDTO::getAno).containsExactly(2019, 2020, 2020, 2021);
+		assertThat(lidos).extracting(LancamentoDTO::getUsuario).containsOnly(usuario.getId());
+		assertThat(lidos.get(1).getId()).isLessThan(lidos.get(2).getId());
+		assertThat(lidos.get(3).getTipo()).isEqualTo("DESPESA");
+		assertThat(lidos.get(3).getStatus()).isEqualTo("EFETIVADO");
+		assertThat(lidos.get(3).getValor()).isEqualByComparingTo("30");
+	}
+
+	@Test
+	public void devePercorrerAsColunasDoCursorEscrevendoCsv() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("csv@email.com").senha("senha").build());
+		Lancamento aluguel = persistirLancamento(usuario, 2020, 2, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO,
+				1200);
+		aluguel.setDescricao("aluguel; \"centro\"");
+		aluguel.setValor(new BigDecimal("1234.50"));
+		Lancamento cafe = persistirLancamento(usuario, 2020, 1, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 1);
+		cafe.setValor(new BigDecimal("0.05"));
+		persistirLancamento(usuario, 2020, 1, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10);
+		entityManager.flush();
+		StringWriter csv = new StringWriter();
+		EscritorCsvLancamento escritor = new EscritorCsvLancamento(csv);
+
+		repository.percorrerColunas(
+				FiltroLancamento.builder().idUsuario(usuario.getId()).ano(2020).tipo(TipoLancamento.DESPESA).build(), 1,
+				escritor);
+
+		assertThat(escritor.getLinhas()).isEqualTo(2);
+		assertThat(csv.toString()).isEqualTo(cafe.getId() + ";lancamento qualquer;2020;1;0,05;DESPESA;PENDENTE\r\n"
+				+ aluguel.getId() + ";\"aluguel; \"\"centro\"\"\";2020;2;1234,50;DESPESA;EFETIVADO\r\n");
+	}
+
+	@Test
+	public void deveExportarEmCsvOsMesmosLancamentosDaListagemParaTodosOsFiltros() {
+		Usuario usuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("filtros@email.com").senha("senha").build());
+		Usuario outroUsuario = entityManager
+			.persist(Usuario.builder().nome("usuario").email("outros-filtros@email.com").senha("senha").build());
+		List<Long> ids = new ArrayList<>();
+		Long mercado = persistirLancamento(usuario, "Mercado_Centro", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 50)
+			.getId();
+		Long feira = persistirLancamento(usuario, "feira o_c", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 80)
+			.getId();
+		Long anoAnterior = persistirLancamento(usuario, "mercado_centro", 2019, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 70)
+			.getId();
+		ids.addAll(Arrays.asList(mercado, feira, anoAnterior));
+		ids.add(persistirLancamento(usuario, "mercadoXcentro", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 50)
+			.getId());
+		ids.add(persistirLancamento(usuario, "mercado_centro", 2020, 4, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 50)
+			.getId());
+		ids.add(persistirLancamento(usuario, "mercado_centro", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 5)
+			.getId());
+		ids.add(persistirLancamento(usuario, "mercado_centro", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 500)
+			.getId());
+		ids.add(persistirLancamento(usuario, "mercado_centro", 2020, 3, TipoLancamento.RECEITA,
+				StatusLancamento.PENDENTE, 50)
+			.getId());
+		ids.add(persistirLancamento(usuario, "mercado_centro", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.EFETIVADO, 50)
+			.getId());
+		ids.add(persistirLancamento(outroUsuario, "mercado_centro", 2020, 3, TipoLancamento.DESPESA,
+				StatusLancamento.PENDENTE, 50)
+			.getId());
+		persistirLancamento(usuario, "mercado_centro", 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 60);
+		entityManager.flush();
+		FiltroLancamento filtro = FiltroLancamento.builder()
+			.idUsuario(usuario.getId())
+			.descricao("O_C")
+			.ano(2020)
+			.mes(3)
+			.anoInicial(2019)
+			.mesInicial(2)
+			.anoFinal(2021)
+			.mesFinal(1)
+			.valorMinimo(BigDecimal.TEN)
+			.valorMaximo(BigDecimal.valueOf(100))
+			.tipo(TipoLancamento.DESPESA)
+			.status(StatusLancamento.PENDENTE)
+			.ordenacao(OrdenacaoLancamento.VALOR_DECRESCENTE)
+			.ids(new HashSet<>(ids))
+			.build();
+
+		assertThat(idsDaListagem(filtro)).containsExactly(feira, mercado);
+		assertThat(idsDoCsv(filtro)).containsExactlyElementsOf(idsDaListagem(filtro));
+
+		filtro.setAno(null);
+
+		assertThat(idsDaListagem(filtro)).containsExactly(feira, anoAnterior, mercado);
+		assertThat(idsDoCsv(filtro)).containsExactlyElementsOf(idsDaListagem(filtro));
+	}
+
+	private List<Long> idsDaListagem(FiltroLancamento filtro) {
+		return repository.buscarApos(filtro, null, Integer.MAX_VALUE)
+			.stream()
+			.map(LancamentoDTO::getId)
+			.collect(Collectors.toList());
+	}
+
+	private List<Long> idsDoCsv(FiltroLancamento filtro) {
+		StringWriter csv = new StringWriter();
+		repository.percorrerColunas(filtro, 2, new EscritorCsvLancamento(csv));
+		return Arrays.stream(csv.toString().split("\r\n"))
+			.filter(linha -> !linha.isEmpty())
+			.map(linha -> Long.valueOf(linha.substring(0, linha.indexOf(';'))))
+			.collect(Collectors.toList());
+	}
+
+	private Lancamento persistirLancamento(Usuario usuario, String descricao, int ano, int mes, TipoLancamento tipo,
+			StatusLancamento status, int valor) {
+		Lancamento lancamento = persistirLancamento(usuario, ano, mes, tipo, status, valor);
+		lancamento.setDescricao(descricao);
+		return lancamento;
+	}
+
+	private void persistirLancamento(Usuario usuario, int ano, TipoLancamento tipo, StatusLancamento status,
+			int valor) {
+		persistirLancamento(usuario, ano, 1, tipo, status, valor);
+	}
+
+	private Lancamento persistirLancamento(Usuario usuario, int ano, int mes, TipoLancamento tipo,
+			StatusLancamento status, int valor) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setMes(mes);
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setTipo(tipo);
+		lancamento.setStatus(status);
+		lancamento.setValor(BigDecimal.valueOf(valor));
+		return entityManager.persist(lancamento);
+	}
+
 	private Lancamento criarEPersistirUmLancamento() {
 		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(persistirUsuario());
 		entityManager.persist(lancamento);
 		return lancamento;
 	}
 
+	private Usuario persistirUsuario() {
+		return entityManager
+			.persist(Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build());
+	}
+
 	public static Lancamento criarLancamento() {
 		return Lancamento.builder()
 			.ano(2019)
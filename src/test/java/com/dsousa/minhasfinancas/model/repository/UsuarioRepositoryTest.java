@@ -9,6 +9,7 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -61,6 +62,13 @@ public class UsuarioRepositoryTest {
 		Assertions.assertThat(result.isPresent()).isFalse();
 	}
 
+	@Test
+	public void naoDevePermitirDoisUsuariosComOMesmoEmail() {
+		entityManager.persistAndFlush(criarUsuario());
+		Throwable erro = Assertions.catchThrowable(() -> repository.saveAndFlush(criarUsuario()));
+		Assertions.assertThat(erro).isInstanceOf(DataIntegrityViolationException.class);
+	}
+
 	public static Usuario criarUsuario() {
 		return Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
 	}
@@ -0,0 +1,77 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.service.impl.AssinadorJwt;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.crypto.MacProvider;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class AssinadorJwtTest {
+
+	@Test
+	public void deveAssinarEVerificarComChaveSimetrica() {
+		SecretKey chave = MacProvider.generateKey(SignatureAlgorithm.HS512);
+		AssinadorJwt assinador = new AssinadorJwt(SignatureAlgorithm.HS512, chave, chave);
+		verificarIdaEVolta(assinador);
+		assertThat(assinador.obterChavePublica().isPresent()).isFalse();
+	}
+
+	@Test
+	public void deveAssinarEVerificarComParDeChavesRsa() throws Exception {
+		KeyPairGenerator gerador = KeyPairGenerator.getInstance("RSA");
+		gerador.initialize(2048);
+		KeyPair par = gerador.generateKeyPair();
+		AssinadorJwt assinador = new AssinadorJwt(SignatureAlgorithm.RS256, par.getPrivate(), par.getPublic());
+		verificarIdaEVolta(assinador);
+		assertThat(assinador.obterChavePublica().isPresent()).isTrue();
+	}
+
+	@Test
+	public void deveAssinarEVerificarComParDeChavesEc() throws Exception {
+		KeyPairGenerator gerador = KeyPairGenerator.getInstance("EC");
+		gerador.initialize(new ECGenParameterSpec("secp256r1"));
+		KeyPair par = gerador.generateKeyPair();
+		AssinadorJwt assinador = new AssinadorJwt(SignatureAlgorithm.ES256, par.getPrivate(), par.getPublic());
+		verificarIdaEVolta(assinador);
+	}
+
+	@Test
+	public void deveRejeitarTokenAssinadoComOutraChave() {
+		SecretKey chave = MacProvider.generateKey(SignatureAlgorithm.HS512);
+		SecretKey outraChave = MacProvider.generateKey(SignatureAlgorithm.HS512);
+		AssinadorJwt assinador = new AssinadorJwt(SignatureAlgorithm.HS512, chave, chave);
+		AssinadorJwt outroAssinador = new AssinadorJwt(SignatureAlgorithm.HS512, outraChave, outraChave);
+		String token = outroAssinador.assinar(criarToken());
+		assertThat(catchThrowable(() -> assinador.verificar(token))).isInstanceOf(JwtException.class);
+	}
+
+	private void verificarIdaEVolta(AssinadorJwt assinador) {
+		String token = assinador.assinar(criarToken());
+		Claims claims = assinador.verificar(token);
+		assertThat(claims.getSubject()).isEqualTo("usuario@email.com");
+		assertThat(claims.get("userid", Long.class)).isEqualTo(1L);
+	}
+
+	private JwtBuilder criarToken() {
+		long agora = System.currentTimeMillis();
+		return Jwts.builder()
+			.setIssuedAt(new Date(agora))
+			.setExpiration(new Date(agora + 60000))
+			.setSubject("usuario@email.com")
+			.claim("userid", 1L)
+			.claim("nome", "usuario");
+	}
+
+}
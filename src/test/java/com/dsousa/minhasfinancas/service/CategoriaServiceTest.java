@@ -0,0 +1,142 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.ItemCategoria;
+import com.dsousa.minhasfinancas.model.entity.Categoria;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class CategoriaServiceTest {
+
+	@Autowired
+	CategoriaService service;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void deveServirAsCategoriasAtivasDoDicionarioAteUmaAlteracao() {
+		Categoria mercado = service.salvar(Categoria.builder().descricao("Mercado").build());
+		assertThat(service.obterAtivas()).extracting(Categoria::getId).contains(mercado.getId());
+
+		jdbcTemplate.update("INSERT INTO financas.categoria (descricao, ativa) VALUES ('Inserida por fora', true)");
+
+		assertThat(service.obterAtivas()).extracting(Categoria::getDescricao).doesNotContain("Inserida por fora");
+
+		mercado.setAtiva(false);
+		service.atualizar(mercado);
+
+		assertThat(service.obterAtivas()).extracting(Categoria::getDescricao)
+			.contains("Inserida por fora")
+			.doesNotContain("Mercado");
+		assertThat(service.isAtivas(Collections.singleton(mercado.getId()))).isFalse();
+	}
+
+	@Test
+	public void naoDeveExporAsCategoriasDoDicionarioAAlteracoes() {
+		Categoria saude = service.salvar(Categoria.builder().descricao("Saúde").build());
+		Categoria obtida = service.obterAtivas()
+			.stream()
+			.filter(categoria -> categoria.getId().equals(saude.getId()))
+			.findFirst()
+			.get();
+
+		obtida.setDescricao("Alterada fora do serviço");
+		obtida.setAtiva(false);
+
+		assertThat(service.obterAtivas()).filteredOn(categoria -> categoria.getId().equals(saude.getId()))
+			.extracting(Categoria::getDescricao)
+			.containsExactly("Saúde");
+	}
+
+	@Test
+	public void deveTotalizarOsLancamentosDoMesPorCategoria() {
+		Usuario usuario = criarUsuario();
+		Categoria moradia = service.salvar(Categoria.builder().descricao("Moradia").build());
+		Categoria lazer = service.salvar(Categoria.builder().descricao("Lazer").build());
+		Lancamento aluguel = lancamentoService.salvar(criarLancamento(usuario, 3, 1000, moradia));
+		lancamentoService.salvar(criarLancamento(usuario, 3, 200, moradia, lazer));
+		Lancamento cinema = lancamentoService.salvar(criarLancamento(usuario, 3, 50, moradia));
+		lancamentoService.salvar(criarLancamento(usuario, 4, 70, lazer));
+		lancamentoService.atualizarStatus(aluguel, StatusLancamento.EFETIVADO);
+		cinema.setCategorias(new HashSet<>(Collections.singletonList(lazer)));
+		lancamentoService.atualizar(cinema);
+
+		List<ItemCategoria> relatorio = service.obterRelatorioPorCategoria(usuario.getId(), 2021, 3);
+
+		assertThat(relatorio).extracting(ItemCategoria::getDescricao).containsExactly("Lazer", "Moradia");
+		assertThat(relatorio.get(0).getDespesasPendentes()).isEqualByComparingTo("250");
+		assertThat(relatorio.get(0).getQuantidade()).isEqualTo(2);
+		assertThat(relatorio.get(1).getDespesas()).isEqualByComparingTo("1000");
+		assertThat(relatorio.get(1).getDespesasPendentes()).isEqualByComparingTo("200");
+		assertThat(relatorio.get(1).getSaldo()).isEqualByComparingTo("-1000");
+		assertThat(categoriasDe(cinema)).containsExactly(lazer.getId());
+	}
+
+	@Test
+	public void naoDeveSalvarLancamentoComCategoriaInativa() {
+		Categoria inativa = service.salvar(Categoria.builder().descricao("Antiga").ativa(false).build());
+
+		Throwable erro = catchThrowable(
+				() -> lancamentoService.salvar(criarLancamento(criarUsuario(), 1, 10, inativa)));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma Categoria válida.");
+	}
+
+	private Set<Long> categoriasDe(Lancamento lancamento) {
+		return new HashSet<>(jdbcTemplate.queryForList(
+				"SELECT id_categoria FROM financas.categorias_lancamentos WHERE id_lancamento = ?", Long.class,
+				lancamento.getId()));
+	}
+
+	private Lancamento criarLancamento(Usuario usuario, int mes, int valor, Categoria... categorias) {
+		return Lancamento.builder()
+			.descricao("despesa")
+			.ano(2021)
+			.mes(mes)
+			.usuario(usuario)
+			.valor(BigDecimal.valueOf(valor))
+			.tipo(TipoLancamento.DESPESA)
+			.categorias(Arrays.stream(categorias)
+				.map(categoria -> Categoria.builder().id(categoria.getId()).build())
+				.collect(Collectors.toSet()))
+			.build();
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.exception.ChaveIdempotenciaReutilizadaException;
+import com.dsousa.minhasfinancas.model.consulta.RespostaIdempotente;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class IdempotenciaServiceTest {
+
+	@Autowired
+	IdempotenciaService service;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Test
+	public void deveExecutarUmaUnicaVezRequisicoesSimultaneasComAMesmaChave() throws Exception {
+		Long idUsuario = criarUsuario().getId();
+		AtomicInteger execucoes = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<RespostaIdempotente>> respostas = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				respostas.add(executor.submit(() -> {
+					largada.await();
+					return service.executar(idUsuario, "chave", "{}", () -> {
+						execucoes.incrementAndGet();
+						dormir();
+						return new RespostaIdempotente(201, "{\"id\":1}", "\"0\"", false);
+					});
+				}));
+			}
+			largada.countDown();
+
+			int reproduzidas = 0;
+			for (Future<RespostaIdempotente> resposta : respostas) {
+				assertThat(resposta.get(10, TimeUnit.SECONDS).getCorpo()).isEqualTo("{\"id\":1}");
+				reproduzidas += resposta.get().isReproduzida() ? 1 : 0;
+			}
+			assertThat(execucoes).hasValue(1);
+			assertThat(reproduzidas).isEqualTo(7);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void naoDeveGuardarRespostasDeErro() {
+		Long idUsuario = criarUsuario().getId();
+		AtomicInteger execucoes = new AtomicInteger();
+
+		service.executar(idUsuario, "chave", "{}", () -> {
+			execucoes.incrementAndGet();
+			return new RespostaIdempotente(400, "Informe um Valor válido.", null, false);
+		});
+		RespostaIdempotente resposta = service.executar(idUsuario, "chave", "{}", () -> {
+			execucoes.incrementAndGet();
+			return new RespostaIdempotente(201, "{}", null, false);
+		});
+
+		assertThat(execucoes).hasValue(2);
+		assertThat(resposta.getStatus()).isEqualTo(201);
+		assertThat(resposta.isReproduzida()).isFalse();
+	}
+
+	@Test
+	public void deveRecusarAMesmaChaveComOutraRequisicao() {
+		Long idUsuario = criarUsuario().getId();
+		service.executar(idUsuario, "chave", "{\"valor\":10}", () -> new RespostaIdempotente(201, "{}", null, false));
+
+		Throwable erro = catchThrowable(() -> service.executar(idUsuario, "chave", "{\"valor\":20}",
+				() -> new RespostaIdempotente(201, "{}", null, false)));
+
+		assertThat(erro).isInstanceOf(ChaveIdempotenciaReutilizadaException.class);
+	}
+
+	private static void dormir() {
+		try {
+			Thread.sleep(100);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.ErroImportacao;
+import com.dsousa.minhasfinancas.model.consulta.ItemRelatorio;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioImportacao;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.FormatoExtrato;
+import com.dsousa.minhasfinancas.model.importacao.LeitorExtrato;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest(properties = "lancamento.importacao.tamanho-lote=2")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ImportacaoLancamentoTest {
+
+	private static final String CSV = "Data;Descrição;Valor\n" + "05/01/2020;Salário;5.000,00\n"
+			+ "10/01/2020;Padaria;-12,50\n" + "10/01/2020;Padaria;-12,50\n" + "31/02/2020;Data inválida;-1,00\n"
+			+ "2020-02-03;\"Mercado; bairro\";-230,10\n" + "2020-02-04;Valor zerado;0\n";
+
+	private static final String OFX = "OFXHEADER:100\nDATA:OFXSGML\n\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS>"
+			+ "<BANKTRANLIST>\n<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20200315120000[-3:BRT]\n<TRNAMT>-45.90\n"
+			+ "<FITID>abc-1\n<MEMO>Farmácia\n</STMTTRN>\n<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20200316\n"
+			+ "<TRNAMT>100.00\n<FITID>abc-2\n<NAME>Pix recebido\n</STMTTRN>\n<STMTTRN>\n<TRNTYPE>DEBIT\n"
+			+ "<DTPOSTED>20200316\n<TRNAMT>-45.90\n<FITID>abc-1\n<MEMO>Farmácia\n</STMTTRN>\n"
+			+ "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	ResumoMensalService resumoMensalService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void deveImportarExtratoCsvEmLotesReportandoAsLinhasInvalidas() throws IOException {
+		Usuario usuario = criarUsuario();
+
+		RelatorioImportacao relatorio = importar(usuario, FormatoExtrato.CSV, CSV);
+
+		assertThat(relatorio.getImportados()).isEqualTo(4);
+		assertThat(relatorio.getDuplicados()).isZero();
+		assertThat(relatorio.getRejeitados()).isEqualTo(2);
+		assertThat(relatorio.getErros()).extracting(ErroImportacao::getLinha).containsExactly(5, 7);
+		assertThat(relatorio.getErros()).extracting(ErroImportacao::getMensagem)
+			.containsExactly("Informe uma Data válida.", "Informe um Valor válido.");
+
+		List<ItemRelatorio> resumo = resumoMensalService.obterRelatorioMensal(usuario.getId(), 2020);
+		assertThat(resumo).extracting(ItemRelatorio::getMes).containsExactly(1, 2);
+		assertThat(resumo.get(0).getReceitasPendentes()).isEqualByComparingTo("5000");
+		assertThat(resumo.get(0).getDespesasPendentes()).isEqualByComparingTo("25");
+		assertThat(resumo.get(0).getQuantidade()).isEqualTo(3);
+		assertThat(resumo.get(1).getDespesasPendentes()).isEqualByComparingTo("230.10");
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT descricao FROM financas.lancamento WHERE id_usuario = ? AND mes = 2", String.class,
+				usuario.getId()))
+			.isEqualTo("Mercado; bairro");
+	}
+
+	@Test
+	public void naoDeveManterOsLancamentosImportadosNoEntityManagerDaRequisicao() throws IOException {
+		Usuario usuario = criarUsuario();
+		StringBuilder csv = new StringBuilder("data;descricao;valor\n");
+		for (int dia = 1; dia <= 20; dia++) {
+			csv.append(String.format("%02d/03/2020;Compra %d;-%d,00\n", dia, dia, dia));
+		}
+		// Simula o open-in-view: um EntityManager ligado à thread durante toda a
+		// importação.
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+		try {
+			RelatorioImportacao relatorio = importar(usuario, FormatoExtrato.CSV, csv.toString());
+
+			assertThat(relatorio.getImportados()).isEqualTo(20);
+			assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isLessThanOrEqualTo(2);
+		}
+		finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			entityManager.close();
+		}
+	}
+
+	@Test
+	public void deveIgnorarLinhasJaImportadasAoReenviarOExtrato() throws IOException {
+		Usuario usuario = criarUsuario();
+		importar(usuario, FormatoExtrato.CSV, CSV);
+
+		RelatorioImportacao relatorio = importar(usuario, FormatoExtrato.CSV, CSV);
+
+		assertThat(relatorio.getImportados()).isZero();
+		assertThat(relatorio.getDuplicados()).isEqualTo(4);
+		assertThat(contarLancamentos(usuario)).isEqualTo(4);
+		assertThat(resumoMensalService.obterRelatorioMensal(usuario.getId(), 2020).get(0).getQuantidade()).isEqualTo(3);
+	}
+
+	@Test
+	public void deveImportarExtratoOfxUsandoOIdentificadorDoBanco() throws IOException {
+		Usuario usuario = criarUsuario();
+
+		RelatorioImportacao relatorio = importar(usuario, FormatoExtrato.OFX, OFX);
+
+		assertThat(relatorio.getImportados()).isEqualTo(2);
+		assertThat(relatorio.getDuplicados()).isEqualTo(1);
+		assertThat(relatorio.getRejeitados()).isZero();
+		List<String> descricoes = jdbcTemplate
+			.queryForList("SELECT descricao || ':' || tipo || ':' || valor FROM financas.lancamento "
+					+ "WHERE id_usuario = ? ORDER BY id", String.class, usuario.getId());
+		assertThat(descricoes).containsExactly("Farmácia:DESPESA:45.90", "Pix recebido:RECEITA:100.00");
+	}
+
+	@Test
+	public void deveRejeitarCsvSemAsColunasObrigatorias() {
+		Throwable erro = catchThrowable(() -> importar(criarUsuario(), FormatoExtrato.CSV, "data;valor\n"));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("O extrato CSV deve conter as colunas data, descricao e valor.");
+	}
+
+	private RelatorioImportacao importar(Usuario usuario, FormatoExtrato formato, String conteudo) throws IOException {
+		return lancamentoService.importar(usuario, LeitorExtrato.abrir(formato, new StringReader(conteudo)));
+	}
+
+	private int contarLancamentos(Usuario usuario) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM financas.lancamento WHERE id_usuario = ?",
+				Integer.class, usuario.getId());
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+}
@@ -0,0 +1,76 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class JwtServiceTest {
+
+	@Autowired
+	JwtService service;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Test
+	public void deveValidarUmTokenGeradoEObterOsClaims() {
+		String token = service.gerarToken(criarUsuario());
+		Optional<Claims> claims = service.obterClaimsValidas(token);
+		assertThat(claims.isPresent()).isTrue();
+		assertThat(claims.get().getSubject()).isEqualTo("usuario@email.com");
+		assertThat(claims.get().get("userid", Long.class)).isEqualTo(1L);
+	}
+
+	@Test
+	public void deveReaproveitarOsClaimsVerificadosDoCache() {
+		String token = service.gerarToken(criarUsuario());
+		double acertosAntes = acertosDoCache();
+		Claims primeira = service.obterClaimsValidas(token).get();
+		Claims segunda = service.obterClaimsValidas(token).get();
+		assertThat(segunda).isSameAs(primeira);
+		assertThat(acertosDoCache()).isEqualTo(acertosAntes + 1);
+	}
+
+	@Test
+	public void deveRejeitarUmTokenAdulterado() {
+		String token = service.gerarToken(criarUsuario());
+		String adulterado = token.substring(0, token.length() - 2) + "xx";
+		assertThat(service.obterClaimsValidas(adulterado).isPresent()).isFalse();
+		assertThat(service.isTokenValido("token-invalido")).isFalse();
+	}
+
+	@Test
+	public void naoDeveAceitarRefreshTokenComoTokenDeAcesso() {
+		String refresh = service.gerarRefreshToken(criarUsuario());
+		String acesso = service.gerarToken(criarUsuario());
+		assertThat(service.obterClaimsValidas(refresh).isPresent()).isFalse();
+		assertThat(service.obterClaimsRefreshValidas(refresh).isPresent()).isTrue();
+		assertThat(service.obterClaimsRefreshValidas(acesso).isPresent()).isFalse();
+	}
+
+	private double acertosDoCache() {
+		return meterRegistry.get("cache.gets")
+			.tag("cache", "jwt.claims")
+			.tag("result", "hit")
+			.functionCounter()
+			.count();
+	}
+
+	private Usuario criarUsuario() {
+		return Usuario.builder().id(1L).nome("usuario").email("usuario@email.com").build();
+	}
+
+}
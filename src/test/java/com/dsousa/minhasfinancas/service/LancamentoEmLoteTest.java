@@ -0,0 +1,127 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.ItemRelatorio;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LancamentoEmLoteTest {
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+
+	@Autowired
+	ResumoMensalService resumoMensalService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Test
+	public void deveAtualizarOStatusDosLancamentosDoFiltroMantendoSaldoEResumo() {
+		Usuario usuario = criarUsuario();
+		lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.RECEITA, 1000));
+		lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.DESPESA, 300));
+		lancamentoService.salvar(criarLancamento(usuario, 2, TipoLancamento.DESPESA, 50));
+
+		int alterados = lancamentoService.atualizarStatusEmLote(
+				FiltroLancamento.builder().idUsuario(usuario.getId()).ano(2020).mes(1).build(),
+				StatusLancamento.EFETIVADO);
+
+		assertThat(alterados).isEqualTo(2);
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("700");
+		List<ItemRelatorio> resumo = resumoMensalService.obterRelatorioMensal(usuario.getId(), 2020);
+		assertThat(resumo.get(0).getSaldo()).isEqualByComparingTo("700");
+		assertThat(resumo.get(0).getReceitasPendentes()).isEqualByComparingTo("0");
+		assertThat(resumo.get(0).getQuantidade()).isEqualTo(2);
+		assertThat(resumo.get(1).getDespesasPendentes()).isEqualByComparingTo("50");
+
+		int repetidos = lancamentoService.atualizarStatusEmLote(
+				FiltroLancamento.builder().idUsuario(usuario.getId()).tipo(TipoLancamento.RECEITA).build(),
+				StatusLancamento.EFETIVADO);
+
+		assertThat(repetidos).isZero();
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("700");
+	}
+
+	@Test
+	public void deveRemoverSomenteOsLancamentosDoProprioUsuario() {
+		Usuario usuario = criarUsuario();
+		Usuario outroUsuario = criarUsuario();
+		Lancamento aluguel = lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.DESPESA, 800));
+		Lancamento mercado = lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.DESPESA, 200));
+		Lancamento salario = lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.RECEITA, 3000));
+		Lancamento alheio = lancamentoService.salvar(criarLancamento(outroUsuario, 1, TipoLancamento.DESPESA, 10));
+		lancamentoService.atualizarStatus(aluguel, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(salario, StatusLancamento.EFETIVADO);
+
+		int removidos = lancamentoService.deletarEmLote(FiltroLancamento.builder()
+			.idUsuario(usuario.getId())
+			.ids(new HashSet<>(Arrays.asList(aluguel.getId(), mercado.getId(), alheio.getId())))
+			.build());
+
+		assertThat(removidos).isEqualTo(2);
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("3000");
+		assertThat(resumoMensalService.obterRelatorioMensal(usuario.getId(), 2020).get(0).getQuantidade()).isEqualTo(1);
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).build()))
+			.extracting(LancamentoDTO::getId)
+			.containsExactly(salario.getId());
+		assertThat(lancamentoService.obterPorId(alheio.getId())).isPresent();
+		assertThat(lancamentoService.pesquisar(usuario.getId(), "aluguel", 10)).isEmpty();
+	}
+
+	@Test
+	public void naoDeveExecutarOperacaoEmLoteSemFiltro() {
+		Usuario usuario = criarUsuario();
+		lancamentoService.salvar(criarLancamento(usuario, 1, TipoLancamento.DESPESA, 10));
+
+		Throwable erro = catchThrowable(
+				() -> lancamentoService.deletarEmLote(FiltroLancamento.builder().idUsuario(usuario.getId()).build()));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("Informe os lançamentos ou ao menos um filtro para a operação em lote.");
+		assertThat(lancamentoService.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).build())).hasSize(1);
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+	private Lancamento criarLancamento(Usuario usuario, int mes, TipoLancamento tipo, int valor) {
+		return Lancamento.builder()
+			.descricao(tipo == TipoLancamento.RECEITA ? "salario" : valor >= 800 ? "aluguel" : "mercado")
+			.ano(2020)
+			.mes(mes)
+			.usuario(usuario)
+			.valor(BigDecimal.valueOf(valor))
+			.tipo(tipo)
+			.build();
+	}
+
+}
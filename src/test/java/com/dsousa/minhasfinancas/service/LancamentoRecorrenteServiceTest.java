@@ -0,0 +1,155 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.ItemRelatorio;
+import com.dsousa.minhasfinancas.model.consulta.RelatorioRecorrencia;
+import com.dsousa.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.Periodicidade;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.LancamentoRecorrenteRepository;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest(properties = "lancamento.recorrencia.tamanho-lote=1")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LancamentoRecorrenteServiceTest {
+
+	@Autowired
+	LancamentoRecorrenteService service;
+
+	@Autowired
+	LancamentoRecorrenteRepository repository;
+
+	@Autowired
+	ResumoMensalService resumoMensalService;
+
+	@Autowired
+	SaldoUsuarioService saldoUsuarioService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void deveMaterializarAsOcorrenciasVencidasSemDuplicarAoRepetir() {
+		Usuario usuario = criarUsuario();
+		LancamentoRecorrente aluguel = agendar(usuario, Periodicidade.MENSAL, TipoLancamento.DESPESA, 2020, 1, 2020, 6);
+		LancamentoRecorrente bonus = agendar(usuario, Periodicidade.ANUAL, TipoLancamento.RECEITA, 2018, 3, 2021, 12);
+
+		RelatorioRecorrencia relatorio = service.materializar(202003);
+
+		assertThat(relatorio.getModelosProcessados()).isGreaterThanOrEqualTo(2);
+		assertThat(relatorio.getLancamentosCriados()).isGreaterThanOrEqualTo(6);
+		assertThat(relatorio.getLancamentosPorSegundo()).isPositive();
+		assertThat(periodos(aluguel)).containsExactly("2020/1", "2020/2", "2020/3");
+		assertThat(periodos(bonus)).containsExactly("2018/3", "2019/3", "2020/3");
+
+		service.materializar(202003);
+
+		assertThat(periodos(aluguel)).hasSize(3);
+		assertThat(periodos(bonus)).hasSize(3);
+
+		service.materializar(202112);
+
+		assertThat(periodos(aluguel)).hasSize(6).endsWith("2020/6");
+		assertThat(periodos(bonus)).hasSize(4).endsWith("2021/3");
+		List<ItemRelatorio> resumo = resumoMensalService.obterRelatorioMensal(usuario.getId(), 2020);
+		assertThat(resumo.get(2).getDespesasPendentes()).isEqualByComparingTo("100");
+		assertThat(resumo.get(2).getReceitasPendentes()).isEqualByComparingTo("1000");
+		assertThat(saldoUsuarioService.obterSaldo(usuario.getId())).isEqualByComparingTo("0");
+	}
+
+	@Test
+	public void deveGerarOsLancamentosVencidosAoSalvarOModelo() {
+		Usuario usuario = criarUsuario();
+
+		LancamentoRecorrente salvo = service
+			.salvar(criarModelo(usuario, Periodicidade.MENSAL, TipoLancamento.DESPESA, 2020, 11, 2021, 2));
+
+		assertThat(salvo.getProximaCompetencia()).isEqualTo(202103);
+		assertThat(periodos(salvo)).containsExactly("2020/11", "2020/12", "2021/1", "2021/2");
+		assertThat(service.buscar(usuario.getId())).extracting(LancamentoRecorrente::getId)
+			.containsExactly(salvo.getId());
+	}
+
+	@Test
+	public void deveDeixarParaOAgendamentoAsOcorrenciasAlemDoLimiteAoSalvar() {
+		Usuario usuario = criarUsuario();
+
+		LancamentoRecorrente salvo = service
+			.salvar(criarModelo(usuario, Periodicidade.MENSAL, TipoLancamento.DESPESA, 2000, 1, 2021, 2));
+
+		assertThat(salvo.getProximaCompetencia()).isEqualTo(200101);
+		assertThat(periodos(salvo)).hasSize(12).startsWith("2000/1").endsWith("2000/12");
+
+		service.materializar(202102);
+
+		assertThat(periodos(salvo)).hasSize(254).endsWith("2021/2");
+	}
+
+	@Test
+	public void naoDeveSalvarModeloComPeriodoFinalAnteriorAoInicial() {
+		Usuario usuario = criarUsuario();
+
+		Throwable erro = catchThrowable(() -> service
+			.salvar(criarModelo(usuario, Periodicidade.ANUAL, TipoLancamento.RECEITA, 2021, 5, 2021, 4)));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um período válido.");
+		assertThat(service.buscar(usuario.getId())).isEmpty();
+	}
+
+	/**
+	 * Grava o modelo sem passar pelo serviço, deixando as ocorrências para o agendamento.
+	 */
+	private LancamentoRecorrente agendar(Usuario usuario, Periodicidade periodicidade, TipoLancamento tipo,
+			int anoInicial, int mesInicial, int anoFinal, int mesFinal) {
+		LancamentoRecorrente recorrente = criarModelo(usuario, periodicidade, tipo, anoInicial, mesInicial, anoFinal,
+				mesFinal);
+		recorrente.setProximaCompetencia(recorrente.getCompetenciaInicial());
+		return repository.save(recorrente);
+	}
+
+	private LancamentoRecorrente criarModelo(Usuario usuario, Periodicidade periodicidade, TipoLancamento tipo,
+			int anoInicial, int mesInicial, int anoFinal, int mesFinal) {
+		return LancamentoRecorrente.builder()
+			.descricao(tipo == TipoLancamento.RECEITA ? "bonus" : "aluguel")
+			.valor(BigDecimal.valueOf(tipo == TipoLancamento.RECEITA ? 1000 : 100))
+			.tipo(tipo)
+			.periodicidade(periodicidade)
+			.anoInicial(anoInicial)
+			.mesInicial(mesInicial)
+			.anoFinal(anoFinal)
+			.mesFinal(mesFinal)
+			.usuario(usuario)
+			.build();
+	}
+
+	private List<String> periodos(LancamentoRecorrente recorrente) {
+		return jdbcTemplate.queryForList(
+				"SELECT ano || '/' || mes FROM financas.lancamento WHERE id_recorrente = ? ORDER BY ano, mes",
+				String.class, recorrente.getId());
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+}
@@ -1,8 +1,16 @@
 package com.dsousa.minhasfinancas.service;
 
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
 import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.exception.VersaoDesatualizadaException;
+import com.dsousa.minhasfinancas.model.consulta.CursorLancamento;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.consulta.Pagina;
+import com.dsousa.minhasfinancas.model.consulta.ResumoSaldo;
+import com.dsousa.minhasfinancas.model.consulta.TotalLancamentos;
 import com.dsousa.minhasfinancas.model.entity.Lancamento;
 import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.OrdenacaoLancamento;
 import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
 import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
 import com.dsousa.minhasfinancas.model.repository.LancamentoRepository;
@@ -11,14 +19,16 @@ import com.dsousa.minhasfinancas.service.impl.LancamentoServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -26,6 +36,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -39,9 +51,19 @@ public class LancamentoServiceTest {
 	@MockBean
 	LancamentoRepository repository;
 
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+
+	@MockBean
+	ResumoMensalService resumoMensalService;
+
+	@MockBean
+	PesquisaLancamentoService pesquisaLancamentoService;
+
 	@Test
 	public void deveSalvarUmLancamento() {
 		Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+		lancamentoASalvar.setUsuario(Usuario.builder().id(1L).build());
 		doNothing().when(service).validar(lancamentoASalvar);
 		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
 		lancamentoSalvo.setId(1L);
@@ -62,12 +84,28 @@ public class LancamentoServiceTest {
 	@Test
 	public void deveAtualizarUmLancamento() {
 		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setUsuario(Usuario.builder().id(1L).build());
 		lancamentoSalvo.setId(1L);
 		lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
 		doNothing().when(service).validar(lancamentoSalvo);
-		when(repository.save(lancamentoSalvo)).thenReturn(lancamentoSalvo);
+		when(repository.atualizar(lancamentoSalvo)).thenReturn(1);
 		service.atualizar(lancamentoSalvo);
-		verify(repository, times(1)).save(lancamentoSalvo);
+		verify(repository, times(1)).atualizar(lancamentoSalvo);
+		verify(repository, never()).save(lancamentoSalvo);
+	}
+
+	@Test
+	public void deveLancarErroAoAtualizarUmLancamentoInexistente() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setId(1L);
+		doNothing().when(service).validar(lancamento);
+		when(repository.atualizar(lancamento)).thenReturn(0);
+
+		Throwable erro = catchThrowable(() -> service.atualizar(lancamento));
+
+		assertThat(erro).isInstanceOf(RegraNegocioException.class)
+			.hasMessage("Lancamento não encontrado na base de Dados.");
 	}
 
 	@Test
@@ -79,6 +117,7 @@ public class LancamentoServiceTest {
 	@Test
 	public void deveDeletarUmLancamento() {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
 		lancamento.setId(1L);
 		service.deletar(lancamento);
 		verify(repository).delete(lancamento);
@@ -92,24 +131,124 @@ public class LancamentoServiceTest {
 
 	@Test
 	public void deveFiltrarLancamentos() {
-		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
-		lancamento.setId(1L);
-		List<Lancamento> lista = Collections.singletonList(lancamento);
-		when(repository.findAll(any(Example.class))).thenReturn(lista);
-		List<Lancamento> resultado = service.buscar(lancamento);
-		assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).descricao("lancamento").ano(2019).build();
+		LancamentoDTO dto = LancamentoDTO.builder().id(1L).usuario(1L).build();
+		when(repository.buscarApos(any(FiltroLancamento.class), isNull(), anyInt()))
+			.thenReturn(Collections.singletonList(dto));
+		List<LancamentoDTO> resultado = service.buscar(filtro);
+		assertThat(resultado).isNotEmpty().hasSize(1).contains(dto);
+	}
+
+	@Test
+	public void naoDeveConsultarOBancoQuandoOIndiceNaoEncontrarCandidatos() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).descricao("inexistente").build();
+		when(pesquisaLancamentoService.obterCandidatos(1L, "inexistente"))
+			.thenReturn(Optional.of(Collections.emptySet()));
+		assertThat(service.buscar(filtro)).isEmpty();
+		verify(repository, never()).buscarApos(any(), any(), anyInt());
+	}
+
+	@Test
+	public void deveRetornarOCursorDaProximaPaginaQuandoHouverMaisLancamentos() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).build();
+		List<LancamentoDTO> lancamentos = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			lancamentos.add(LancamentoDTO.builder().id(id).ano(2019).mes(1).build());
+		}
+		when(repository.buscarApos(filtro, null, 3)).thenReturn(lancamentos);
+		Pagina<LancamentoDTO> pagina = service.buscarPagina(filtro, null, 2);
+		assertThat(pagina.getItens()).hasSize(2);
+		CursorLancamento proximo = new CursorLancamento(OrdenacaoLancamento.COMPETENCIA, BigDecimal.valueOf(201901),
+				2L);
+		assertThat(pagina.getProximoCursor()).isEqualTo(proximo.codificar());
+
+		when(repository.buscarApos(filtro, proximo, 3)).thenReturn(lancamentos.subList(2, 3));
+		Pagina<LancamentoDTO> ultima = service.buscarPagina(filtro, pagina.getProximoCursor(), 2);
+		assertThat(ultima.getItens()).hasSize(1);
+		assertThat(ultima.getProximoCursor()).isNull();
+	}
+
+	@Test
+	public void deveRejeitarFiltrosInvalidos() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).mesInicial(3).build();
+		Throwable erro = catchThrowable(() -> service.buscar(filtro));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe o Ano ao filtrar por Mês.");
+
+		filtro.setAnoInicial(2021);
+		filtro.setAnoFinal(2020);
+		erro = catchThrowable(() -> service.buscar(filtro));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um período válido.");
+
+		filtro.setAnoFinal(2022);
+		filtro.setValorMinimo(BigDecimal.TEN);
+		filtro.setValorMaximo(BigDecimal.ONE);
+		erro = catchThrowable(() -> service.buscar(filtro));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma faixa de valores válida.");
+		verify(repository, never()).buscarApos(any(), any(), anyInt());
+	}
+
+	@Test
+	public void deveRejeitarCursorDeOutraOrdenacao() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).ordenacao(OrdenacaoLancamento.VALOR).build();
+		String cursor = new CursorLancamento(OrdenacaoLancamento.COMPETENCIA, BigDecimal.valueOf(202001), 1L)
+			.codificar();
+		Throwable erro = catchThrowable(() -> service.buscarPagina(filtro, cursor, 10));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor de paginação inválido.");
+	}
+
+	@Test
+	public void deveRejeitarCursorComChaveForaDoTipoDaOrdenacao() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).build();
+		String competencia = new CursorLancamento(OrdenacaoLancamento.COMPETENCIA, new BigDecimal("202001.5"), 1L)
+			.codificar();
+		Throwable erro = catchThrowable(() -> service.buscarPagina(filtro, competencia, 10));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor de paginação inválido.");
+
+		filtro.setOrdenacao(OrdenacaoLancamento.VALOR);
+		String valor = new CursorLancamento(OrdenacaoLancamento.VALOR, new BigDecimal("1E+20"), 1L).codificar();
+		erro = catchThrowable(() -> service.buscarPagina(filtro, valor, 10));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor de paginação inválido.");
+		verify(repository, never()).buscarApos(any(), any(), anyInt());
+	}
+
+	@Test
+	public void deveRejeitarCursorInvalido() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(1L).build();
+		Throwable erro = catchThrowable(() -> service.buscarPagina(filtro, "nao-e-um-cursor", 10));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Cursor de paginação inválido.");
 	}
 
 	@Test
 	public void deveAtualizarOStatusDeUmLancamento() {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1L);
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
 		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setVersao(3L);
 		StatusLancamento novoStatus = StatusLancamento.EFETIVADO;
-		doNothing().when(service).atualizar(lancamento);
+		when(repository.atualizarStatus(lancamento, novoStatus)).thenReturn(1);
 		service.atualizarStatus(lancamento, novoStatus);
 		assertThat(lancamento.getStatus()).isEqualTo(novoStatus);
-		verify(service).atualizar(lancamento);
+		assertThat(lancamento.getVersao()).isEqualTo(4L);
+		verify(service, never()).atualizar(lancamento);
+		verify(saldoUsuarioService).depoisDaEscritaPorId(1L);
+	}
+
+	@Test
+	public void deveRecusarAtualizacaoDeUmaVersaoDesatualizada() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1L);
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setVersao(2L);
+		doNothing().when(service).validar(lancamento);
+		when(repository.atualizar(lancamento)).thenReturn(0);
+		when(repository.existsByIdAndUsuarioId(1L, 1L)).thenReturn(true);
+
+		Throwable erro = catchThrowable(() -> service.atualizar(lancamento));
+
+		assertThat(erro).isInstanceOf(VersaoDesatualizadaException.class);
+		assertThat(lancamento.getVersao()).isEqualTo(2L);
+		verify(saldoUsuarioService, never()).depoisDaEscrita(lancamento);
 	}
 
 	@Test
@@ -140,6 +279,10 @@ public class LancamentoServiceTest {
 		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma Descrição válida.");
 		lancamento.setDescricao("");
 
+		erro = Assertions.catchThrowable(() -> service.validar(lancamento));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma Descrição válida.");
+		lancamento.setDescricao(String.join("", Collections.nCopies(101, "a")));
+
 		erro = Assertions.catchThrowable(() -> service.validar(lancamento));
 		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma Descrição válida.");
 		lancamento.setDescricao("Salario");
@@ -184,17 +327,109 @@ public class LancamentoServiceTest {
 		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um tipo de Lançamento.");
 	}
 
+	@Test
+	public void deveAtualizarOSaldoNaMesmaOrdemDaEscrita() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setId(1L);
+		doNothing().when(service).validar(lancamento);
+		when(repository.atualizar(lancamento)).thenReturn(1);
+		service.atualizar(lancamento);
+		InOrder ordem = inOrder(saldoUsuarioService, repository);
+		ordem.verify(saldoUsuarioService).antesDaEscrita(lancamento);
+		ordem.verify(repository).atualizar(lancamento);
+		ordem.verify(saldoUsuarioService).depoisDaEscrita(lancamento);
+	}
+
+	@Test
+	public void deveRetirarOSaldoAntesDeDeletarUmLancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(Usuario.builder().id(1L).build());
+		lancamento.setId(1L);
+		service.deletar(lancamento);
+		InOrder ordem = inOrder(saldoUsuarioService, repository);
+		ordem.verify(saldoUsuarioService).antesDaEscrita(lancamento);
+		ordem.verify(repository).delete(lancamento);
+		verify(saldoUsuarioService, never()).depoisDaEscrita(lancamento);
+	}
+
+	@Test
+	public void deveLimitarABuscaSemCursorAoTamanhoMaximoDaPagina() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(903L).build();
+		when(pesquisaLancamentoService.obterCandidatos(any(), any())).thenReturn(Optional.empty());
+
+		service.buscar(filtro);
+
+		verify(repository).buscarApos(any(FiltroLancamento.class), isNull(), eq(500));
+	}
+
+	@Test
+	public void naoDeveGuardarEmCacheBuscasComMaisLancamentosQueOLimite() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(902L).ano(2021).build();
+		when(pesquisaLancamentoService.obterCandidatos(any(), any())).thenReturn(Optional.empty());
+		when(repository.buscarApos(any(FiltroLancamento.class), isNull(), anyInt()))
+			.thenReturn(Collections.nCopies(5001, LancamentoDTO.builder().id(1L).build()));
+
+		assertThat(service.buscar(filtro)).hasSize(5001);
+		assertThat(service.buscar(filtro)).hasSize(5001);
+
+		verify(repository, times(2)).buscarApos(any(FiltroLancamento.class), isNull(), anyInt());
+	}
+
+	@Test
+	public void deveReutilizarOResultadoDaBuscaAteAProximaEscritaDoUsuario() {
+		FiltroLancamento filtro = FiltroLancamento.builder().idUsuario(900L).ano(2021).descricao("Mercado").build();
+		FiltroLancamento outroFiltro = FiltroLancamento.builder().idUsuario(901L).ano(2021).build();
+		when(pesquisaLancamentoService.obterCandidatos(any(), any())).thenReturn(Optional.empty());
+		when(repository.buscarApos(any(FiltroLancamento.class), isNull(), anyInt()))
+			.thenReturn(Collections.singletonList(LancamentoDTO.builder().id(1L).build()));
+
+		service.buscar(filtro);
+		filtro.setDescricao("MERCADO");
+		service.buscar(filtro);
+		service.buscar(outroFiltro);
+		verify(repository, times(2)).buscarApos(any(FiltroLancamento.class), isNull(), anyInt());
+
+		Lancamento escrita = LancamentoRepositoryTest.criarLancamento();
+		escrita.setId(1L);
+		escrita.setUsuario(Usuario.builder().id(900L).build());
+		service.deletar(escrita);
+		service.buscar(filtro);
+		service.buscar(outroFiltro);
+		verify(repository, times(3)).buscarApos(any(FiltroLancamento.class), isNull(), anyInt());
+	}
+
 	@Test
 	public void deveObterSaldoPorUsuario() {
 		Long idUsuario = 1L;
-		when(repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.RECEITA,
-				StatusLancamento.EFETIVADO))
-			.thenReturn(BigDecimal.valueOf(100));
-		when(repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.DESPESA,
-				StatusLancamento.EFETIVADO))
-			.thenReturn(BigDecimal.valueOf(50));
+		when(saldoUsuarioService.obterSaldo(idUsuario)).thenReturn(BigDecimal.valueOf(50));
 		BigDecimal saldo = service.obterSaldoPorUsuario(idUsuario);
 		assertThat(saldo).isEqualTo(BigDecimal.valueOf(50));
+		verify(repository, never()).obterTotaisPorTipoEStatus(any(), any(), any());
+	}
+
+	@Test
+	public void deveObterOResumoDoSaldoAPartirDosTotaisAgrupados() {
+		when(repository.obterTotaisPorTipoEStatus(1L, 2020, 3)).thenReturn(Arrays.asList(
+				new TotalLancamentos(TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(100), 2L),
+				new TotalLancamentos(TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, BigDecimal.valueOf(30), 1L),
+				new TotalLancamentos(TipoLancamento.DESPESA, StatusLancamento.PENDENTE, BigDecimal.valueOf(15), 1L)));
+		ResumoSaldo resumo = service.obterResumoSaldo(1L, 2020, 3);
+		assertThat(resumo.getSaldo()).isEqualByComparingTo("70");
+		assertThat(resumo.getTotais()).hasSize(TipoLancamento.values().length * StatusLancamento.values().length);
+		assertThat(resumo.getTotais()).anySatisfy(total -> {
+			assertThat(total.getTipo()).isEqualTo(TipoLancamento.RECEITA);
+			assertThat(total.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+			assertThat(total.getTotal()).isEqualByComparingTo("0");
+			assertThat(total.getQuantidade()).isZero();
+		});
+		verify(repository, times(1)).obterTotaisPorTipoEStatus(1L, 2020, 3);
+	}
+
+	@Test
+	public void naoDeveObterOResumoDoSaldoPorMesSemAno() {
+		Throwable erro = catchThrowable(() -> service.obterResumoSaldo(1L, null, 3));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe o Ano ao filtrar por Mês.");
 	}
 
 }
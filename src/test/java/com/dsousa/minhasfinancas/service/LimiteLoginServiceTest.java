@@ -0,0 +1,42 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.exception.TentativasExcedidasException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest(properties = { "login.limite.email.capacidade=3", "login.limite.ip.capacidade=5" })
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class LimiteLoginServiceTest {
+
+	@Autowired
+	LimiteLoginService service;
+
+	@Test
+	public void deveRejeitarTentativasAlemDaCapacidadeDoEmail() {
+		for (int i = 0; i < 3; i++) {
+			service.registrarTentativa("Limitado@Email.com", "10.0.0." + i);
+		}
+		Throwable erro = catchThrowable(() -> service.registrarTentativa("limitado@email.com ", "10.0.0.9"));
+		assertThat(erro).isInstanceOf(TentativasExcedidasException.class);
+		assertThat(((TentativasExcedidasException) erro).getSegundosParaNovaTentativa()).isPositive();
+	}
+
+	@Test
+	public void deveRejeitarTentativasAlemDaCapacidadeDoIp() {
+		for (int i = 0; i < 5; i++) {
+			service.registrarTentativa("usuario" + i + "@email.com", "10.0.1.1");
+		}
+		Throwable erro = catchThrowable(() -> service.registrarTentativa("outro@email.com", "10.0.1.1"));
+		assertThat(erro).isInstanceOf(TentativasExcedidasException.class);
+		service.registrarTentativa("outro@email.com", "10.0.1.2");
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.api.dto.LancamentoDTO;
+import com.dsousa.minhasfinancas.model.consulta.FiltroLancamento;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class PesquisaLancamentoServiceTest {
+
+	@Autowired
+	PesquisaLancamentoService service;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Test
+	public void deveFiltrarPorTrechoDaDescricaoUsandoOIndice() {
+		Usuario usuario = criarUsuario();
+		Lancamento aluguel = lancamentoService.salvar(criarLancamento(usuario, "Aluguel do apartamento"));
+		lancamentoService.salvar(criarLancamento(usuario, "Conta de luz"));
+		Lancamento outroUsuario = lancamentoService.salvar(criarLancamento(criarUsuario(), "Aluguel da sala"));
+
+		assertThat(service.obterCandidatos(usuario.getId(), "ALUG").get()).containsExactly(aluguel.getId());
+		assertThat(buscar(usuario, "apart")).extracting(LancamentoDTO::getId).containsExactly(aluguel.getId());
+		assertThat(buscar(usuario, "aluguel")).extracting(LancamentoDTO::getId).doesNotContain(outroUsuario.getId());
+		assertThat(buscar(usuario, "lu")).hasSize(2);
+		assertThat(buscar(usuario, "mercado")).isEmpty();
+	}
+
+	@Test
+	public void deveAcompanharAlteracoesEExclusoesDaDescricao() {
+		Usuario usuario = criarUsuario();
+		Lancamento lancamento = lancamentoService.salvar(criarLancamento(usuario, "Mercado"));
+		lancamento.setDescricao("Farmácia");
+		lancamentoService.atualizar(lancamento);
+
+		assertThat(buscar(usuario, "mercado")).isEmpty();
+		assertThat(service.obterCandidatos(usuario.getId(), "mercado").get()).isEmpty();
+		assertThat(buscar(usuario, "farm")).hasSize(1);
+
+		lancamentoService.deletar(lancamento);
+		assertThat(service.obterCandidatos(usuario.getId(), "farm").get()).isEmpty();
+	}
+
+	@Test
+	public void deveOrdenarAPesquisaPorSimilaridade() {
+		Usuario usuario = criarUsuario();
+		lancamentoService.salvar(criarLancamento(usuario, "Pagamento do aluguel atrasado"));
+		Lancamento exato = lancamentoService.salvar(criarLancamento(usuario, "Aluguel"));
+		lancamentoService.salvar(criarLancamento(usuario, "Supermercado"));
+
+		List<LancamentoDTO> resultado = lancamentoService.pesquisar(usuario.getId(), "aluguel", 10);
+		assertThat(resultado).hasSize(2);
+		assertThat(resultado.get(0).getId()).isEqualTo(exato.getId());
+
+		assertThat(lancamentoService.pesquisar(usuario.getId(), "alugel", 10)).extracting(LancamentoDTO::getId)
+			.contains(exato.getId());
+	}
+
+	private List<LancamentoDTO> buscar(Usuario usuario, String descricao) {
+		return lancamentoService
+			.buscar(FiltroLancamento.builder().idUsuario(usuario.getId()).descricao(descricao).build());
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+	private Lancamento criarLancamento(Usuario usuario, String descricao) {
+		return Lancamento.builder()
+			.descricao(descricao)
+			.ano(2024)
+			.mes(1)
+			.usuario(usuario)
+			.valor(BigDecimal.TEN)
+			.tipo(TipoLancamento.DESPESA)
+			.build();
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.exception.RegraNegocioException;
+import com.dsousa.minhasfinancas.model.consulta.ItemRelatorio;
+import com.dsousa.minhasfinancas.model.consulta.PontoSaldo;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.ResumoMensalRepositoryImpl;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ResumoMensalServiceTest {
+
+	@Autowired
+	ResumoMensalService service;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	ResumoMensalRepositoryImpl repositoryImpl;
+
+	@Test
+	public void deveManterORelatorioMensalAPartirDasEscritas() {
+		Usuario usuario = criarUsuario();
+		Lancamento salario = lancamentoService.salvar(criarLancamento(usuario, 2020, 1, TipoLancamento.RECEITA, 1000));
+		Lancamento aluguel = lancamentoService.salvar(criarLancamento(usuario, 2020, 1, TipoLancamento.DESPESA, 400));
+		lancamentoService.salvar(criarLancamento(usuario, 2020, 2, TipoLancamento.DESPESA, 50));
+		lancamentoService.atualizarStatus(salario, StatusLancamento.EFETIVADO);
+		aluguel.setMes(3);
+		lancamentoService.atualizar(aluguel);
+
+		List<ItemRelatorio> relatorio = service.obterRelatorioMensal(usuario.getId(), 2020);
+
+		assertThat(relatorio).extracting(ItemRelatorio::getMes).containsExactly(1, 2, 3);
+		assertThat(relatorio.get(0).getReceitas()).isEqualByComparingTo("1000");
+		assertThat(relatorio.get(0).getQuantidade()).isEqualTo(1);
+		assertThat(relatorio.get(1).getDespesasPendentes()).isEqualByComparingTo("50");
+		assertThat(relatorio.get(2).getDespesasPendentes()).isEqualByComparingTo("400");
+
+		lancamentoService.deletar(aluguel);
+		assertThat(service.obterRelatorioMensal(usuario.getId(), 2020)).extracting(ItemRelatorio::getMes)
+			.containsExactly(1, 2);
+	}
+
+	@Test
+	public void deveAgruparORelatorioAnual() {
+		Usuario usuario = criarUsuario();
+		for (int mes = 1; mes <= 12; mes++) {
+			Lancamento receita = lancamentoService
+				.salvar(criarLancamento(usuario, 2019, mes, TipoLancamento.RECEITA, 100));
+			lancamentoService.atualizarStatus(receita, StatusLancamento.EFETIVADO);
+		}
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, 2021, 6, TipoLancamento.DESPESA, 30));
+		lancamentoService.atualizarStatus(despesa, StatusLancamento.EFETIVADO);
+
+		List<ItemRelatorio> relatorio = service.obterRelatorioAnual(usuario.getId(), 2019, 2021);
+
+		assertThat(relatorio).extracting(ItemRelatorio::getAno).containsExactly(2019, 2021);
+		assertThat(relatorio.get(0).getMes()).isNull();
+		assertThat(relatorio.get(0).getSaldo()).isEqualByComparingTo("1200");
+		assertThat(relatorio.get(0).getQuantidade()).isEqualTo(12);
+		assertThat(relatorio.get(1).getSaldo()).isEqualByComparingTo("-30");
+	}
+
+	@Test
+	public void deveReconstruirOResumoAPartirDosLancamentos() {
+		Usuario usuario = criarUsuario();
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, 2022, 5, TipoLancamento.RECEITA, 70));
+		lancamentoService.atualizarStatus(receita, StatusLancamento.EFETIVADO);
+		jdbcTemplate.update("DELETE FROM financas.resumo_mensal WHERE id_usuario = ?", usuario.getId());
+		assertThat(service.obterRelatorioMensal(usuario.getId(), 2022)).isEmpty();
+
+		service.reconstruir();
+
+		List<ItemRelatorio> relatorio = service.obterRelatorioMensal(usuario.getId(), 2022);
+		assertThat(relatorio).hasSize(1);
+		assertThat(relatorio.get(0).getReceitas()).isEqualByComparingTo("70");
+	}
+
+	@Test
+	public void deveCalcularOHistoricoDoSaldoComESemFuncoesDeJanela() {
+		Usuario usuario = criarUsuario();
+		efetivar(criarLancamento(usuario, 2019, 11, TipoLancamento.RECEITA, 500));
+		efetivar(criarLancamento(usuario, 2020, 2, TipoLancamento.DESPESA, 120));
+		efetivar(criarLancamento(usuario, 2020, 2, TipoLancamento.RECEITA, 20));
+		lancamentoService.salvar(criarLancamento(usuario, 2020, 3, TipoLancamento.DESPESA, 999));
+		efetivar(criarLancamento(usuario, 2020, 4, TipoLancamento.RECEITA, 50));
+		efetivar(criarLancamento(usuario, 2021, 1, TipoLancamento.RECEITA, 1000));
+
+		for (boolean funcoesDeJanela : new boolean[] { true, false }) {
+			ReflectionTestUtils.setField(repositoryImpl, "funcoesDeJanela", funcoesDeJanela);
+			List<PontoSaldo> historico = service.obterHistoricoSaldo(usuario.getId(), 2020, 1, 2020, 5);
+			assertThat(historico).extracting(PontoSaldo::getMes).containsExactly(1, 2, 3, 4, 5);
+			assertThat(historico).extracting(PontoSaldo::getSaldo)
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(new BigDecimal("500"), new BigDecimal("400"), new BigDecimal("400"),
+						new BigDecimal("450"), new BigDecimal("450"));
+			assertThat(historico.get(1).getMovimento()).isEqualByComparingTo("-100");
+			assertThat(historico.get(2).getMovimento()).isEqualByComparingTo("0");
+		}
+		ReflectionTestUtils.setField(repositoryImpl, "funcoesDeJanela", null);
+	}
+
+	@Test
+	public void deveRejeitarHistoricoComInicioDepoisDoFim() {
+		Throwable erro = catchThrowable(() -> service.obterHistoricoSaldo(1L, 2021, 1, 2020, 12));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class);
+	}
+
+	@Test
+	public void deveRejeitarIntervaloDeAnosInvalido() {
+		Throwable erro = catchThrowable(() -> service.obterRelatorioAnual(1L, 2021, 2019));
+		assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um intervalo de Anos válido.");
+	}
+
+	private void efetivar(Lancamento lancamento) {
+		lancamentoService.atualizarStatus(lancamentoService.salvar(lancamento), StatusLancamento.EFETIVADO);
+	}
+
+	private Usuario criarUsuario() {
+		return usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+	}
+
+	private Lancamento criarLancamento(Usuario usuario, int ano, int mes, TipoLancamento tipo, int valor) {
+		return Lancamento.builder()
+			.descricao("lancamento")
+			.ano(ano)
+			.mes(mes)
+			.usuario(usuario)
+			.valor(BigDecimal.valueOf(valor))
+			.tipo(tipo)
+			.build();
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.service.impl.RevogacaoTokenServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RevogacaoTokenServiceTest {
+
+	@Autowired
+	RevogacaoTokenServiceImpl service;
+
+	@Test
+	public void deveReconhecerUmTokenRevogado() {
+		String jti = UUID.randomUUID().toString();
+		assertThat(service.revogar(jti, daquiAUmaHora())).isTrue();
+		assertThat(service.isRevogado(jti)).isTrue();
+		assertThat(service.isRevogado(UUID.randomUUID().toString())).isFalse();
+	}
+
+	@Test
+	public void naoDeveRevogarDuasVezesOMesmoToken() {
+		String jti = UUID.randomUUID().toString();
+		assertThat(service.revogar(jti, daquiAUmaHora())).isTrue();
+		assertThat(service.revogar(jti, daquiAUmaHora())).isFalse();
+	}
+
+	@Test
+	public void deveManterAsRevogacoesAoRecarregarOFiltro() {
+		String jti = UUID.randomUUID().toString();
+		service.revogar(jti, daquiAUmaHora());
+		service.recarregar();
+		assertThat(service.isRevogado(jti)).isTrue();
+	}
+
+	@Test
+	public void deveDescartarRevogacoesExpiradasAoRecarregar() {
+		String jti = UUID.randomUUID().toString();
+		service.revogar(jti, new Date(System.currentTimeMillis() - 1000));
+		service.recarregar();
+		assertThat(service.isRevogado(jti)).isFalse();
+	}
+
+	private Date daquiAUmaHora() {
+		return new Date(System.currentTimeMillis() + 3600000);
+	}
+
+}
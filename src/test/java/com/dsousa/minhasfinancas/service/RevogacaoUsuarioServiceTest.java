@@ -0,0 +1,39 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.service.impl.RevogacaoUsuarioServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class RevogacaoUsuarioServiceTest {
+
+	@Autowired
+	RevogacaoUsuarioServiceImpl service;
+
+	@Test
+	public void deveRevogarSoOsTokensEmitidosAntesDoSegundoDaRevogacao() {
+		Long idUsuario = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE - 1);
+		long antes = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+		service.revogar(idUsuario);
+		long depois = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+		assertThat(service.isRevogado(idUsuario, new Date(TimeUnit.SECONDS.toMillis(antes - 1)))).isTrue();
+		assertThat(service.isRevogado(idUsuario, new Date(TimeUnit.SECONDS.toMillis(depois) + 999))).isFalse();
+		assertThat(service.isRevogado(idUsuario + 1, new Date(TimeUnit.SECONDS.toMillis(antes - 1)))).isFalse();
+		service.reativar(idUsuario);
+		assertThat(service.isRevogado(idUsuario, new Date(TimeUnit.SECONDS.toMillis(antes - 1)))).isFalse();
+	}
+
+}
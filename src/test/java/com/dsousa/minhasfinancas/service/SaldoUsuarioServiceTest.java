@@ -0,0 +1,174 @@
+package com.dsousa.minhasfinancas.service;
+
+import com.dsousa.minhasfinancas.model.consulta.RelatorioReconciliacao;
+import com.dsousa.minhasfinancas.model.entity.Lancamento;
+import com.dsousa.minhasfinancas.model.entity.Usuario;
+import com.dsousa.minhasfinancas.model.enums.StatusLancamento;
+import com.dsousa.minhasfinancas.model.enums.TipoLancamento;
+import com.dsousa.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.dsousa.minhasfinancas.model.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class SaldoUsuarioServiceTest {
+
+	@Autowired
+	SaldoUsuarioService service;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	SaldoUsuarioRepository saldoUsuarioRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Test
+	public void deveAcompanharInclusaoAlteracaoEExclusaoDeLancamentos() {
+		Usuario usuario = criarUsuario();
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 100));
+		Lancamento despesa = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.DESPESA, 30));
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("0");
+
+		lancamentoService.atualizarStatus(receita, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(despesa, StatusLancamento.EFETIVADO);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("70");
+
+		despesa.setValor(BigDecimal.valueOf(45));
+		lancamentoService.atualizar(despesa);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("55");
+
+		lancamentoService.atualizarStatus(receita, StatusLancamento.CANCELADO);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("-45");
+
+		lancamentoService.deletar(despesa);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("0");
+	}
+
+	@Test
+	public void naoDevePerderAtualizacoesConcorrentes() throws Exception {
+		Usuario usuario = criarUsuario();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> tarefas = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			tarefas.add(executor.submit(() -> {
+				Lancamento lancamento = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 10));
+				lancamentoService.atualizarStatus(lancamento, StatusLancamento.EFETIVADO);
+			}));
+		}
+		for (Future<?> tarefa : tarefas) {
+			tarefa.get();
+		}
+		executor.shutdown();
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("200");
+	}
+
+	@Test
+	public void deveCriarOSaldoUmaUnicaVezEmPrimeirasEscritasConcorrentes() throws Exception {
+		Usuario usuario = criarUsuario();
+		jdbcTemplate.update("DELETE FROM financas.saldo_usuario WHERE id_usuario = ?", usuario.getId());
+		CountDownLatch criado = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		Future<?> primeira = executor.submit(() -> transactionTemplate.execute(status -> {
+			saldoUsuarioRepository.bloquear(usuario.getId());
+			criado.countDown();
+			try {
+				liberar.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		}));
+		criado.await(5, TimeUnit.SECONDS);
+		Future<?> segunda = executor.submit(() -> transactionTemplate.execute(status -> {
+			saldoUsuarioRepository.bloquear(usuario.getId());
+			return null;
+		}));
+		Thread.sleep(200);
+		liberar.countDown();
+
+		primeira.get();
+		segunda.get();
+		executor.shutdown();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT versao FROM financas.saldo_usuario WHERE id_usuario = ?",
+				Long.class, usuario.getId()))
+			.isEqualTo(2L);
+	}
+
+	@Test
+	public void deveCorrigirSaldosDivergentesNaReconciliacao() {
+		Usuario usuario = criarUsuario();
+		Lancamento receita = lancamentoService.salvar(criarLancamento(usuario, TipoLancamento.RECEITA, 80));
+		lancamentoService.atualizarStatus(receita, StatusLancamento.EFETIVADO);
+		jdbcTemplate.update("UPDATE financas.saldo_usuario SET saldo = 5 WHERE id_usuario = ?", usuario.getId());
+
+		RelatorioReconciliacao relatorio = service.reconciliar();
+
+		assertThat(relatorio.getDivergencias()).anySatisfy(divergencia -> {
+			assertThat(divergencia.getIdUsuario()).isEqualTo(usuario.getId());
+			assertThat(divergencia.getSaldoArmazenado()).isEqualByComparingTo("5");
+			assertThat(divergencia.getSaldoCalculado()).isEqualByComparingTo("80");
+			assertThat(divergencia.isCorrigido()).isTrue();
+		});
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("80");
+	}
+
+	@Test
+	public void deveCriarOSaldoDeUsuariosSemSaldoNaReconciliacao() {
+		Usuario usuario = criarUsuario();
+		jdbcTemplate.update("DELETE FROM financas.saldo_usuario WHERE id_usuario = ?", usuario.getId());
+		RelatorioReconciliacao relatorio = service.reconciliar();
+		assertThat(relatorio.getSaldosCriados()).isGreaterThanOrEqualTo(1);
+		assertThat(service.obterSaldo(usuario.getId())).isEqualByComparingTo("0");
+	}
+
+	private Usuario criarUsuario() {
+		Usuario usuario = usuarioRepository
+			.save(Usuario.builder().nome("usuario").email(UUID.randomUUID() + "@email.com").senha("senha").build());
+		service.inicializar(usuario.getId());
+		return usuario;
+	}
+
+	private Lancamento criarLancamento(Usuario usuario, TipoLancamento tipo, int valor) {
+		return Lancamento.builder()
+			.descricao("lancamento")
+			.ano(2024)
+			.mes(1)
+			.usuario(usuario)
+			.valor(BigDecimal.valueOf(valor))
+			.tipo(tipo)
+			.build();
+	}
+
+}
@@ -15,6 +15,7 @@ import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -33,6 +34,12 @@ public class UsuarioServiceTest {
 	@MockBean
 	UsuarioRepository repository;
 
+	@SpyBean
+	SenhaService senhaService;
+
+	@MockBean
+	SaldoUsuarioService saldoUsuarioService;
+
 	@Test
 	public void deveSalvarUmUsuario() {
 		Usuario usuario = Usuario.builder().id(1L).nome("nome").email("email@email.com").senha("senha").build();
@@ -44,6 +51,21 @@ public class UsuarioServiceTest {
 		Assertions.assertThat(usuarioSalvo.getNome()).isEqualTo("nome");
 	}
 
+	@Test
+	public void deveCriptografarASenhaForaDaTransacaoDoCadastro() {
+		Usuario usuario = Usuario.builder().nome("nome").email("fora@email.com").senha("senha").build();
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).thenReturn(usuario);
+		Mockito.doAnswer(invocacao -> {
+			Assertions.assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+			return invocacao.callRealMethod();
+		}).when(senhaService).criptografar("senha");
+
+		service.salvarUsuario(usuario);
+
+		Mockito.verify(senhaService).criptografar("senha");
+		Mockito.verify(repository).save(usuario);
+	}
+
 	@Test
 	public void naoDeveSalvarUmUsuarioComEmailJaCadastrado() {
 		String email = "email@email.com";
@@ -68,6 +90,18 @@ public class UsuarioServiceTest {
 		Assertions.assertThat(result).isNotNull();
 	}
 
+	@Test
+	public void deveAtualizarOCustoDaSenhaAposAutenticarComSucesso() {
+		String email = "email@email.com";
+		String senhaAntiga = new BCryptPasswordEncoder(4).encode("senha");
+		Usuario usuario = Usuario.builder().email(email).senha(senhaAntiga).id(1L).build();
+		Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+		Mockito.doReturn(true).when(senhaService).precisaAtualizar(senhaAntiga);
+		service.autenticar(email, "senha");
+		Mockito.verify(repository, Mockito.timeout(5000))
+			.atualizarSenha(Mockito.eq(1L), Mockito.eq(senhaAntiga), Mockito.anyString());
+	}
+
 	@Test
 	public void deveLancarErroQUandoNaoEncontrarUsuarioCadastradoComOEmailInformado() {
 		Mockito.when(repository.findByEmail(Mockito.anyString())).thenReturn(Optional.empty());